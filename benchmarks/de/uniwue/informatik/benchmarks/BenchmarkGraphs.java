@@ -0,0 +1,163 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.javatuples.Pair;
+
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.algorithms.layout.VData.VType;
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+
+/**
+ * Inputs of the benchmarks whose size can be chosen (besides the ones of
+ * {@link de.uniwue.informatik.util.EmbeddedGraphGenerator}).
+ * They are built in linear time via {@link EmbeddedUndirectedGraph#fromRotationSystem(Map)}.
+ *
+ * @author Johannes
+ *
+ */
+public class BenchmarkGraphs {
+
+	/**
+	 * Ladder of k quadrangles t_i, t_(i+1), b_(i+1), b_i (top path t_0, ..., t_k, bottom path b_0, ..., b_k and
+	 * rungs t_i b_i) between a vertex above all t_i and a vertex below all b_i.
+	 * If withCrossings, the quadrangles with even i get a crossing vertex adjacent to its four corners (a kite),
+	 * otherwise they are divided by the edge t_i b_(i+1) like all quadrangles with odd i.
+	 * The kites do not share vertices, so the graph with crossings is NIC-planar.
+	 * The outer face is a quadrangle whose edges are incident to inner triangles only.
+	 *
+	 * @param numberOfVertices
+	 * 		the number of vertices of the graph is at least 4 and at most numberOfVertices + 4
+	 * @return
+	 * 		value0 = embedded graph, value1 = crossing vertices in that graph (empty if not withCrossings)
+	 */
+	public static Pair<EmbeddedUndirectedGraph<VData<String>, String>, LinkedHashSet<VData<String>>> getKiteLadder(
+			int numberOfVertices, boolean withCrossings) {
+		//k quadrangles have 2 (k + 1) + 2 vertices plus k / 2 crossing vertices; k is even
+		int k = Math.max(2, (int) ((numberOfVertices - 4) / (withCrossings ? 2.5 : 2.0)) / 2 * 2);
+
+		VData<String> north = new VData<String>("n");
+		VData<String> south = new VData<String>("s");
+		List<VData<String>> top = new ArrayList<>(k + 1);
+		List<VData<String>> bottom = new ArrayList<>(k + 1);
+		List<VData<String>> crossing = new ArrayList<>(k);
+		LinkedHashSet<VData<String>> crossingVertices = new LinkedHashSet<>();
+		for (int i = 0; i <= k; ++i) {
+			top.add(new VData<String>("t"+i));
+			bottom.add(new VData<String>("b"+i));
+			VData<String> crossingVertex = null;
+			if (withCrossings && i < k && i % 2 == 0) {
+				crossingVertex = new VData<String>(VType.CROSSING_POINT);
+				crossingVertices.add(crossingVertex);
+			}
+			crossing.add(crossingVertex);
+		}
+
+		//edges
+		int edgeCounter = 0;
+		String[] topEdge = new String[k];
+		String[] bottomEdge = new String[k];
+		String[] rung = new String[k + 1];
+		String[] northEdge = new String[k + 1];
+		String[] southEdge = new String[k + 1];
+		String[] diagonal = new String[k];
+		String[][] crossingEdge = new String[k][]; //to t_i, t_(i+1), b_(i+1), b_i
+		for (int i = 0; i <= k; ++i) {
+			rung[i] = "e"+(edgeCounter++);
+			northEdge[i] = "e"+(edgeCounter++);
+			southEdge[i] = "e"+(edgeCounter++);
+			if (i < k) {
+				topEdge[i] = "e"+(edgeCounter++);
+				bottomEdge[i] = "e"+(edgeCounter++);
+				if (crossing.get(i) != null) {
+					crossingEdge[i] = new String[] {"e"+(edgeCounter++), "e"+(edgeCounter++), "e"+(edgeCounter++),
+							"e"+(edgeCounter++)};
+				}
+				else {
+					diagonal[i] = "e"+(edgeCounter++);
+				}
+			}
+		}
+		//the edge between north and south passes to the left of the ladder and is followed by the edge north b_0
+		String northSouthEdge = "e"+(edgeCounter++);
+		String northB0Edge = "e"+(edgeCounter++);
+
+		//rotation system, all orders counterclockwise
+		Map<VData<String>, List<Pair<VData<String>, String>>> rotationSystem = new LinkedHashMap<>();
+		List<Pair<VData<String>, String>> northNeighbors = new ArrayList<>(k + 3);
+		northNeighbors.add(new Pair<>(south, northSouthEdge));
+		northNeighbors.add(new Pair<>(bottom.get(0), northB0Edge));
+		for (int i = 0; i <= k; ++i) {
+			northNeighbors.add(new Pair<>(top.get(i), northEdge[i]));
+		}
+		rotationSystem.put(north, northNeighbors);
+		List<Pair<VData<String>, String>> southNeighbors = new ArrayList<>(k + 2);
+		for (int i = k; i >= 0; --i) {
+			southNeighbors.add(new Pair<>(bottom.get(i), southEdge[i]));
+		}
+		southNeighbors.add(new Pair<>(north, northSouthEdge));
+		rotationSystem.put(south, southNeighbors);
+		for (int i = 0; i <= k; ++i) {
+			List<Pair<VData<String>, String>> topNeighbors = new ArrayList<>(6);
+			if (i < k) {
+				topNeighbors.add(new Pair<>(top.get(i + 1), topEdge[i]));
+			}
+			topNeighbors.add(new Pair<>(north, northEdge[i]));
+			if (i > 0) {
+				topNeighbors.add(new Pair<>(top.get(i - 1), topEdge[i - 1]));
+				if (crossing.get(i - 1) != null) {
+					topNeighbors.add(new Pair<>(crossing.get(i - 1), crossingEdge[i - 1][1]));
+				}
+			}
+			topNeighbors.add(new Pair<>(bottom.get(i), rung[i]));
+			if (i < k) {
+				if (crossing.get(i) != null) {
+					topNeighbors.add(new Pair<>(crossing.get(i), crossingEdge[i][0]));
+				}
+				else {
+					topNeighbors.add(new Pair<>(bottom.get(i + 1), diagonal[i]));
+				}
+			}
+			rotationSystem.put(top.get(i), topNeighbors);
+
+			List<Pair<VData<String>, String>> bottomNeighbors = new ArrayList<>(7);
+			if (i < k) {
+				bottomNeighbors.add(new Pair<>(bottom.get(i + 1), bottomEdge[i]));
+				if (crossing.get(i) != null) {
+					bottomNeighbors.add(new Pair<>(crossing.get(i), crossingEdge[i][3]));
+				}
+			}
+			bottomNeighbors.add(new Pair<>(top.get(i), rung[i]));
+			if (i > 0) {
+				if (crossing.get(i - 1) != null) {
+					bottomNeighbors.add(new Pair<>(crossing.get(i - 1), crossingEdge[i - 1][2]));
+				}
+				else {
+					bottomNeighbors.add(new Pair<>(top.get(i - 1), diagonal[i - 1]));
+				}
+				bottomNeighbors.add(new Pair<>(bottom.get(i - 1), bottomEdge[i - 1]));
+			}
+			else {
+				bottomNeighbors.add(new Pair<>(north, northB0Edge));
+			}
+			bottomNeighbors.add(new Pair<>(south, southEdge[i]));
+			rotationSystem.put(bottom.get(i), bottomNeighbors);
+
+			if (crossing.get(i) != null) {
+				List<Pair<VData<String>, String>> crossingNeighbors = new ArrayList<>(4);
+				crossingNeighbors.add(new Pair<>(top.get(i + 1), crossingEdge[i][1]));
+				crossingNeighbors.add(new Pair<>(top.get(i), crossingEdge[i][0]));
+				crossingNeighbors.add(new Pair<>(bottom.get(i), crossingEdge[i][3]));
+				crossingNeighbors.add(new Pair<>(bottom.get(i + 1), crossingEdge[i][2]));
+				rotationSystem.put(crossing.get(i), crossingNeighbors);
+			}
+		}
+
+		//all other faces are triangles, so the largest face north, t_k, b_k, south becomes the outer face
+		return new Pair<>(EmbeddedUndirectedGraph.fromRotationSystem(rotationSystem), crossingVertices);
+	}
+}
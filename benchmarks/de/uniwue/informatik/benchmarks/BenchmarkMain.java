@@ -0,0 +1,49 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar (built via <code>mvn -P benchmarks package</code>).
+ * <p>
+ * Takes the usual JMH command line options, e.g. a regular expression selecting the benchmarks and
+ * <code>-p size=100,10000</code> to restrict the sizes (by default each benchmark runs for all sizes from
+ * 10^2 to 10^6 vertices, the larger ones take very long for the superlinear operations and the graphs with
+ * 10^6 vertices need a larger heap, e.g. <code>-jvmArgsAppend -Xmx16g</code>; the conflict graphs are quadratic
+ * in size, so {@link ConflictGraphBenchmark} only runs up to 10^4 grid points).
+ * Unless <code>-rf</code> or <code>-rff</code> is given, the results are written as JSON to
+ * target/jmh-result.json.
+ *
+ * @author Johannes
+ *
+ */
+public class BenchmarkMain {
+
+	public static final String DEFAULT_RESULT_FILE = "target"+File.separator+"jmh-result.json";
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+				|| commandLineOptions.shouldListWithParams() || commandLineOptions.shouldListProfilers()
+				|| commandLineOptions.shouldListResultFormats()) {
+			//plain JMH behavior
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			new File(DEFAULT_RESULT_FILE).getParentFile().mkdirs();
+			options.result(commandLineOptions.getResultFormat().hasValue() ? DEFAULT_RESULT_FILE.replace(".json",
+					"."+commandLineOptions.getResultFormat().get().toString().toLowerCase()) : DEFAULT_RESULT_FILE);
+		}
+		new Runner(options.build()).run();
+	}
+}
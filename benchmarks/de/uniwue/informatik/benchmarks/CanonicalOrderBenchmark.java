@@ -0,0 +1,79 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.javatuples.Pair;
+import org.javatuples.Triplet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uniwue.informatik.algorithms.layout.BiconnectedCanonicalOrderer;
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.util.CrossingRemovalFor1PlanarGraphs;
+import de.uniwue.informatik.util.DummyEdgeInsertion;
+import de.uniwue.informatik.util.GraphElementFactory;
+
+/**
+ * {@link BiconnectedCanonicalOrderer#apply(EmbeddedUndirectedGraph)} on a triangulated ladder and, with the
+ * removed crossing edges registered, on the planarized NIC-planar kite ladder (see {@link BenchmarkGraphs}).
+ * The graphs are built anew before each invocation because the ordering in the NIC-planar case inserts vertices
+ * and edges.
+ *
+ * @author Johannes
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanonicalOrderBenchmark {
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private EmbeddedUndirectedGraph<VData<String>, String> planarGraph;
+	private EmbeddedUndirectedGraph<VData<String>, String> planarizedNICPlanarGraph;
+	private Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<VData<String>>>> removedEdges;
+	private GraphElementFactory<VData<String>, String> elementFactory;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		planarGraph = BenchmarkGraphs.getKiteLadder(size, false).getValue0();
+		Pair<EmbeddedUndirectedGraph<VData<String>, String>, LinkedHashSet<VData<String>>> graphData = 
+				BenchmarkGraphs.getKiteLadder(size, true);
+		planarizedNICPlanarGraph = graphData.getValue0();
+		elementFactory = GraphElementFactory.createDefault();
+		DummyEdgeInsertion.insertEmptyKites(planarizedNICPlanarGraph, graphData.getValue1(), elementFactory);
+		removedEdges = CrossingRemovalFor1PlanarGraphs.removeCrossings(planarizedNICPlanarGraph, graphData.getValue1());
+	}
+
+	@Benchmark
+	public ArrayList<VData<String>> planar() {
+		return new BiconnectedCanonicalOrderer<VData<String>, String>().apply(planarGraph);
+	}
+
+	@Benchmark
+	public ArrayList<VData<String>> nicPlanar() {
+		return new BiconnectedCanonicalOrderer<VData<String>, String>()
+				.registerCollectionOfRemovedCrossingEdges(removedEdges, 
+						new LinkedHashMap<String, Triplet<String, VData<String>, String>>(), elementFactory)
+				.apply(planarizedNICPlanarGraph);
+	}
+}
@@ -0,0 +1,54 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uniwue.informatik.algorithms.conflicts.CompactConflictGraph;
+import de.uniwue.informatik.algorithms.conflicts.IncrementalConflictGraphBuilder;
+
+/**
+ * Construction of the conflict graph of a grid with size vertices (grid points) around the base point as in
+ * StackedTrianglesMain.computeConflictGraph (with a new builder, so nothing of a smaller grid is reused).
+ * <p>
+ * The neighborhoods of a {@link CompactConflictGraph} are bitsets, so it takes size^2 / 8 bytes.
+ * Hence the sizes end at 10^4 (12.5 MB); 10^5 (1.25 GB) can be run explicitly with a larger heap
+ * (<code>-p size=100000 -jvmArgsAppend -Xmx4g</code>), 10^6 would need about 125 GB.
+ *
+ * @author Johannes
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictGraphBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	public int size;
+
+	@Param({"false", "true"})
+	public boolean inParallel;
+
+	@Benchmark
+	public CompactConflictGraph computeConflictGraph() {
+		int n = (int) Math.round(Math.sqrt(size));
+		int xMin = -n / 2;
+		int xMax = (n - 1) / 2;
+		int yMin = -n / 2;
+		int yMax = (n - 1) / 2;
+		return new IncrementalConflictGraphBuilder(true, inParallel, true).grow(xMin, xMax, yMin, yMax, 
+				Math.max(xMax-yMin+1, yMax-yMin+1));
+	}
+}
@@ -0,0 +1,72 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.graph.embedding.Face;
+import de.uniwue.informatik.util.EmbeddedGraphGenerator;
+
+/**
+ * Insertion and removal of an edge splitting/uniting a face with all vertices and the collection of all faces of
+ * {@link EmbeddedUndirectedGraph}.
+ *
+ * @author Johannes
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddedGraphBenchmark {
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private EmbeddedUndirectedGraph<VData<String>, String> cycle;
+	private VData<String> chordEndpoint1;
+	private VData<String> chordEndpoint2;
+	private EmbeddedUndirectedGraph<VData<String>, String> triangulatedLadder;
+
+	@Setup
+	public void setup() {
+		cycle = EmbeddedGraphGenerator.getCycle(size);
+		ArrayList<VData<String>> vertices = new ArrayList<>(cycle.getVertices());
+		chordEndpoint1 = vertices.get(0);
+		chordEndpoint2 = vertices.get(size / 2);
+		if (!cycle.addEdge("chord", chordEndpoint1, 1, chordEndpoint2, 1) || !cycle.removeEdge("chord")) {
+			throw new IllegalStateException("Chord of the cycle could not be inserted and removed.");
+		}
+		triangulatedLadder = BenchmarkGraphs.getKiteLadder(size, false).getValue0();
+	}
+
+	/**
+	 * The chord splits both faces of the cycle into two faces of half the size and its removal unites them again
+	 */
+	@Benchmark
+	public boolean addAndRemoveEdge() {
+		cycle.addEdge("chord", chordEndpoint1, 1, chordEndpoint2, 1);
+		return cycle.removeEdge("chord");
+	}
+
+	@Benchmark
+	public Collection<Face<VData<String>, String>> getFaces() {
+		return triangulatedLadder.getFaces();
+	}
+}
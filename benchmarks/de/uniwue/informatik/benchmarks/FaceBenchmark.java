@@ -0,0 +1,67 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.javatuples.Triplet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.graph.embedding.EdgeSide;
+import de.uniwue.informatik.graph.embedding.Face;
+import de.uniwue.informatik.util.EmbeddedGraphGenerator;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * {@link Face#equals(Object)} and {@link Face#getIndex(Triplet)} on a face with as many edges as vertices
+ * (the inner face of a cycle).
+ *
+ * @author Johannes
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FaceBenchmark {
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private Face<VData<String>, String> face;
+	/**
+	 * Same face starting in the middle, so equals must search the first element and then compare all
+	 */
+	private Face<VData<String>, String> rotatedFace;
+	private Triplet<String, EdgeSide, Pair<VData<String>>> lastEdge;
+
+	@Setup
+	public void setup() {
+		face = EmbeddedGraphGenerator.getCycle(size).getOuterFace();
+		rotatedFace = new Face<>(face);
+		Collections.rotate(rotatedFace, size / 2);
+		lastEdge = face.get(face.size() - 1);
+	}
+
+	@Benchmark
+	public boolean equalsRotated() {
+		return face.equals(rotatedFace);
+	}
+
+	@Benchmark
+	public int getIndexOfLastEdge() {
+		return face.getIndex(lastEdge);
+	}
+}
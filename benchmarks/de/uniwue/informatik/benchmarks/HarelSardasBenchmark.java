@@ -0,0 +1,128 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.javatuples.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uniwue.informatik.algorithms.layout.HarelSardas;
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.util.CrossingRemovalFor1PlanarGraphs;
+import de.uniwue.informatik.util.DummyEdgeInsertion;
+import de.uniwue.informatik.util.GraphElementFactory;
+
+/**
+ * The placement steps of {@link HarelSardas} (the canonical ordering is computed in the setup) and
+ * {@link HarelSardas#reinsertCrossingEdgesInNICplanarCase(Collection)} after refining the grid by a factor of 2,
+ * both on the NIC-planar kite ladder (see {@link BenchmarkGraphs}) as in
+ * {@link de.uniwue.informatik.main.DrawGraphs}.
+ * <p>
+ * Each benchmark has its own state, which prepares only the drawing it measures before each invocation.
+ * As both benchmarks consume their drawing, it is prepared again before each invocation.
+ * Hence, the sizes stop at 100000 vertices; for more, the repeated preparation would dominate the run time.
+ *
+ * @author Johannes
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HarelSardasBenchmark {
+
+	/**
+	 * Drawing whose canonical ordering is computed, but whose vertices are not yet placed
+	 */
+	@State(Scope.Thread)
+	public static class PlacementState {
+
+		@Param({"100", "1000", "10000", "100000"})
+		public int size;
+
+		private HarelSardas<VData<String>, String> hs;
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			hs = createHarelSardas(size, null);
+		}
+	}
+
+	/**
+	 * Completely placed drawing on the refined grid whose crossing edges are not yet re-inserted
+	 */
+	@State(Scope.Thread)
+	public static class ReinsertionState {
+
+		@Param({"100", "1000", "10000", "100000"})
+		public int size;
+
+		private HarelSardas<VData<String>, String> hs;
+		private Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<VData<String>>>> removedEdges =
+				new ArrayList<>();
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			removedEdges.clear();
+			hs = createHarelSardas(size, removedEdges);
+			while (!hs.done()) {
+				hs.step();
+			}
+			for (VData<String> v : hs.getGraph().getVertices()) {
+				hs.setLocation(v, hs.getX(v) * 2, hs.getY(v) * 2);
+			}
+		}
+	}
+
+	/**
+	 * @param size
+	 * @param removedEdgesOutput
+	 * 		if not null, the crossing edges removed from the graph are added to it
+	 * @return
+	 */
+	private static HarelSardas<VData<String>, String> createHarelSardas(int size,
+			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<VData<String>>>>
+			removedEdgesOutput) {
+		Pair<EmbeddedUndirectedGraph<VData<String>, String>, LinkedHashSet<VData<String>>> graphData = 
+				BenchmarkGraphs.getKiteLadder(size, true);
+		EmbeddedUndirectedGraph<VData<String>, String> graph = graphData.getValue0();
+		GraphElementFactory<VData<String>, String> elementFactory = GraphElementFactory.createDefault();
+		DummyEdgeInsertion.insertEmptyKites(graph, graphData.getValue1(), elementFactory);
+		Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<VData<String>>>> removedEdges =
+				CrossingRemovalFor1PlanarGraphs.removeCrossings(graph, graphData.getValue1());
+		if (removedEdgesOutput != null) {
+			removedEdgesOutput.addAll(removedEdges);
+		}
+		return new HarelSardas<>(graph, removedEdges, elementFactory);
+	}
+
+	@Benchmark
+	public HarelSardas<VData<String>, String> step(PlacementState state) {
+		HarelSardas<VData<String>, String> hs = state.hs;
+		while (!hs.done()) {
+			hs.step();
+		}
+		return hs;
+	}
+
+	@Benchmark
+	public HarelSardas<VData<String>, String> reinsertCrossingEdges(ReinsertionState state) {
+		state.hs.reinsertCrossingEdgesInNICplanarCase(state.removedEdges);
+		return state.hs;
+	}
+}
@@ -0,0 +1,79 @@
+package de.uniwue.informatik.benchmarks;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uniwue.informatik.algorithms.layout.PseudoComplexLayout;
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.util.IpeFileWriter;
+import edu.uci.ics.jung.algorithms.layout.AbstractLayout;
+
+/**
+ * {@link IpeFileWriter#writeFile(String, String, AbstractLayout, java.util.Collection, boolean, 
+ * de.uniwue.informatik.algorithms.layout.AbstractGridLayout)} with grid lines, as called by
+ * {@link de.uniwue.informatik.main.DrawGraphs}, for the triangulated ladder (see {@link BenchmarkGraphs}).
+ * The vertices are placed row by row on a square grid (computing a drawing would dominate the setup for the
+ * large sizes), so the file has about 2 sqrt(n) grid lines, n marks and 3 n edges.
+ *
+ * @author Johannes
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IpeExportBenchmark {
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private PseudoComplexLayout<String, String> gridLayout;
+	private AbstractLayout<VData<String>, String> layout;
+	private File directory;
+
+	@Setup
+	public void setup() throws IOException {
+		EmbeddedUndirectedGraph<VData<String>, String> graph = BenchmarkGraphs.getKiteLadder(size, false).getValue0();
+		gridLayout = new PseudoComplexLayout<>(graph);
+		int width = (int) Math.ceil(Math.sqrt(graph.getVertexCount()));
+		int i = 0;
+		for (VData<String> v : graph.getVertices()) {
+			gridLayout.setLocation(v, i % width, i / width);
+			++i;
+		}
+		layout = gridLayout.transformToFloatingPointLayout(new Dimension(width, width));
+		directory = Files.createTempDirectory("ipe-benchmark").toFile();
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Benchmark
+	public void writeFile() {
+		IpeFileWriter.writeFile(directory.getPath(), "drawing", layout, null, true, gridLayout);
+	}
+}
@@ -0,0 +1,47 @@
+package de.uniwue.informatik.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of one phase of a drawing run, see {@link PhaseRecorder}.
+ * It is only loaded by {@link JfrPhaseRecorder} if the running JVM has the module jdk.jfr.
+ *
+ * @author Johannes
+ *
+ */
+@Name("de.uniwue.informatik.DrawingPhase")
+@Label("Drawing Phase")
+@Category({"Embedded Graph Drawing"})
+@Description("One phase of computing a (NIC-planar RAC) drawing")
+@StackTrace(false)
+class DrawingPhaseEvent extends jdk.jfr.Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Vertices")
+	@Description("Number of vertices of the graph at the end of the phase")
+	int vertices;
+
+	@Label("Edges")
+	@Description("Number of edges of the graph at the end of the phase")
+	int edges;
+
+	@Label("Faces")
+	@Description("Number of faces of the embedded graph at the end of the phase, -1 if the graph is not embedded")
+	int faces;
+
+	@Label("Steps")
+	@Description("Number of steps of the shift algorithm in this batch, 0 for the other phases")
+	int steps;
+
+	@Label("Allocated")
+	@Description("Bytes allocated by the thread during the phase, -1 if not supported by the JVM")
+	@DataAmount
+	long allocatedBytes;
+}
@@ -0,0 +1,74 @@
+package de.uniwue.informatik.util;
+
+import java.lang.management.ManagementFactory;
+
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * {@link PhaseRecorder} committing a {@link DrawingPhaseEvent}.
+ * It is only loaded by {@link PhaseRecorder} (via {@link JfrPhaseRecorder.JfrFactory}) if the running JVM has the
+ * module jdk.jfr.
+ *
+ * @author Johannes
+ *
+ */
+class JfrPhaseRecorder extends PhaseRecorder {
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+			ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean ?
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+
+	private final DrawingPhaseEvent event;
+	private final long allocatedBytesAtBegin;
+
+	private JfrPhaseRecorder(DrawingPhaseEvent event) {
+		this.event = event;
+		this.allocatedBytesAtBegin = allocatedBytes();
+	}
+
+	static class JfrFactory implements PhaseRecorder.Factory {
+
+		@Override
+		public PhaseRecorder begin(PhaseRecorder.Phase phase) {
+			DrawingPhaseEvent event = new DrawingPhaseEvent();
+			if (!event.isEnabled()) {
+				return null;
+			}
+			event.phase = phase.toString();
+			JfrPhaseRecorder phaseRecorder = new JfrPhaseRecorder(event);
+			event.begin();
+			return phaseRecorder;
+		}
+	}
+
+	@Override
+	public void end(Graph<?, ?> graph, int steps) {
+		event.end();
+		if (!event.shouldCommit()) {
+			return;
+		}
+		long allocatedBytesAtEnd = allocatedBytes();
+		event.allocatedBytes = allocatedBytesAtBegin < 0 || allocatedBytesAtEnd < 0 ? -1
+				: allocatedBytesAtEnd - allocatedBytesAtBegin;
+		event.faces = -1;
+		if (graph != null) {
+			event.vertices = graph.getVertexCount();
+			event.edges = graph.getEdgeCount();
+			if (graph instanceof EmbeddedUndirectedGraph && event.vertices > 0) {
+				//Euler's formula; the graphs of a drawing run are connected
+				event.faces = event.edges - event.vertices + 2;
+			}
+		}
+		event.steps = steps;
+		event.commit();
+	}
+
+	private static long allocatedBytes() {
+		if (THREAD_MX_BEAN == null || !THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+				|| !THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+		return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
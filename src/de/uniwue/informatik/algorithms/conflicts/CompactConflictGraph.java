@@ -0,0 +1,345 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.Arrays;
+
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+import edu.uci.ics.jung.graph.UndirectedGraph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+
+/**
+ * Conflict graph on the grid points of [xMin, xMax] x [yMin, yMax] without vertex or edge objects.
+ * <p>
+ * The grid point (x, y) has the index (x - xMin) * H + (y - yMin), where H = yMax - yMin + 1 is the height of
+ * the grid.
+ * The origin is no vertex, but keeps its index (so that indices can be computed from the coordinates).
+ * The neighborhood of each vertex is stored as bitset (one bit per index).
+ * Conflict graphs are dense, so this needs much less memory than adjacency lists (let alone one object per edge).
+ * <p>
+ * Use {@link CompactConflictGraph#toJungGraph()} to obtain a JUNG graph where one is needed.
+ *
+ * @author Johannes
+ *
+ */
+public class CompactConflictGraph implements ConflictGraph {
+
+	private final int xMin, xMax, yMin, yMax;
+	private final int height;
+	private final int numberOfIndices;
+	/**
+	 * neighborhoods[a] has bit b set iff a and b conflict; null iff a is no vertex
+	 */
+	private final long[][] neighborhoods;
+	private int vertexCount;
+
+	/**
+	 * Creates the graph with all grid points except for the origin as vertices and without edges
+	 */
+	public CompactConflictGraph(int xMin, int xMax, int yMin, int yMax) {
+		this(xMin, xMax, yMin, yMax, true);
+	}
+
+	/**
+	 * Creates the graph with the grid points of table as vertices and without edges
+	 * (on the grid of table, also if table does not contain all its grid points)
+	 */
+	public CompactConflictGraph(PointSegmentTable table) {
+		this(table.getXMin(), table.getXMax(), table.getYMin(), table.getYMax(), false);
+		int wordsPerNeighborhood = (numberOfIndices + 63) >>> 6;
+		for (int i = 0; i < table.size(); ++i) {
+			neighborhoods[getIndex(table.getX(i), table.getY(i))] = new long[wordsPerNeighborhood];
+		}
+		vertexCount = table.size();
+	}
+
+	private CompactConflictGraph(int xMin, int xMax, int yMin, int yMax, boolean withAllGridPoints) {
+		if (xMin > xMax || yMin > yMax) {
+			throw new IllegalArgumentException("Empty grid ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"].");
+		}
+		long numberOfGridPoints = ((long) xMax - xMin + 1) * ((long) yMax - yMin + 1);
+		if (numberOfGridPoints > Integer.MAX_VALUE - 64) {
+			throw new IllegalArgumentException("Grid ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"] is too large.");
+		}
+		this.xMin = xMin;
+		this.xMax = xMax;
+		this.yMin = yMin;
+		this.yMax = yMax;
+		this.height = yMax - yMin + 1;
+		this.numberOfIndices = (int) numberOfGridPoints;
+		neighborhoods = new long[numberOfIndices][];
+		if (withAllGridPoints) {
+			int wordsPerNeighborhood = (numberOfIndices + 63) >>> 6;
+			for (int a = 0; a < numberOfIndices; ++a) {
+				if (getX(a) != 0 || getY(a) != 0) {
+					neighborhoods[a] = new long[wordsPerNeighborhood];
+					++vertexCount;
+				}
+			}
+		}
+	}
+
+	@Override
+	public int getXMin() {
+		return xMin;
+	}
+
+	@Override
+	public int getXMax() {
+		return xMax;
+	}
+
+	@Override
+	public int getYMin() {
+		return yMin;
+	}
+
+	@Override
+	public int getYMax() {
+		return yMax;
+	}
+
+	/**
+	 * @return
+	 * 		number of indices (vertices and removed or excluded grid points), all indices are in [0, this number)
+	 */
+	@Override
+	public int getNumberOfIndices() {
+		return numberOfIndices;
+	}
+
+	@Override
+	public int getIndex(int x, int y) {
+		if (x < xMin || x > xMax || y < yMin || y > yMax) {
+			throw new IllegalArgumentException("("+x+", "+y+") is not in ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"].");
+		}
+		return (x - xMin) * height + (y - yMin);
+	}
+
+	@Override
+	public int getX(int index) {
+		return xMin + index / height;
+	}
+
+	@Override
+	public int getY(int index) {
+		return yMin + index % height;
+	}
+
+	@Override
+	public GridPoint getGridPoint(int index) {
+		return new GridPoint(getX(index), getY(index));
+	}
+
+	@Override
+	public boolean isVertex(int index) {
+		return neighborhoods[index] != null;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public long getEdgeCount() {
+		long degreeSum = 0;
+		for (int a = 0; a < numberOfIndices; ++a) {
+			degreeSum += degree(a);
+		}
+		return degreeSum / 2;
+	}
+
+	@Override
+	public int degree(int index) {
+		if (neighborhoods[index] == null) {
+			return 0;
+		}
+		int degree = 0;
+		for (long word : neighborhoods[index]) {
+			degree += Long.bitCount(word);
+		}
+		return degree;
+	}
+
+	@Override
+	public boolean isAdjacent(int a, int b) {
+		return neighborhoods[a] != null && (neighborhoods[a][b >>> 6] & (1L << b)) != 0;
+	}
+
+	/**
+	 * @return
+	 * 		the bitset of the neighbors of index (must not be modified) or null if index is no vertex
+	 */
+	public long[] getNeighborhood(int index) {
+		return neighborhoods[index];
+	}
+
+	/**
+	 * @return
+	 * 		the smallest neighbor of index that is at least fromIndex or -1 if there is none
+	 */
+	@Override
+	public int nextNeighbor(int index, int fromIndex) {
+		long[] neighborhood = neighborhoods[index];
+		if (neighborhood == null || fromIndex >= numberOfIndices) {
+			return -1;
+		}
+		int w = fromIndex >>> 6;
+		long word = neighborhood[w] & (-1L << fromIndex);
+		while (word == 0) {
+			if (++w == neighborhood.length) {
+				return -1;
+			}
+			word = neighborhood[w];
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	@Override
+	public int[] getNeighbors(int index) {
+		int[] neighbors = new int[degree(index)];
+		int k = 0;
+		for (int b = nextNeighbor(index, 0); b >= 0; b = nextNeighbor(index, b + 1)) {
+			neighbors[k++] = b;
+		}
+		return neighbors;
+	}
+
+	/**
+	 * Adds the edge between a and b (in both neighborhoods)
+	 */
+	public void addEdge(int a, int b) {
+		if (a == b || !isVertex(a) || !isVertex(b)) {
+			throw new IllegalArgumentException("No edge possible between "+getGridPoint(a)+" and "+getGridPoint(b)+".");
+		}
+		neighborhoods[a][b >>> 6] |= 1L << b;
+		neighborhoods[b][a >>> 6] |= 1L << a;
+	}
+
+	/**
+	 * Sets bit b only in the neighborhood of a.
+	 * Several threads may call this concurrently for different a; afterwards {@link CompactConflictGraph#symmetrize()}
+	 * must be called.
+	 */
+	void addArc(int a, int b) {
+		neighborhoods[a][b >>> 6] |= 1L << b;
+	}
+
+	/**
+	 * Adds for each bit b set in the neighborhood of a with a < b also bit a in the neighborhood of b
+	 */
+	void symmetrize() {
+		for (int a = 0; a < numberOfIndices; ++a) {
+			for (int b = nextNeighbor(a, a + 1); b >= 0; b = nextNeighbor(a, b + 1)) {
+				neighborhoods[b][a >>> 6] |= 1L << a;
+			}
+		}
+	}
+
+	/**
+	 * Adds all edges of smaller (its grid must be contained in the grid of this graph; vertices of both graphs
+	 * are identified by their coordinates).
+	 * Each column of a neighborhood of smaller is copied as one bit range.
+	 */
+	public void addEdgesOf(CompactConflictGraph smaller) {
+		if (smaller.xMin < xMin || smaller.xMax > xMax || smaller.yMin < yMin || smaller.yMax > yMax) {
+			throw new IllegalArgumentException("Grid ["+smaller.xMin+", "+smaller.xMax+"] x ["+smaller.yMin+", "
+					+smaller.yMax+"] is not contained in ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"].");
+		}
+		for (int a = 0; a < smaller.numberOfIndices; ++a) {
+			if (!smaller.isVertex(a)) {
+				continue;
+			}
+			long[] neighborhood = neighborhoods[getIndex(smaller.getX(a), smaller.getY(a))];
+			for (int x = smaller.xMin; x <= smaller.xMax; ++x) {
+				orBits(smaller.neighborhoods[a], smaller.getIndex(x, smaller.yMin), neighborhood,
+						getIndex(x, smaller.yMin), smaller.height);
+			}
+		}
+	}
+
+	/**
+	 * dst[dstPos, dstPos + length) |= src[srcPos, srcPos + length) (as bit ranges)
+	 */
+	private static void orBits(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+		while (length > 0) {
+			//up to the end of the current word of dst
+			int n = Math.min(length, 64 - (dstPos & 63));
+			int w = srcPos >>> 6;
+			int offset = srcPos & 63;
+			long bits = src[w] >>> offset;
+			if (offset + n > 64) {
+				bits |= src[w + 1] << (64 - offset);
+			}
+			if (n < 64) {
+				bits &= (1L << n) - 1;
+			}
+			dst[dstPos >>> 6] |= bits << dstPos;
+			srcPos += n;
+			dstPos += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Removes all edges at the vertex with this index (the vertex remains)
+	 */
+	public void removeEdges(int index) {
+		if (!isVertex(index)) {
+			return;
+		}
+		for (int b = nextNeighbor(index, 0); b >= 0; b = nextNeighbor(index, b + 1)) {
+			neighborhoods[b][index >>> 6] &= ~(1L << index);
+		}
+		Arrays.fill(neighborhoods[index], 0L);
+	}
+
+	/**
+	 * @return
+	 * 		a copy of this graph (with the same vertices and edges)
+	 */
+	public CompactConflictGraph copy() {
+		CompactConflictGraph copy = new CompactConflictGraph(xMin, xMax, yMin, yMax, false);
+		for (int a = 0; a < numberOfIndices; ++a) {
+			copy.neighborhoods[a] = neighborhoods[a] == null ? null : neighborhoods[a].clone();
+		}
+		copy.vertexCount = vertexCount;
+		return copy;
+	}
+
+	/**
+	 * Removes the vertex with this index and all its edges
+	 */
+	public void removeVertex(int index) {
+		if (!isVertex(index)) {
+			return;
+		}
+		for (int b = nextNeighbor(index, 0); b >= 0; b = nextNeighbor(index, b + 1)) {
+			neighborhoods[b][index >>> 6] &= ~(1L << index);
+		}
+		neighborhoods[index] = null;
+		--vertexCount;
+	}
+
+	/**
+	 * @return
+	 * 		JUNG graph with one vertex per grid point and one edge "(x0,y0) conflicts (x1,y1)" per conflict.
+	 * 		Vertices and edges are inserted ordered by x and then by y.
+	 */
+	public UndirectedGraph<GridPoint, String> toJungGraph() {
+		UndirectedGraph<GridPoint, String> conflictGraph = new UndirectedSparseGraph<>();
+		GridPoint[] vertices = new GridPoint[numberOfIndices];
+		for (int a = 0; a < numberOfIndices; ++a) {
+			if (isVertex(a)) {
+				vertices[a] = getGridPoint(a);
+				conflictGraph.addVertex(vertices[a]);
+			}
+		}
+		for (int a = 0; a < numberOfIndices; ++a) {
+			for (int b = nextNeighbor(a, a + 1); b >= 0; b = nextNeighbor(a, b + 1)) {
+				conflictGraph.addEdge("("+getX(a)+","+getY(a)+") conflicts ("+getX(b)+","+getY(b)+")",
+						vertices[a], vertices[b]);
+			}
+		}
+		return conflictGraph;
+	}
+}
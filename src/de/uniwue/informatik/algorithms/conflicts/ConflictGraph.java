@@ -0,0 +1,62 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+
+/**
+ * Read-only conflict graph on the grid points of [xMin, xMax] x [yMin, yMax] without vertex or edge objects.
+ * <p>
+ * The grid point (x, y) has the index (x - xMin) * H + (y - yMin), where H = yMax - yMin + 1 is the height of
+ * the grid; indices of grid points that are no vertices are kept.
+ * This is what the independent set algorithms ({@link MinimumDegreeGreedy}, {@link MaximumIndependentSetSolver})
+ * need, so they work on the graph in memory ({@link CompactConflictGraph}) as well as on the graph in memory-mapped
+ * files ({@link MappedConflictGraph}).
+ *
+ * @author Johannes
+ *
+ */
+public interface ConflictGraph {
+
+	int getXMin();
+
+	int getXMax();
+
+	int getYMin();
+
+	int getYMax();
+
+	/**
+	 * @return
+	 * 		number of indices (vertices and removed or excluded grid points), all indices are in [0, this number)
+	 */
+	int getNumberOfIndices();
+
+	int getIndex(int x, int y);
+
+	int getX(int index);
+
+	int getY(int index);
+
+	GridPoint getGridPoint(int index);
+
+	boolean isVertex(int index);
+
+	int getVertexCount();
+
+	long getEdgeCount();
+
+	int degree(int index);
+
+	boolean isAdjacent(int a, int b);
+
+	/**
+	 * @return
+	 * 		the smallest neighbor of index that is at least fromIndex or -1 if there is none
+	 */
+	int nextNeighbor(int index, int fromIndex);
+
+	/**
+	 * @return
+	 * 		the neighbors of index in ascending order (empty if index is no vertex)
+	 */
+	int[] getNeighbors(int index);
+}
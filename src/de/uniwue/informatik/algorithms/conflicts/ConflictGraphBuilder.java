@@ -0,0 +1,397 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+import edu.uci.ics.jung.graph.UndirectedGraph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+
+/**
+ * Finds all pairs of conflicting grid points of a {@link PointSegmentTable}.
+ * <p>
+ * Instead of testing all pairs of grid points, the grid points are bucketed into blocks of consecutive indices
+ * (i.e., short pieces of columns of the grid) and for each block the bounding boxes of all its primary segments
+ * and of all its secondary segments are stored.
+ * Two blocks are only compared if a primary box of one block overlaps the secondary box of the other block or
+ * if their secondary boxes overlap.
+ * Grid points on the same half-line from the origin are never pruned this way since the primary segment of the
+ * grid point further away contains the other grid point.
+ * Within two compared blocks, each pair is tested exactly (the test starts with comparing the bounding boxes of the
+ * segments of both grid points).
+ * <p>
+ * The conflicts are reported in the same order as by testing all pairs (i, j) with i < j in lexicographical order.
+ * <p>
+ * The pairs can also be tested in parallel ({@link ConflictGraphBuilder#visitConflictsInParallel(ConflictVisitor)}):
+ * the columns of the grid are split over a fork/join pool, each column collects its conflicts in its own primitive
+ * buffer and afterwards the buffers are passed to the visitor in the order of the columns (in the calling thread).
+ * <p>
+ * Optionally, only the pairs containing at least one marked grid point are tested (e.g. the grid points added
+ * when enlarging a grid, see {@link IncrementalConflictGraphBuilder}).
+ *
+ * @author Johannes
+ *
+ */
+public class ConflictGraphBuilder {
+
+	public static final int DEFAULT_BLOCK_SIZE = 16;
+
+	/**
+	 * Receives the conflicts found by a {@link ConflictGraphBuilder}.
+	 */
+	public interface ConflictVisitor {
+		/**
+		 * @param i
+		 * 		index of the first grid point
+		 * @param j
+		 * 		index of the second grid point, always i < j
+		 */
+		void conflict(int i, int j);
+	}
+
+	private final PointSegmentTable table;
+	private final int blockSize;
+	private final int numberOfBlocks;
+	/**
+	 * Bounding boxes of the primary and of the secondary segments of each block
+	 */
+	private final int[] primaryMinXs, primaryMaxXs, primaryMinYs, primaryMaxYs;
+	private final int[] secondaryMinXs, secondaryMaxXs, secondaryMinYs, secondaryMaxYs;
+	/**
+	 * If not null, only pairs with at least one marked grid point are tested
+	 */
+	private final boolean[] marked;
+	/**
+	 * The indices i with marked[i] in ascending order
+	 */
+	private final int[] markedIndices;
+	/**
+	 * If not null, only the pairs (i, j) with i < j, orbitRepresentatives[i] = i and orbitRepresentatives[j] >= i
+	 * are tested (see {@link SymmetricConflictGraphBuilder})
+	 */
+	private final int[] orbitRepresentatives;
+
+	public ConflictGraphBuilder(PointSegmentTable table) {
+		this(table, DEFAULT_BLOCK_SIZE, null);
+	}
+
+	/**
+	 * @param markedIndices
+	 * 		only the pairs of grid points with at least one of these indices are tested (all pairs if null)
+	 */
+	public ConflictGraphBuilder(PointSegmentTable table, int[] markedIndices) {
+		this(table, DEFAULT_BLOCK_SIZE, markedIndices);
+	}
+
+	/**
+	 * @param blockSize
+	 * 		number of consecutive grid points in a block
+	 * @param markedIndices
+	 * 		only the pairs of grid points with at least one of these indices are tested (all pairs if null)
+	 */
+	public ConflictGraphBuilder(PointSegmentTable table, int blockSize, int[] markedIndices) {
+		this(table, blockSize, markedIndices, null);
+	}
+
+	/**
+	 * @param orbitRepresentatives
+	 * 		for each grid point the smallest index in its orbit under a group of symmetries;
+	 * 		if not null, only the pairs of a grid point i that is the smallest in its orbit with a grid point j > i
+	 * 		whose orbit has no index smaller than i are tested (all other pairs are images of these pairs)
+	 */
+	ConflictGraphBuilder(PointSegmentTable table, int blockSize, int[] markedIndices, int[] orbitRepresentatives) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be positive, but is "+blockSize+".");
+		}
+		this.table = table;
+		this.blockSize = blockSize;
+		this.orbitRepresentatives = orbitRepresentatives;
+		if (markedIndices == null) {
+			this.marked = null;
+			this.markedIndices = null;
+		}
+		else {
+			this.marked = new boolean[table.size()];
+			for (int i : markedIndices) {
+				marked[i] = true;
+			}
+			int numberOfMarkedIndices = 0;
+			this.markedIndices = new int[markedIndices.length];
+			for (int i = 0; i < table.size(); ++i) {
+				if (marked[i]) {
+					this.markedIndices[numberOfMarkedIndices++] = i;
+				}
+			}
+		}
+		this.numberOfBlocks = (table.size() + blockSize - 1) / blockSize;
+		primaryMinXs = new int[numberOfBlocks];
+		primaryMaxXs = new int[numberOfBlocks];
+		primaryMinYs = new int[numberOfBlocks];
+		primaryMaxYs = new int[numberOfBlocks];
+		secondaryMinXs = new int[numberOfBlocks];
+		secondaryMaxXs = new int[numberOfBlocks];
+		secondaryMinYs = new int[numberOfBlocks];
+		secondaryMaxYs = new int[numberOfBlocks];
+		for (int b = 0; b < numberOfBlocks; ++b) {
+			primaryMinXs[b] = primaryMinYs[b] = secondaryMinXs[b] = secondaryMinYs[b] = Integer.MAX_VALUE;
+			primaryMaxXs[b] = primaryMaxYs[b] = secondaryMaxXs[b] = secondaryMaxYs[b] = Integer.MIN_VALUE;
+			for (int i = b * blockSize; i < Math.min(table.size(), (b + 1) * blockSize); ++i) {
+				primaryMinXs[b] = Math.min(primaryMinXs[b], table.getPrimaryMinX(i));
+				primaryMaxXs[b] = Math.max(primaryMaxXs[b], table.getPrimaryMaxX(i));
+				primaryMinYs[b] = Math.min(primaryMinYs[b], table.getPrimaryMinY(i));
+				primaryMaxYs[b] = Math.max(primaryMaxYs[b], table.getPrimaryMaxY(i));
+				secondaryMinXs[b] = Math.min(secondaryMinXs[b], table.getSecondaryMinX(i));
+				secondaryMaxXs[b] = Math.max(secondaryMaxXs[b], table.getSecondaryMaxX(i));
+				secondaryMinYs[b] = Math.min(secondaryMinYs[b], table.getSecondaryMinY(i));
+				secondaryMaxYs[b] = Math.max(secondaryMaxYs[b], table.getSecondaryMaxY(i));
+			}
+		}
+	}
+
+	public PointSegmentTable getTable() {
+		return table;
+	}
+
+	/**
+	 * Reports all conflicts (i, j) with i < j to visitor (if there are marked indices, only those with i or j
+	 * marked).
+	 */
+	public void visitConflicts(ConflictVisitor visitor) {
+		visitConflicts(0, table.size(), visitor);
+	}
+
+	/**
+	 * Reports all conflicts (i, j) with fromIndex <= i < toIndex and i < j to visitor
+	 * (ordered by i and then by j; if there are marked indices, only those with i or j marked).
+	 */
+	public void visitConflicts(int fromIndex, int toIndex, ConflictVisitor visitor) {
+		int[] comparedBlocks = new int[numberOfBlocks];
+		int numberOfComparedBlocks = 0;
+		int currentBlock = -1;
+		//first marked index greater than i
+		int nextMarked = 0;
+		for (int i = fromIndex; i < toIndex; ++i) {
+			if (orbitRepresentatives != null && orbitRepresentatives[i] != i) {
+				continue;
+			}
+			if (marked != null && !marked[i]) {
+				while (nextMarked < markedIndices.length && markedIndices[nextMarked] <= i) {
+					++nextMarked;
+				}
+				for (int k = nextMarked; k < markedIndices.length; ++k) {
+					if (table.hasConflict(i, markedIndices[k])) {
+						visitor.conflict(i, markedIndices[k]);
+					}
+				}
+				continue;
+			}
+			if (i / blockSize != currentBlock) {
+				currentBlock = i / blockSize;
+				numberOfComparedBlocks = 0;
+				for (int b = currentBlock; b < numberOfBlocks; ++b) {
+					if (mayConflict(currentBlock, b)) {
+						comparedBlocks[numberOfComparedBlocks++] = b;
+					}
+				}
+			}
+			for (int k = 0; k < numberOfComparedBlocks; ++k) {
+				int b = comparedBlocks[k];
+				for (int j = Math.max(i + 1, b * blockSize); j < Math.min(table.size(), (b + 1) * blockSize); ++j) {
+					if (orbitRepresentatives != null && orbitRepresentatives[j] < i) {
+						continue;
+					}
+					if (table.hasConflict(i, j)) {
+						visitor.conflict(i, j);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link ConflictGraphBuilder#visitConflicts(ConflictVisitor)}, but the conflicts are found by the
+	 * threads of the common fork/join pool.
+	 * The visitor is only called from the calling thread (after all conflicts have been found).
+	 */
+	public void visitConflictsInParallel(ConflictVisitor visitor) {
+		visitConflictsInParallel(ForkJoinPool.commonPool(), visitor);
+	}
+
+	/**
+	 * Same as {@link ConflictGraphBuilder#visitConflicts(ConflictVisitor)}, but the conflicts are found by the
+	 * threads of pool.
+	 * The visitor is only called from the calling thread (after all conflicts have been found).
+	 */
+	public void visitConflictsInParallel(ForkJoinPool pool, ConflictVisitor visitor) {
+		ConflictBuffer[] buffersPerColumn = new ConflictBuffer[table.getXMax() - table.getXMin() + 1];
+		for (int k = 0; k < buffersPerColumn.length; ++k) {
+			buffersPerColumn[k] = new ConflictBuffer();
+		}
+		pool.invoke(new ColumnTask(table.getXMin(), table.getXMax() + 1, buffersPerColumn));
+		for (ConflictBuffer buffer : buffersPerColumn) {
+			for (int k = 0; k < buffer.size; ++k) {
+				visitor.conflict((int) (buffer.conflicts[k] >>> 32), (int) buffer.conflicts[k]);
+			}
+		}
+	}
+
+	/**
+	 * Finds the conflicts of the grid points in the columns fromX to toX - 1 (recursively split until single
+	 * columns remain) and reports them to the visitor of the respective column
+	 */
+	private class ColumnTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int fromX, toX;
+		private ConflictVisitor[] visitorsPerColumn;
+
+		private ColumnTask(int fromX, int toX, ConflictVisitor[] visitorsPerColumn) {
+			this.fromX = fromX;
+			this.toX = toX;
+			this.visitorsPerColumn = visitorsPerColumn;
+		}
+
+		@Override
+		protected void compute() {
+			if (toX - fromX > 1) {
+				int midX = fromX + (toX - fromX) / 2;
+				invokeAll(new ColumnTask(fromX, midX, visitorsPerColumn),
+						new ColumnTask(midX, toX, visitorsPerColumn));
+				return;
+			}
+			visitConflicts(table.getFirstIndexOfColumn(fromX), table.getFirstIndexOfColumn(fromX + 1),
+					visitorsPerColumn[fromX - table.getXMin()]);
+		}
+	}
+
+	/**
+	 * Conflicts (i, j) stored as i * 2^32 + j
+	 */
+	private static class ConflictBuffer implements ConflictVisitor {
+		private long[] conflicts = new long[16];
+		private int size = 0;
+
+		@Override
+		public void conflict(int i, int j) {
+			if (size == conflicts.length) {
+				conflicts = Arrays.copyOf(conflicts, 2 * size);
+			}
+			conflicts[size++] = ((long) i << 32) | j;
+		}
+	}
+
+	private boolean mayConflict(int a, int b) {
+		return overlap(primaryMinXs[a], primaryMaxXs[a], primaryMinYs[a], primaryMaxYs[a],
+				secondaryMinXs[b], secondaryMaxXs[b], secondaryMinYs[b], secondaryMaxYs[b])
+				|| overlap(secondaryMinXs[a], secondaryMaxXs[a], secondaryMinYs[a], secondaryMaxYs[a],
+				primaryMinXs[b], primaryMaxXs[b], primaryMinYs[b], primaryMaxYs[b])
+				|| overlap(secondaryMinXs[a], secondaryMaxXs[a], secondaryMinYs[a], secondaryMaxYs[a],
+				secondaryMinXs[b], secondaryMaxXs[b], secondaryMinYs[b], secondaryMaxYs[b]);
+	}
+
+	private static boolean overlap(int minX0, int maxX0, int minY0, int maxY0, int minX1, int maxX1, int minY1,
+			int maxY1) {
+		return minX0 <= maxX1 && minX1 <= maxX0 && minY0 <= maxY1 && minY1 <= maxY0;
+	}
+
+	/**
+	 * @param inParallel
+	 * 		if true, the conflicts are found by the threads of the common fork/join pool
+	 * @return
+	 * 		conflict graph in which each grid point of the table is a vertex
+	 */
+	public CompactConflictGraph buildCompactGraph(boolean inParallel) {
+		CompactConflictGraph conflictGraph = new CompactConflictGraph(table);
+		addConflicts(conflictGraph, inParallel);
+		return conflictGraph;
+	}
+
+	/**
+	 * Adds an edge to conflictGraph for each conflict (if there are marked indices, only for those with a marked
+	 * grid point)
+	 *
+	 * @param conflictGraph
+	 * 		must contain all grid points of the table as vertices
+	 * @param inParallel
+	 * 		if true, the conflicts are found by the threads of the common fork/join pool
+	 */
+	public void addConflicts(final CompactConflictGraph conflictGraph, boolean inParallel) {
+		final int[] indices = new int[table.size()];
+		for (int i = 0; i < table.size(); ++i) {
+			indices[i] = conflictGraph.getIndex(table.getX(i), table.getY(i));
+		}
+		//each i is handled by one thread, which only writes the neighborhood of i
+		ConflictVisitor arcInserter = new ConflictVisitor() {
+			@Override
+			public void conflict(int i, int j) {
+				conflictGraph.addArc(indices[i], indices[j]);
+			}
+		};
+		if (inParallel) {
+			ConflictVisitor[] visitorsPerColumn = new ConflictVisitor[table.getXMax() - table.getXMin() + 1];
+			Arrays.fill(visitorsPerColumn, arcInserter);
+			ForkJoinPool.commonPool().invoke(new ColumnTask(table.getXMin(), table.getXMax() + 1, visitorsPerColumn));
+		}
+		else {
+			visitConflicts(arcInserter);
+		}
+		if (marked == null) {
+			conflictGraph.symmetrize();
+			return;
+		}
+		//only the arcs (i, j) with i < j and i or j marked are new
+		for (int i = 0; i < table.size(); ++i) {
+			if (marked[i]) {
+				for (int b = conflictGraph.nextNeighbor(indices[i], indices[i] + 1); b >= 0;
+						b = conflictGraph.nextNeighbor(indices[i], b + 1)) {
+					conflictGraph.addArc(b, indices[i]);
+				}
+			}
+			else {
+				for (int j : markedIndices) {
+					if (j > i && conflictGraph.isAdjacent(indices[i], indices[j])) {
+						conflictGraph.addArc(indices[j], indices[i]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return
+	 * 		conflict graph with one vertex per grid point and one edge "(x0,y0) conflicts (x1,y1)" per conflict
+	 */
+	public UndirectedGraph<GridPoint, String> buildGraph() {
+		return buildGraph(false);
+	}
+
+	/**
+	 * @param inParallel
+	 * 		if true, the conflicts are found by the threads of the common fork/join pool
+	 * @return
+	 * 		conflict graph with one vertex per grid point and one edge "(x0,y0) conflicts (x1,y1)" per conflict
+	 */
+	public UndirectedGraph<GridPoint, String> buildGraph(boolean inParallel) {
+		final UndirectedGraph<GridPoint, String> conflictGraph = new UndirectedSparseGraph<>();
+		final GridPoint[] vertices = new GridPoint[table.size()];
+		for (int i = 0; i < table.size(); ++i) {
+			vertices[i] = new GridPoint(table.getX(i), table.getY(i));
+			conflictGraph.addVertex(vertices[i]);
+		}
+		ConflictVisitor edgeInserter = new ConflictVisitor() {
+			@Override
+			public void conflict(int i, int j) {
+				conflictGraph.addEdge("("+table.getX(i)+","+table.getY(i)+") conflicts ("+table.getX(j)+","
+						+table.getY(j)+")", vertices[i], vertices[j]);
+			}
+		};
+		if (inParallel) {
+			visitConflictsInParallel(edgeInserter);
+		}
+		else {
+			visitConflicts(edgeInserter);
+		}
+		return conflictGraph;
+	}
+}
@@ -0,0 +1,130 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The symmetries of the square (rotations by multiples of 90 degrees about the origin and reflections at the
+ * axes and diagonals).
+ * <p>
+ * Such a symmetry maps the segments of a grid point (see {@link PointSegmentTable}) to the segments of its image
+ * (the secondary segment possibly with left and right point swapped), so two grid points conflict iff their
+ * images conflict.
+ * Hence each symmetry mapping the grid points of a conflict graph onto themselves is an automorphism of the
+ * conflict graph.
+ *
+ * @author Johannes
+ *
+ */
+public enum GridSymmetry {
+	IDENTITY(1, 0, 0, 1),
+	ROTATION_90(0, -1, 1, 0),
+	ROTATION_180(-1, 0, 0, -1),
+	ROTATION_270(0, 1, -1, 0),
+	/**
+	 * (x, y) -> (-x, y)
+	 */
+	REFLECTION_X(-1, 0, 0, 1),
+	/**
+	 * (x, y) -> (x, -y)
+	 */
+	REFLECTION_Y(1, 0, 0, -1),
+	/**
+	 * (x, y) -> (y, x)
+	 */
+	REFLECTION_DIAGONAL(0, 1, 1, 0),
+	/**
+	 * (x, y) -> (-y, -x)
+	 */
+	REFLECTION_ANTIDIAGONAL(0, -1, -1, 0);
+
+	/**
+	 * (x, y) is mapped to (a * x + b * y, c * x + d * y)
+	 */
+	private final int a, b, c, d;
+
+	private GridSymmetry(int a, int b, int c, int d) {
+		this.a = a;
+		this.b = b;
+		this.c = c;
+		this.d = d;
+	}
+
+	public int mapX(int x, int y) {
+		return a * x + b * y;
+	}
+
+	public int mapY(int x, int y) {
+		return c * x + d * y;
+	}
+
+	/**
+	 * @return
+	 * 		true if the grid [xMin, xMax] x [yMin, yMax] is mapped onto itself
+	 */
+	public boolean mapsOntoItself(int xMin, int xMax, int yMin, int yMax) {
+		int x0 = mapX(xMin, yMin), y0 = mapY(xMin, yMin);
+		int x1 = mapX(xMax, yMax), y1 = mapY(xMax, yMax);
+		return Math.min(x0, x1) == xMin && Math.max(x0, x1) == xMax && Math.min(y0, y1) == yMin
+				&& Math.max(y0, y1) == yMax;
+	}
+
+	/**
+	 * @return
+	 * 		all symmetries mapping the grid [xMin, xMax] x [yMin, yMax] onto itself (the first is the identity)
+	 */
+	public static List<GridSymmetry> getSymmetriesOf(int xMin, int xMax, int yMin, int yMax) {
+		List<GridSymmetry> symmetries = new ArrayList<>();
+		for (GridSymmetry symmetry : values()) {
+			if (symmetry.mapsOntoItself(xMin, xMax, yMin, yMax)) {
+				symmetries.add(symmetry);
+			}
+		}
+		return symmetries;
+	}
+
+	/**
+	 * @return
+	 * 		the image of each index of conflictGraph (-1 for indices of no vertex) or null if this symmetry does not
+	 * 		map the vertices of conflictGraph onto themselves
+	 */
+	public int[] getPermutation(ConflictGraph conflictGraph) {
+		if (!mapsOntoItself(conflictGraph.getXMin(), conflictGraph.getXMax(), conflictGraph.getYMin(),
+				conflictGraph.getYMax())) {
+			return null;
+		}
+		int[] images = new int[conflictGraph.getNumberOfIndices()];
+		for (int index = 0; index < images.length; ++index) {
+			if (!conflictGraph.isVertex(index)) {
+				images[index] = -1;
+				continue;
+			}
+			int x = conflictGraph.getX(index);
+			int y = conflictGraph.getY(index);
+			images[index] = conflictGraph.getIndex(mapX(x, y), mapY(x, y));
+			if (!conflictGraph.isVertex(images[index])) {
+				return null;
+			}
+		}
+		return images;
+	}
+
+	/**
+	 * @return
+	 * 		the images of the indices of conflictGraph (see {@link GridSymmetry#getPermutation(ConflictGraph)})
+	 * 		of all symmetries except for the identity that map the vertices of conflictGraph onto themselves.
+	 * 		If conflictGraph is the conflict graph of its vertices, these are automorphisms of it.
+	 */
+	public static List<int[]> getAutomorphisms(ConflictGraph conflictGraph) {
+		List<int[]> automorphisms = new ArrayList<>();
+		for (GridSymmetry symmetry : values()) {
+			if (symmetry != IDENTITY) {
+				int[] permutation = symmetry.getPermutation(conflictGraph);
+				if (permutation != null) {
+					automorphisms.add(permutation);
+				}
+			}
+		}
+		return automorphisms;
+	}
+}
@@ -0,0 +1,124 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.Arrays;
+
+/**
+ * Builds the conflict graphs of a sequence of growing grids (each grid contains the previous one), as in the
+ * sweeps of {@link de.uniwue.informatik.main.StackedTrianglesMain}.
+ * <p>
+ * The conflicts among the grid points of the previous grid are copied from the previous conflict graph.
+ * Only the pairs with at least one new grid point are tested, plus the pairs with at least one old grid point
+ * whose primary segment has changed.
+ * The latter happens if the main segments are lengthened: their length depends on gridLength.
+ * If gridLength changes, (almost) all primary segments change and the graph is built from scratch.
+ *
+ * @author Johannes
+ *
+ */
+public class IncrementalConflictGraphBuilder {
+
+	private final boolean lengthenMainSegment;
+	private final boolean inParallel;
+	private final boolean useSymmetries;
+
+	private PointSegmentTable table;
+	private CompactConflictGraph conflictGraph;
+
+	/**
+	 * @param lengthenMainSegment
+	 * 		see {@link PointSegmentTable#PointSegmentTable(int, int, int, int, int, boolean)}
+	 * @param inParallel
+	 * 		if true, the conflicts are found by the threads of the common fork/join pool
+	 */
+	public IncrementalConflictGraphBuilder(boolean lengthenMainSegment, boolean inParallel) {
+		this(lengthenMainSegment, inParallel, false);
+	}
+
+	/**
+	 * @param lengthenMainSegment
+	 * 		see {@link PointSegmentTable#PointSegmentTable(int, int, int, int, int, boolean)}
+	 * @param inParallel
+	 * 		if true, the conflicts are found by the threads of the common fork/join pool
+	 * @param useSymmetries
+	 * 		if true, graphs built from scratch are built by a {@link SymmetricConflictGraphBuilder}
+	 */
+	public IncrementalConflictGraphBuilder(boolean lengthenMainSegment, boolean inParallel, boolean useSymmetries) {
+		this.lengthenMainSegment = lengthenMainSegment;
+		this.inParallel = inParallel;
+		this.useSymmetries = useSymmetries;
+	}
+
+	/**
+	 * @return
+	 * 		the segments of the grid points of the current grid (null before the first call of
+	 * 		{@link IncrementalConflictGraphBuilder#grow(int, int, int, int, int)})
+	 */
+	public PointSegmentTable getTable() {
+		return table;
+	}
+
+	/**
+	 * Computes the conflict graph of the grid [xMin, xMax] x [yMin, yMax], which must contain the previous grid.
+	 *
+	 * @param gridLength
+	 * 		see {@link PointSegmentTable#PointSegmentTable(int, int, int, int, int, boolean)}
+	 * @return
+	 * 		the conflict graph. It is used for the next call and must not be modified
+	 * 		(use {@link CompactConflictGraph#copy()} before).
+	 */
+	public CompactConflictGraph grow(int xMin, int xMax, int yMin, int yMax, int gridLength) {
+		PointSegmentTable newTable = new PointSegmentTable(xMin, xMax, yMin, yMax, gridLength, lengthenMainSegment);
+		CompactConflictGraph newConflictGraph;
+		if (table == null) {
+			newConflictGraph = buildFromScratch(newTable);
+		}
+		else {
+			if (xMin > table.getXMin() || xMax < table.getXMax() || yMin > table.getYMin() || yMax < table.getYMax()) {
+				throw new IllegalArgumentException("Grid ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"] does not contain "
+						+ "the previous grid ["+table.getXMin()+", "+table.getXMax()+"] x ["+table.getYMin()+", "
+						+table.getYMax()+"].");
+			}
+			//mark new grid points and old grid points with changed segments
+			int[] markedIndices = new int[newTable.size()];
+			int numberOfMarkedIndices = 0;
+			int numberOfChangedGridPoints = 0;
+			for (int i = 0; i < newTable.size(); ++i) {
+				int oldIndex = table.indexOf(newTable.getX(i), newTable.getY(i));
+				if (oldIndex < 0) {
+					markedIndices[numberOfMarkedIndices++] = i;
+				}
+				else if (!newTable.hasSameSegments(i, table, oldIndex)) {
+					markedIndices[numberOfMarkedIndices++] = i;
+					++numberOfChangedGridPoints;
+				}
+			}
+			if (2 * numberOfChangedGridPoints > table.size()) {
+				//retesting almost all pairs; so build it from scratch
+				newConflictGraph = buildFromScratch(newTable);
+			}
+			else {
+				newConflictGraph = new CompactConflictGraph(xMin, xMax, yMin, yMax);
+				newConflictGraph.addEdgesOf(conflictGraph);
+				for (int k = 0; k < numberOfMarkedIndices; ++k) {
+					int i = markedIndices[k];
+					if (table.indexOf(newTable.getX(i), newTable.getY(i)) >= 0) {
+						//old grid point with changed segments -> its conflicts are recomputed
+						newConflictGraph.removeEdges(newConflictGraph.getIndex(newTable.getX(i), newTable.getY(i)));
+					}
+				}
+				new ConflictGraphBuilder(newTable, Arrays.copyOf(markedIndices, numberOfMarkedIndices))
+						.addConflicts(newConflictGraph, inParallel);
+			}
+		}
+		table = newTable;
+		conflictGraph = newConflictGraph;
+		return conflictGraph;
+	}
+
+	private CompactConflictGraph buildFromScratch(PointSegmentTable newTable) {
+		if (useSymmetries) {
+			return new SymmetricConflictGraphBuilder(newTable).buildCompactGraph(inParallel);
+		}
+		return new ConflictGraphBuilder(newTable).buildCompactGraph(inParallel);
+	}
+}
@@ -0,0 +1,365 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import de.uniwue.informatik.algorithms.conflicts.ConflictGraphBuilder.ConflictVisitor;
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+
+/**
+ * Conflict graph stored in compressed sparse row format in two memory-mapped files, for conflict graphs that do
+ * not fit into the heap.
+ * <p>
+ * The file "name.offsets" starts with a header (grid and number of vertices), followed by one bit per index
+ * (whether it is a vertex) and the offsets: the neighbors of index a are the entries offsets[a] to
+ * offsets[a + 1] - 1 of the file "name.targets" (one int per entry, in ascending order).
+ * Both files are only mapped, never read into the heap, so the operating system keeps the parts in use in its page
+ * cache.
+ * Files larger than 2 GiB are mapped in several chunks.
+ * <p>
+ * The files are written in two passes over the conflicts: the first counts the degrees, the second writes the
+ * neighbors at the position of a cursor per index.
+ * Conflicts (i, j) reported in lexicographical order (as by {@link ConflictGraphBuilder#visitConflicts(ConflictVisitor)}
+ * or {@link ShardedConflictSweep#visitConflicts(ConflictVisitor)}) give sorted neighbors: the smaller neighbors of a
+ * are reported (as i) before the row of a.
+ * Only the degrees and the cursors (one long per index) are kept in the heap.
+ *
+ * @author Johannes
+ *
+ */
+public class MappedConflictGraph implements ConflictGraph, Closeable {
+
+	private static final int MAGIC = 0x43535247;
+	private static final int VERSION = 1;
+	/**
+	 * Number of longs of the header
+	 */
+	private static final int HEADER_LONGS = 4;
+	/**
+	 * Size of the chunks in which the files are mapped (a multiple of 8, so no long crosses two chunks)
+	 */
+	private static final int CHUNK_BYTES = 1 << 30;
+
+	private final int xMin, xMax, yMin, yMax;
+	private final int height;
+	private final int numberOfIndices;
+	private final int vertexCount;
+	private final long numberOfArcs;
+	/**
+	 * Position (in longs) of the first offset in the offsets file
+	 */
+	private final long offsetsStart;
+	private final FileChannel offsetsChannel, targetsChannel;
+	private final MappedByteBuffer[] offsetsChunks, targetsChunks;
+
+	private MappedConflictGraph(File file) throws IOException {
+		offsetsChannel = FileChannel.open(getOffsetsFile(file).toPath(), StandardOpenOption.READ);
+		targetsChannel = FileChannel.open(getTargetsFile(file).toPath(), StandardOpenOption.READ);
+		offsetsChunks = map(offsetsChannel, MapMode.READ_ONLY, offsetsChannel.size());
+		targetsChunks = map(targetsChannel, MapMode.READ_ONLY, targetsChannel.size());
+		if (offsetsChannel.size() < HEADER_LONGS * 8 || getInt(offsetsChunks, 0) != MAGIC
+				|| getInt(offsetsChunks, 1) != VERSION) {
+			close();
+			throw new IOException(getOffsetsFile(file)+" is no conflict graph.");
+		}
+		xMin = getInt(offsetsChunks, 2);
+		xMax = getInt(offsetsChunks, 3);
+		yMin = getInt(offsetsChunks, 4);
+		yMax = getInt(offsetsChunks, 5);
+		vertexCount = getInt(offsetsChunks, 6);
+		height = yMax - yMin + 1;
+		numberOfIndices = (xMax - xMin + 1) * height;
+		offsetsStart = HEADER_LONGS + getNumberOfVertexWords(numberOfIndices);
+		numberOfArcs = getLong(offsetsChunks, offsetsStart + numberOfIndices);
+		if (offsetsChannel.size() != (offsetsStart + numberOfIndices + 1) * 8 || targetsChannel.size() != numberOfArcs * 4) {
+			close();
+			throw new IOException(file+" is truncated.");
+		}
+	}
+
+	/**
+	 * Opens the conflict graph written to file (i.e., the files file.offsets and file.targets)
+	 */
+	public static MappedConflictGraph open(File file) throws IOException {
+		return new MappedConflictGraph(file);
+	}
+
+	/**
+	 * Computes the conflicts of builder (twice, once for each pass), writes them to file and opens it
+	 */
+	public static MappedConflictGraph write(File file, final ConflictGraphBuilder builder) throws IOException {
+		return write(file, builder.getTable(), new ConflictSource() {
+			@Override
+			public void visitConflicts(ConflictVisitor visitor) {
+				builder.visitConflicts(visitor);
+			}
+		});
+	}
+
+	/**
+	 * Reads the conflicts of the shards of sweep (which must be done) twice, writes them to file and opens it.
+	 * The conflict graph is never in the heap.
+	 */
+	public static MappedConflictGraph write(File file, final ShardedConflictSweep sweep) throws IOException {
+		return write(file, sweep.getTable(), new ConflictSource() {
+			@Override
+			public void visitConflicts(ConflictVisitor visitor) throws IOException {
+				sweep.visitConflicts(visitor);
+			}
+		});
+	}
+
+	/**
+	 * Conflicts (i, j) with i < j of a table in lexicographical order
+	 */
+	private interface ConflictSource {
+		void visitConflicts(ConflictVisitor visitor) throws IOException;
+	}
+
+	private static MappedConflictGraph write(File file, final PointSegmentTable table, ConflictSource source)
+			throws IOException {
+		final int height = table.getYMax() - table.getYMin() + 1;
+		long numberOfGridPoints = ((long) table.getXMax() - table.getXMin() + 1) * height;
+		if (numberOfGridPoints > Integer.MAX_VALUE - 1) {
+			throw new IllegalArgumentException("Grid ["+table.getXMin()+", "+table.getXMax()+"] x ["+table.getYMin()
+					+", "+table.getYMax()+"] is too large.");
+		}
+		int numberOfIndices = (int) numberOfGridPoints;
+		//index in the graph of each grid point of the table
+		final int[] indices = new int[table.size()];
+		for (int i = 0; i < table.size(); ++i) {
+			indices[i] = (table.getX(i) - table.getXMin()) * height + (table.getY(i) - table.getYMin());
+		}
+
+		//first pass: degrees
+		final int[] degrees = new int[numberOfIndices];
+		source.visitConflicts(new ConflictVisitor() {
+			@Override
+			public void conflict(int i, int j) {
+				++degrees[indices[i]];
+				++degrees[indices[j]];
+			}
+		});
+
+		long offsetsStart = HEADER_LONGS + getNumberOfVertexWords(numberOfIndices);
+		final long[] cursors = new long[numberOfIndices];
+		long numberOfArcs = 0;
+		try (FileChannel offsetsChannel = FileChannel.open(getOffsetsFile(file).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MappedByteBuffer[] offsetsChunks = map(offsetsChannel, MapMode.READ_WRITE,
+					(offsetsStart + numberOfIndices + 1) * 8);
+			putInt(offsetsChunks, 0, MAGIC);
+			putInt(offsetsChunks, 1, VERSION);
+			putInt(offsetsChunks, 2, table.getXMin());
+			putInt(offsetsChunks, 3, table.getXMax());
+			putInt(offsetsChunks, 4, table.getYMin());
+			putInt(offsetsChunks, 5, table.getYMax());
+			putInt(offsetsChunks, 6, table.size());
+			for (int index : indices) {
+				long position = HEADER_LONGS + (index >>> 6);
+				putLong(offsetsChunks, position, getLong(offsetsChunks, position) | (1L << index));
+			}
+			for (int a = 0; a < numberOfIndices; ++a) {
+				putLong(offsetsChunks, offsetsStart + a, numberOfArcs);
+				cursors[a] = numberOfArcs;
+				numberOfArcs += degrees[a];
+			}
+			putLong(offsetsChunks, offsetsStart + numberOfIndices, numberOfArcs);
+			for (MappedByteBuffer chunk : offsetsChunks) {
+				chunk.force();
+			}
+		}
+
+		//second pass: neighbors
+		try (FileChannel targetsChannel = FileChannel.open(getTargetsFile(file).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final MappedByteBuffer[] targetsChunks = map(targetsChannel, MapMode.READ_WRITE, numberOfArcs * 4);
+			source.visitConflicts(new ConflictVisitor() {
+				@Override
+				public void conflict(int i, int j) {
+					int a = indices[i];
+					int b = indices[j];
+					putInt(targetsChunks, cursors[a]++, b);
+					putInt(targetsChunks, cursors[b]++, a);
+				}
+			});
+			for (MappedByteBuffer chunk : targetsChunks) {
+				chunk.force();
+			}
+		}
+		return open(file);
+	}
+
+	private static File getOffsetsFile(File file) {
+		return new File(file.getPath() + ".offsets");
+	}
+
+	private static File getTargetsFile(File file) {
+		return new File(file.getPath() + ".targets");
+	}
+
+	private static long getNumberOfVertexWords(int numberOfIndices) {
+		return (numberOfIndices + 63L) >>> 6;
+	}
+
+	/**
+	 * Maps the first size bytes of channel in chunks of {@link MappedConflictGraph#CHUNK_BYTES} bytes
+	 */
+	private static MappedByteBuffer[] map(FileChannel channel, MapMode mode, long size) throws IOException {
+		MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + CHUNK_BYTES - 1) / CHUNK_BYTES)];
+		for (int c = 0; c < chunks.length; ++c) {
+			long position = (long) c * CHUNK_BYTES;
+			chunks[c] = channel.map(mode, position, Math.min(CHUNK_BYTES, size - position));
+			chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return chunks;
+	}
+
+	private static int getInt(MappedByteBuffer[] chunks, long index) {
+		long position = index * 4;
+		return chunks[(int) (position / CHUNK_BYTES)].getInt((int) (position % CHUNK_BYTES));
+	}
+
+	private static void putInt(MappedByteBuffer[] chunks, long index, int value) {
+		long position = index * 4;
+		chunks[(int) (position / CHUNK_BYTES)].putInt((int) (position % CHUNK_BYTES), value);
+	}
+
+	private static long getLong(MappedByteBuffer[] chunks, long index) {
+		long position = index * 8;
+		return chunks[(int) (position / CHUNK_BYTES)].getLong((int) (position % CHUNK_BYTES));
+	}
+
+	private static void putLong(MappedByteBuffer[] chunks, long index, long value) {
+		long position = index * 8;
+		chunks[(int) (position / CHUNK_BYTES)].putLong((int) (position % CHUNK_BYTES), value);
+	}
+
+	@Override
+	public int getXMin() {
+		return xMin;
+	}
+
+	@Override
+	public int getXMax() {
+		return xMax;
+	}
+
+	@Override
+	public int getYMin() {
+		return yMin;
+	}
+
+	@Override
+	public int getYMax() {
+		return yMax;
+	}
+
+	@Override
+	public int getNumberOfIndices() {
+		return numberOfIndices;
+	}
+
+	@Override
+	public int getIndex(int x, int y) {
+		if (x < xMin || x > xMax || y < yMin || y > yMax) {
+			throw new IllegalArgumentException("("+x+", "+y+") is not in ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"].");
+		}
+		return (x - xMin) * height + (y - yMin);
+	}
+
+	@Override
+	public int getX(int index) {
+		return xMin + index / height;
+	}
+
+	@Override
+	public int getY(int index) {
+		return yMin + index % height;
+	}
+
+	@Override
+	public GridPoint getGridPoint(int index) {
+		return new GridPoint(getX(index), getY(index));
+	}
+
+	@Override
+	public boolean isVertex(int index) {
+		return (getLong(offsetsChunks, HEADER_LONGS + (index >>> 6)) & (1L << index)) != 0;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public long getEdgeCount() {
+		return numberOfArcs / 2;
+	}
+
+	@Override
+	public int degree(int index) {
+		return (int) (getLong(offsetsChunks, offsetsStart + index + 1) - getLong(offsetsChunks, offsetsStart + index));
+	}
+
+	@Override
+	public boolean isAdjacent(int a, int b) {
+		long end = getLong(offsetsChunks, offsetsStart + a + 1);
+		long position = lowerBound(getLong(offsetsChunks, offsetsStart + a), end, b);
+		return position < end && getInt(targetsChunks, position) == b;
+	}
+
+	@Override
+	public int nextNeighbor(int index, int fromIndex) {
+		long end = getLong(offsetsChunks, offsetsStart + index + 1);
+		long position = lowerBound(getLong(offsetsChunks, offsetsStart + index), end, fromIndex);
+		return position < end ? getInt(targetsChunks, position) : -1;
+	}
+
+	@Override
+	public int[] getNeighbors(int index) {
+		long start = getLong(offsetsChunks, offsetsStart + index);
+		int[] neighbors = new int[degree(index)];
+		for (int k = 0; k < neighbors.length; ++k) {
+			neighbors[k] = getInt(targetsChunks, start + k);
+		}
+		return neighbors;
+	}
+
+	/**
+	 * @return
+	 * 		the first position in [from, to) of the targets with an entry at least value (to if there is none)
+	 */
+	private long lowerBound(long from, long to, int value) {
+		while (from < to) {
+			long middle = (from + to) >>> 1;
+			if (getInt(targetsChunks, middle) < value) {
+				from = middle + 1;
+			}
+			else {
+				to = middle;
+			}
+		}
+		return from;
+	}
+
+	/**
+	 * Closes the files (the mappings stay valid until they are garbage collected)
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			offsetsChannel.close();
+		}
+		finally {
+			targetsChannel.close();
+		}
+	}
+}
@@ -0,0 +1,487 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exact maximum independent set of a {@link ConflictGraph}, computed as maximum clique of the complement
+ * graph by a bitset branch and bound algorithm (in the style of MCS/BBMC by Tomita et al. and San Segundo et al.).
+ * <p>
+ * The vertices are renumbered by non-increasing degree in the complement graph and the complement neighborhoods
+ * are stored as bitsets in this numbering.
+ * In each node of the search tree, the candidates are greedily colored (each color class is an independent set of
+ * the complement graph, i.e., a clique of the conflict graph).
+ * The number of colors bounds the number of candidates that can still be added, so candidates whose color is too
+ * small to beat the best solution are never branched on.
+ * <p>
+ * The branches of the root can be searched in parallel (fork/join pool); they share the size of the best solution
+ * for pruning.
+ * With a time limit, the search stops when the limit is reached and the best solution found so far is returned
+ * ({@link MaximumIndependentSetSolver#isOptimal()} tells whether the search was completed).
+ * <p>
+ * If automorphisms of the conflict graph are known (e.g. from {@link GridSymmetry}), the root branches on the
+ * orbits of the vertices instead of on single vertices (orbital branching): for the orbits O_1, ..., O_m, the k-th
+ * branch searches the independent sets that contain one fixed vertex of O_k and no vertex of O_1, ..., O_{k-1}.
+ * An independent set that contains another vertex of O_k is mapped to one containing the fixed vertex by an
+ * automorphism, so the other vertices of the orbit need no branches.
+ *
+ * @author Johannes
+ *
+ */
+public class MaximumIndependentSetSolver {
+
+	/**
+	 * Number of search nodes between two checks of the time limit
+	 */
+	private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+
+	private final ConflictGraph conflictGraph;
+	private boolean inParallel = false;
+	private long timeLimitMillis = -1;
+	private List<int[]> automorphisms = Collections.emptyList();
+
+	/*
+	 * State of one run of solve()
+	 */
+	private int numberOfVertices;
+	private int words;
+	/**
+	 * vertices[v] is the index in conflictGraph of the vertex with number v
+	 */
+	private int[] vertices;
+	/**
+	 * Neighborhoods in the complement graph in the numbering of vertices
+	 */
+	private long[][] complementNeighborhoods;
+	private AtomicInteger bestSize;
+	private int[] bestSolution;
+	private long deadline;
+	private volatile boolean timeLimitReached;
+
+	public MaximumIndependentSetSolver(ConflictGraph conflictGraph) {
+		this.conflictGraph = conflictGraph;
+	}
+
+	/**
+	 * @param inParallel
+	 * 		if true, the branches of the root of the search tree are searched by the threads of the common
+	 * 		fork/join pool. Default is false.
+	 */
+	public void setInParallel(boolean inParallel) {
+		this.inParallel = inParallel;
+	}
+
+	/**
+	 * @param timeLimitMillis
+	 * 		the search stops after this time (in milliseconds); negative for no limit (default)
+	 */
+	public void setTimeLimit(long timeLimitMillis) {
+		this.timeLimitMillis = timeLimitMillis;
+	}
+
+	/**
+	 * @param automorphisms
+	 * 		automorphisms of the conflict graph, each given by the image of each index (as
+	 * 		{@link GridSymmetry#getAutomorphisms(ConflictGraph)}); the root branches on their orbits.
+	 * 		Default is none.
+	 */
+	public void setAutomorphisms(List<int[]> automorphisms) {
+		this.automorphisms = automorphisms;
+	}
+
+	/**
+	 * @return
+	 * 		true if the last call of {@link MaximumIndependentSetSolver#solve()} has completed the search, i.e.,
+	 * 		its result is a maximum independent set (and not only the best one found until the time limit)
+	 */
+	public boolean isOptimal() {
+		return !timeLimitReached;
+	}
+
+	/**
+	 * @return
+	 * 		indices (in the conflict graph) of a maximum independent set in ascending order
+	 * 		(or of the largest independent set found until the time limit)
+	 */
+	public int[] solve() {
+		deadline = timeLimitMillis < 0 ? Long.MAX_VALUE : System.nanoTime() + timeLimitMillis * 1000000L;
+		timeLimitReached = false;
+		initializeComplement();
+
+		//the vertices of the root in the order of the greedy coloring, each with its color
+		long[] candidates = new long[words];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			candidates[v >>> 6] |= 1L << v;
+		}
+		int[] rootOrder = new int[numberOfVertices];
+		int[] rootColors = new int[numberOfVertices];
+		colorSort(candidates, new long[words], new long[words], 1, rootOrder, rootColors);
+
+		bestSize = new AtomicInteger(0);
+		bestSolution = new int[0];
+		initializeWithGreedySolution(rootOrder);
+
+		List<RootBranch> branches;
+		if (automorphisms.isEmpty()) {
+			//branch i gets the candidates rootOrder[0..i-1] that are adjacent (in the complement) to rootOrder[i]
+			branches = new ArrayList<>(numberOfVertices);
+			for (int i = numberOfVertices - 1; i >= 0; --i) {
+				branches.add(new RootBranch(rootOrder, rootColors, i));
+			}
+		}
+		else {
+			branches = getOrbitBranches(rootOrder);
+		}
+		if (inParallel) {
+			final List<RootBranch> allBranches = branches;
+			ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(allBranches);
+				}
+			});
+		}
+		else {
+			for (RootBranch branch : branches) {
+				if (branch.allowed == null && rootColors[branch.i] <= bestSize.get()) {
+					//all later branches have at most this color
+					break;
+				}
+				branch.invoke();
+			}
+		}
+
+		int[] result = new int[bestSolution.length];
+		for (int k = 0; k < bestSolution.length; ++k) {
+			result[k] = vertices[bestSolution[k]];
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	private void initializeComplement() {
+		List<Integer> vertexList = new ArrayList<>();
+		final int[] degrees = new int[conflictGraph.getNumberOfIndices()];
+		for (int a = 0; a < conflictGraph.getNumberOfIndices(); ++a) {
+			if (conflictGraph.isVertex(a)) {
+				vertexList.add(a);
+				degrees[a] = conflictGraph.degree(a);
+			}
+		}
+		//non-increasing degree in the complement graph = non-decreasing degree in the conflict graph
+		Collections.sort(vertexList, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return degrees[a] != degrees[b] ? Integer.compare(degrees[a], degrees[b]) : Integer.compare(a, b);
+			}
+		});
+		numberOfVertices = vertexList.size();
+		words = Math.max(1, (numberOfVertices + 63) >>> 6);
+		vertices = new int[numberOfVertices];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			vertices[v] = vertexList.get(v);
+		}
+		int[] numbers = new int[conflictGraph.getNumberOfIndices()];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			numbers[vertices[v]] = v;
+		}
+		//all other vertices except for the neighbors (each neighborhood is scanned once)
+		complementNeighborhoods = new long[numberOfVertices][words];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			long[] complementNeighborhood = complementNeighborhoods[v];
+			Arrays.fill(complementNeighborhood, -1L);
+			if ((numberOfVertices & 63) != 0) {
+				complementNeighborhood[words - 1] = (1L << numberOfVertices) - 1;
+			}
+			complementNeighborhood[v >>> 6] &= ~(1L << v);
+			for (int a : conflictGraph.getNeighbors(vertices[v])) {
+				int w = numbers[a];
+				complementNeighborhood[w >>> 6] &= ~(1L << w);
+			}
+		}
+	}
+
+	/**
+	 * One branch per orbit of the automorphisms; the orbits are ordered by the last position of one of their
+	 * vertices in rootOrder, last first (as the branches of single vertices)
+	 */
+	private List<RootBranch> getOrbitBranches(int[] rootOrder) {
+		int[] numbers = new int[conflictGraph.getNumberOfIndices()];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			numbers[vertices[v]] = v;
+		}
+		//union-find over the vertex numbers
+		int[] parents = new int[numberOfVertices];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			parents[v] = v;
+		}
+		for (int[] automorphism : automorphisms) {
+			for (int v = 0; v < numberOfVertices; ++v) {
+				int root = find(parents, v);
+				int imageRoot = find(parents, numbers[automorphism[vertices[v]]]);
+				parents[Math.max(root, imageRoot)] = Math.min(root, imageRoot);
+			}
+		}
+		//orbits as linked lists starting at their roots
+		int[] firstMembers = new int[numberOfVertices];
+		int[] nextMembers = new int[numberOfVertices];
+		Arrays.fill(firstMembers, -1);
+		for (int v = numberOfVertices - 1; v >= 0; --v) {
+			int root = find(parents, v);
+			nextMembers[v] = firstMembers[root];
+			firstMembers[root] = v;
+		}
+
+		List<RootBranch> branches = new ArrayList<>();
+		long[] allowed = new long[words];
+		for (int v = 0; v < numberOfVertices; ++v) {
+			allowed[v >>> 6] |= 1L << v;
+		}
+		boolean[] orbitDone = new boolean[numberOfVertices];
+		for (int i = numberOfVertices - 1; i >= 0; --i) {
+			int root = find(parents, rootOrder[i]);
+			if (orbitDone[root]) {
+				continue;
+			}
+			orbitDone[root] = true;
+			branches.add(new RootBranch(rootOrder[i], allowed.clone()));
+			for (int w = firstMembers[root]; w >= 0; w = nextMembers[w]) {
+				allowed[w >>> 6] &= ~(1L << w);
+			}
+		}
+		return branches;
+	}
+
+	private static int find(int[] parents, int v) {
+		while (parents[v] != v) {
+			parents[v] = parents[parents[v]];
+			v = parents[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Adds the vertices greedily in the order of the root coloring
+	 */
+	private void initializeWithGreedySolution(int[] rootOrder) {
+		long[] candidates = new long[words];
+		Arrays.fill(candidates, -1L);
+		int[] solution = new int[numberOfVertices];
+		int size = 0;
+		for (int v : rootOrder) {
+			if ((candidates[v >>> 6] & (1L << v)) != 0) {
+				solution[size++] = v;
+				for (int w = 0; w < words; ++w) {
+					candidates[w] &= complementNeighborhoods[v][w];
+				}
+			}
+		}
+		record(solution, size);
+	}
+
+	/**
+	 * Greedy coloring of the candidates (color classes are independent sets in the complement graph).
+	 * Only vertices with color at least minColor are written to order and colors (ordered by color).
+	 *
+	 * @param uncolored
+	 * 		buffer, is overwritten
+	 * @param colorClass
+	 * 		buffer, is overwritten
+	 * @return
+	 * 		number of vertices written to order
+	 */
+	private int colorSort(long[] candidates, long[] uncolored, long[] colorClass, int minColor, int[] order,
+			int[] colors) {
+		System.arraycopy(candidates, 0, uncolored, 0, words);
+		int count = 0;
+		int color = 0;
+		int first = 0;
+		while (true) {
+			while (first < words && uncolored[first] == 0) {
+				++first;
+			}
+			if (first == words) {
+				return count;
+			}
+			++color;
+			System.arraycopy(uncolored, 0, colorClass, 0, words);
+			for (int w = first; w < words; ++w) {
+				while (colorClass[w] != 0) {
+					int v = (w << 6) + Long.numberOfTrailingZeros(colorClass[w]);
+					colorClass[w] &= colorClass[w] - 1;
+					uncolored[w] &= ~(1L << v);
+					long[] neighborhood = complementNeighborhoods[v];
+					for (int x = w; x < words; ++x) {
+						colorClass[x] &= ~neighborhood[x];
+					}
+					if (color >= minColor) {
+						order[count] = v;
+						colors[count] = color;
+						++count;
+					}
+				}
+			}
+		}
+	}
+
+	private synchronized void record(int[] solution, int size) {
+		if (size > bestSolution.length) {
+			bestSolution = Arrays.copyOf(solution, size);
+			bestSize.set(size);
+		}
+	}
+
+	/**
+	 * Search of the subtree of one branch of the root
+	 */
+	private class RootBranch extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int[] rootOrder;
+		private int[] rootColors;
+		private int i;
+		/**
+		 * For the branch of an orbit: its fixed vertex and the vertices allowed besides it (null otherwise)
+		 */
+		private int vertex;
+		private long[] allowed;
+
+		/*
+		 * Buffers per depth of the search
+		 */
+		private long[][] candidateBuffers;
+		private long[][] uncoloredBuffers;
+		private long[][] colorClassBuffers;
+		private int[][] orderBuffers;
+		private int[][] colorBuffers;
+		private int[] solution;
+		private int nodesUntilTimeCheck = NODES_BETWEEN_TIME_CHECKS;
+
+		private RootBranch(int[] rootOrder, int[] rootColors, int i) {
+			this.rootOrder = rootOrder;
+			this.rootColors = rootColors;
+			this.i = i;
+		}
+
+		private RootBranch(int vertex, long[] allowed) {
+			this.vertex = vertex;
+			this.allowed = allowed;
+		}
+
+		@Override
+		protected void compute() {
+			if (timeLimitReached) {
+				return;
+			}
+			long[] candidates = new long[words];
+			int v;
+			//bound on the size of an independent set in this branch
+			int bound;
+			if (allowed == null) {
+				if (rootColors[i] <= bestSize.get()) {
+					return;
+				}
+				v = rootOrder[i];
+				for (int k = 0; k < i; ++k) {
+					int u = rootOrder[k];
+					candidates[u >>> 6] |= complementNeighborhoods[v][u >>> 6] & (1L << u);
+				}
+				bound = rootColors[i];
+			}
+			else {
+				v = vertex;
+				bound = 1;
+				for (int w = 0; w < words; ++w) {
+					candidates[w] = allowed[w] & complementNeighborhoods[v][w];
+					bound += Long.bitCount(candidates[w]);
+				}
+				if (bound <= bestSize.get()) {
+					return;
+				}
+			}
+			int maxDepth = bound + 1;
+			candidateBuffers = new long[maxDepth][];
+			uncoloredBuffers = new long[maxDepth][];
+			colorClassBuffers = new long[maxDepth][];
+			orderBuffers = new int[maxDepth][];
+			colorBuffers = new int[maxDepth][];
+			solution = new int[maxDepth];
+
+			candidateBuffers[0] = candidates;
+			solution[0] = v;
+			expand(candidates, 0, 1);
+		}
+
+		/**
+		 * @param candidates
+		 * 		vertices adjacent (in the complement) to all vertices of the current solution;
+		 * 		is modified (the branched vertices are removed)
+		 * @param size
+		 * 		size of the current solution
+		 */
+		private void expand(long[] candidates, int depth, int size) {
+			if (--nodesUntilTimeCheck == 0) {
+				nodesUntilTimeCheck = NODES_BETWEEN_TIME_CHECKS;
+				if (System.nanoTime() > deadline) {
+					timeLimitReached = true;
+				}
+			}
+			if (timeLimitReached) {
+				return;
+			}
+			if (isEmpty(candidates)) {
+				if (size > bestSize.get()) {
+					record(solution, size);
+				}
+				return;
+			}
+			if (orderBuffers[depth] == null) {
+				orderBuffers[depth] = new int[numberOfVertices];
+				colorBuffers[depth] = new int[numberOfVertices];
+			}
+			int[] order = orderBuffers[depth];
+			int[] colors = colorBuffers[depth];
+			//vertices with a color of at most bestSize - size cannot lead to a better solution
+			int count = colorSort(candidates, getBuffer(uncoloredBuffers, depth), getBuffer(colorClassBuffers, depth),
+					bestSize.get() - size + 1, order, colors);
+			for (int k = count - 1; k >= 0; --k) {
+				if (size + colors[k] <= bestSize.get()) {
+					return;
+				}
+				int v = order[k];
+				solution[size] = v;
+				long[] newCandidates = getBuffer(candidateBuffers, depth + 1);
+				long[] neighborhood = complementNeighborhoods[v];
+				for (int w = 0; w < words; ++w) {
+					newCandidates[w] = candidates[w] & neighborhood[w];
+				}
+				expand(newCandidates, depth + 1, size + 1);
+				candidates[v >>> 6] &= ~(1L << v);
+			}
+		}
+
+		private long[] getBuffer(long[][] buffers, int depth) {
+			if (buffers[depth] == null) {
+				buffers[depth] = new long[words];
+			}
+			return buffers[depth];
+		}
+	}
+
+	private boolean isEmpty(long[] bitset) {
+		for (long word : bitset) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,113 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.Arrays;
+
+/**
+ * Greedy maximal independent set of a {@link ConflictGraph}: repeatedly takes a vertex of minimum degree
+ * (in the remaining graph) and removes it and its neighbors.
+ * <p>
+ * The vertices are kept in a bucket queue (one doubly linked list per degree), the degrees are updated in place
+ * and the conflict graph is not copied or modified.
+ * This takes O(n^2/64 + m) time for n vertices and m edges (each neighborhood is scanned once, for a {@link CompactConflictGraph} as bitset).
+ * <p>
+ * Ties are broken deterministically, but not by the smallest index: the vertex at the front of the minimum bucket is
+ * taken, and a vertex whose degree decreases is put at the front of its new bucket.
+ * Hence, among the vertices of minimum degree the one whose degree decreased most recently is taken; only if no
+ * degree in that bucket has decreased yet, the vertex with the smallest index is taken.
+ *
+ * @author Johannes
+ *
+ */
+public class MinimumDegreeGreedy {
+
+	private MinimumDegreeGreedy() {
+	}
+
+	/**
+	 * @return
+	 * 		indices (in the conflict graph) of a maximal independent set in ascending order
+	 */
+	public static int[] findIndependentSet(ConflictGraph conflictGraph) {
+		int numberOfIndices = conflictGraph.getNumberOfIndices();
+		int[] degrees = new int[numberOfIndices];
+		boolean[] removed = new boolean[numberOfIndices];
+		int maxDegree = 0;
+		for (int v = 0; v < numberOfIndices; ++v) {
+			if (conflictGraph.isVertex(v)) {
+				degrees[v] = conflictGraph.degree(v);
+				maxDegree = Math.max(maxDegree, degrees[v]);
+			}
+			else {
+				removed[v] = true;
+			}
+		}
+
+		//bucket queue, initially each bucket in ascending order of the indices
+		int[] heads = new int[maxDegree + 1];
+		Arrays.fill(heads, -1);
+		int[] next = new int[numberOfIndices];
+		int[] previous = new int[numberOfIndices];
+		for (int v = numberOfIndices - 1; v >= 0; --v) {
+			if (!removed[v]) {
+				pushFront(v, degrees[v], heads, next, previous);
+			}
+		}
+
+		int[] independentSet = new int[conflictGraph.getVertexCount()];
+		int size = 0;
+		int minDegree = 0;
+		while (true) {
+			while (minDegree <= maxDegree && heads[minDegree] < 0) {
+				++minDegree;
+			}
+			if (minDegree > maxDegree) {
+				break;
+			}
+			int v = heads[minDegree];
+			independentSet[size++] = v;
+			remove(v, degrees[v], heads, next, previous);
+			removed[v] = true;
+			//remove the neighbors of v and decrease the degrees of their neighbors
+			for (int u : conflictGraph.getNeighbors(v)) {
+				if (removed[u]) {
+					continue;
+				}
+				remove(u, degrees[u], heads, next, previous);
+				removed[u] = true;
+				for (int w : conflictGraph.getNeighbors(u)) {
+					if (!removed[w]) {
+						remove(w, degrees[w], heads, next, previous);
+						--degrees[w];
+						//front of the bucket (O(1)), i.e., not in index order
+						pushFront(w, degrees[w], heads, next, previous);
+						minDegree = Math.min(minDegree, degrees[w]);
+					}
+				}
+			}
+		}
+		int[] result = Arrays.copyOf(independentSet, size);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private static void pushFront(int v, int degree, int[] heads, int[] next, int[] previous) {
+		next[v] = heads[degree];
+		previous[v] = -1;
+		if (heads[degree] >= 0) {
+			previous[heads[degree]] = v;
+		}
+		heads[degree] = v;
+	}
+
+	private static void remove(int v, int degree, int[] heads, int[] next, int[] previous) {
+		if (previous[v] >= 0) {
+			next[previous[v]] = next[v];
+		}
+		else {
+			heads[degree] = next[v];
+		}
+		if (next[v] >= 0) {
+			previous[next[v]] = previous[v];
+		}
+	}
+}
@@ -0,0 +1,314 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+import de.uniwue.informatik.util.ExtendedEuclideanAlgorithm;
+import de.uniwue.informatik.util.SegmentIntersection;
+
+/**
+ * The segments belonging to the grid points of a rectangular grid (the origin excluded), precomputed once
+ * and stored in primitive arrays (one array per coordinate).
+ * <p>
+ * For a grid point p = (x, y) with g = gcd(x, y) these are (see
+ * {@link de.uniwue.informatik.main.StackedTrianglesMain#drawStackedTriangleMultiGraph(int)}):
+ * <ul>
+ * <li>the primary segment from the origin to the top point of p, which is p + p/g or, if the main segments
+ * are lengthened, p moved by approximately 4 * gridLength away from the origin</li>
+ * <li>the secondary segment from the left point (x - y/g, y + x/g) to the right point (x + y/g, y - x/g)</li>
+ * </ul>
+ * Two grid points conflict if they are on the same half-line from the origin or if one of their
+ * segments touches one of the segments of the other grid point (except for the two primary segments).
+ * <p>
+ * The grid points are indexed from 0 to {@link PointSegmentTable#size()} - 1 ordered by x and then by y.
+ * A table contains either all grid points of the grid or only those on some half-lines from the origin
+ * ({@link PointSegmentTable#onHalfLines(int, int, int, int, Collection, int, boolean)}).
+ *
+ * @author Johannes
+ *
+ */
+public class PointSegmentTable {
+
+	private final int xMin, xMax, yMin, yMax;
+	private final int gridLength;
+	private final boolean lengthenMainSegment;
+	private final int size;
+
+	/**
+	 * columnStarts[x - xMin] is the index of the first grid point with x-coordinate at least x
+	 */
+	private final int[] columnStarts;
+	private final int[] xs, ys;
+	/**
+	 * Grid point divided by the gcd of its coordinates (direction of its half-line from the origin)
+	 */
+	private final int[] directionXs, directionYs;
+	private final int[] topXs, topYs;
+	private final int[] leftXs, leftYs;
+	private final int[] rightXs, rightYs;
+
+	/**
+	 * @param gridLength
+	 * 		used for the length of the primary segments if lengthenMainSegment is true
+	 * @param lengthenMainSegment
+	 * 		if false, then main segment is made as short as possible that means the top point is moved as close as
+	 * 		possible to the passed central point (the crossing point).
+	 * 		if true, then main segment is made long enough so that every other segment passing/touching the half line
+	 * 		defined by the passed point will cause a conflict
+	 */
+	public PointSegmentTable(int xMin, int xMax, int yMin, int yMax, int gridLength, boolean lengthenMainSegment) {
+		this(xMin, xMax, yMin, yMax, gridLength, lengthenMainSegment, getNumberOfGridPoints(xMin, xMax, yMin, yMax));
+		int i = 0;
+		for (int x = xMin; x <= xMax; ++x) {
+			columnStarts[x - xMin] = i;
+			for (int y = yMin; y <= yMax; ++y) {
+				if (x != 0 || y != 0) {
+					set(i++, x, y);
+				}
+			}
+		}
+		columnStarts[xMax - xMin + 1] = i;
+	}
+
+	private PointSegmentTable(int xMin, int xMax, int yMin, int yMax, int gridLength, boolean lengthenMainSegment,
+			int size) {
+		this.xMin = xMin;
+		this.xMax = xMax;
+		this.yMin = yMin;
+		this.yMax = yMax;
+		this.gridLength = gridLength;
+		this.lengthenMainSegment = lengthenMainSegment;
+		this.size = size;
+
+		columnStarts = new int[xMax - xMin + 2];
+		xs = new int[size];
+		ys = new int[size];
+		directionXs = new int[size];
+		directionYs = new int[size];
+		topXs = new int[size];
+		topYs = new int[size];
+		leftXs = new int[size];
+		leftYs = new int[size];
+		rightXs = new int[size];
+		rightYs = new int[size];
+	}
+
+	private static int getNumberOfGridPoints(int xMin, int xMax, int yMin, int yMax) {
+		if (xMin > xMax || yMin > yMax) {
+			throw new IllegalArgumentException("Empty grid ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"].");
+		}
+		long numberOfGridPoints = ((long) xMax - xMin + 1) * ((long) yMax - yMin + 1);
+		if (xMin <= 0 && 0 <= xMax && yMin <= 0 && 0 <= yMax) {
+			--numberOfGridPoints;
+		}
+		if (numberOfGridPoints > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Grid ["+xMin+", "+xMax+"] x ["+yMin+", "+yMax+"] is too large.");
+		}
+		return (int) numberOfGridPoints;
+	}
+
+	/**
+	 * Table of only those grid points of [xMin, xMax] x [yMin, yMax] that are on the half-lines from the origin in
+	 * the passed directions (i.e., the positive multiples of the directions).
+	 * The other grid points are not enumerated.
+	 *
+	 * @param directions
+	 * 		pairwise distinct directions (x, y) with gcd(x, y) = 1
+	 * @param gridLength
+	 * 		see {@link PointSegmentTable#PointSegmentTable(int, int, int, int, int, boolean)}
+	 * @param lengthenMainSegment
+	 * 		see {@link PointSegmentTable#PointSegmentTable(int, int, int, int, int, boolean)}
+	 */
+	public static PointSegmentTable onHalfLines(int xMin, int xMax, int yMin, int yMax,
+			Collection<GridPoint> directions, int gridLength, boolean lengthenMainSegment) {
+		getNumberOfGridPoints(xMin, xMax, yMin, yMax);
+		int maxAbsX = Math.max(Math.abs(xMin), Math.abs(xMax));
+		int maxAbsY = Math.max(Math.abs(yMin), Math.abs(yMax));
+		//grid points as (x - xMin) * 2^32 + (y - yMin), so that sorting orders them by x and then by y
+		long[] points = new long[16];
+		int numberOfPoints = 0;
+		for (GridPoint direction : directions) {
+			int dx = direction.getX();
+			int dy = direction.getY();
+			if ((dx == 0 && dy == 0) || ExtendedEuclideanAlgorithm.gcd(dx, dy) != 1) {
+				throw new IllegalArgumentException("Direction "+direction+" is not reduced.");
+			}
+			for (long x = dx, y = dy; Math.abs(x) <= maxAbsX && Math.abs(y) <= maxAbsY; x += dx, y += dy) {
+				if (xMin <= x && x <= xMax && yMin <= y && y <= yMax) {
+					if (numberOfPoints == points.length) {
+						points = Arrays.copyOf(points, 2 * numberOfPoints);
+					}
+					points[numberOfPoints++] = ((x - xMin) << 32) | (y - yMin);
+				}
+			}
+		}
+		Arrays.sort(points, 0, numberOfPoints);
+
+		PointSegmentTable table = new PointSegmentTable(xMin, xMax, yMin, yMax, gridLength, lengthenMainSegment,
+				numberOfPoints);
+		int column = 0;
+		for (int i = 0; i < numberOfPoints; ++i) {
+			if (i > 0 && points[i] == points[i - 1]) {
+				throw new IllegalArgumentException("Directions are not pairwise distinct.");
+			}
+			int x = xMin + (int) (points[i] >>> 32);
+			int y = yMin + (int) points[i];
+			while (column <= x - xMin) {
+				table.columnStarts[column++] = i;
+			}
+			table.set(i, x, y);
+		}
+		while (column < table.columnStarts.length) {
+			table.columnStarts[column++] = numberOfPoints;
+		}
+		return table;
+	}
+
+	private void set(int i, int x, int y) {
+		int gcd = ExtendedEuclideanAlgorithm.gcd(x, y);
+		xs[i] = x;
+		ys[i] = y;
+		directionXs[i] = x / gcd;
+		directionYs[i] = y / gcd;
+		topXs[i] = lengthenMainSegment ? x + (int) ((double) x / (double)(Math.abs(x) + Math.abs(y)) * 4.0 * (double) gridLength)
+				: x + x / gcd;
+		topYs[i] = lengthenMainSegment ? y + (int) ((double) y / (double)(Math.abs(x) + Math.abs(y)) * 4.0 * (double) gridLength)
+				: y + y / gcd;
+		leftXs[i] = x - y / gcd;
+		leftYs[i] = y + x / gcd;
+		rightXs[i] = x + y / gcd;
+		rightYs[i] = y - x / gcd;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getXMin() {
+		return xMin;
+	}
+
+	public int getXMax() {
+		return xMax;
+	}
+
+	public int getYMin() {
+		return yMin;
+	}
+
+	public int getYMax() {
+		return yMax;
+	}
+
+	public int getGridLength() {
+		return gridLength;
+	}
+
+	public boolean isLengthenMainSegment() {
+		return lengthenMainSegment;
+	}
+
+	public int getX(int i) {
+		return xs[i];
+	}
+
+	public int getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * @return
+	 * 		index of the grid point (x, y) or -1 if it is not in this table
+	 */
+	public int indexOf(int x, int y) {
+		if (x < xMin || x > xMax || y < yMin || y > yMax) {
+			return -1;
+		}
+		int index = Arrays.binarySearch(ys, columnStarts[x - xMin], columnStarts[x - xMin + 1], y);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * @param x
+	 * 		in [xMin, xMax + 1]
+	 * @return
+	 * 		index of the first grid point with x-coordinate x (or {@link PointSegmentTable#size()} for xMax + 1).
+	 * 		The grid points of column x have the indices from this index to the first index of column x + 1
+	 * 		(exclusive).
+	 */
+	public int getFirstIndexOfColumn(int x) {
+		if (x < xMin || x > xMax + 1) {
+			throw new IllegalArgumentException("Column "+x+" is not in ["+xMin+", "+(xMax + 1)+"].");
+		}
+		return columnStarts[x - xMin];
+	}
+
+	/**
+	 * @return
+	 * 		true if the grid point with index i has the same segments as the grid point with index otherIndex in
+	 * 		otherTable (that grid point must have the same coordinates)
+	 */
+	public boolean hasSameSegments(int i, PointSegmentTable otherTable, int otherIndex) {
+		//the secondary segment depends only on the coordinates
+		return topXs[i] == otherTable.topXs[otherIndex] && topYs[i] == otherTable.topYs[otherIndex];
+	}
+
+	/*
+	 * Bounding boxes of the segments (used for pruning pairs of grid points)
+	 */
+
+	int getPrimaryMinX(int i) {
+		return Math.min(0, topXs[i]);
+	}
+
+	int getPrimaryMaxX(int i) {
+		return Math.max(0, topXs[i]);
+	}
+
+	int getPrimaryMinY(int i) {
+		return Math.min(0, topYs[i]);
+	}
+
+	int getPrimaryMaxY(int i) {
+		return Math.max(0, topYs[i]);
+	}
+
+	int getSecondaryMinX(int i) {
+		return Math.min(leftXs[i], rightXs[i]);
+	}
+
+	int getSecondaryMaxX(int i) {
+		return Math.max(leftXs[i], rightXs[i]);
+	}
+
+	int getSecondaryMinY(int i) {
+		return Math.min(leftYs[i], rightYs[i]);
+	}
+
+	int getSecondaryMaxY(int i) {
+		return Math.max(leftYs[i], rightYs[i]);
+	}
+
+	/**
+	 * @return
+	 * 		true if the grid points with the indices i and j conflict
+	 */
+	public boolean hasConflict(int i, int j) {
+		//Check 1: both grid points on the same half-line from the origin (multiples of each other)
+		if (directionXs[i] == directionXs[j] && directionYs[i] == directionYs[j]) {
+			return true;
+		}
+		//Check 2: Primary line segment (origin to top point) of i touches secondary line segment (left to right) of j
+		if (SegmentIntersection.intersects(0, 0, topXs[i], topYs[i], leftXs[j], leftYs[j], rightXs[j], rightYs[j])) {
+			return true;
+		}
+		//Check 3: Primary line segment (origin to top point) of j touches secondary line segment (left to right) of i
+		if (SegmentIntersection.intersects(leftXs[i], leftYs[i], rightXs[i], rightYs[i], 0, 0, topXs[j], topYs[j])) {
+			return true;
+		}
+		//Check 4: Both secondary line segments touch each other
+		return SegmentIntersection.intersects(leftXs[i], leftYs[i], rightXs[i], rightYs[i],
+				leftXs[j], leftYs[j], rightXs[j], rightYs[j]);
+	}
+}
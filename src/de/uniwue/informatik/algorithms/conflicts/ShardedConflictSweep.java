@@ -0,0 +1,380 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import de.uniwue.informatik.algorithms.conflicts.ConflictGraphBuilder.ConflictVisitor;
+
+/**
+ * Computes the conflicts of a {@link PointSegmentTable} with several processes (on the same machine or on machines
+ * sharing a file system) that are coordinated only through files in a work directory.
+ * <p>
+ * The pairs (i, j) with i < j are split into shards of consecutive rows i with about the same number of pairs.
+ * The work directory contains:
+ * <ul>
+ * <li>"job.properties": the grid, the grid length, lengthenMainSegment and the number of shards</li>
+ * <li>"shard-k.todo": shard k is not claimed yet</li>
+ * <li>"shard-k.&lt;worker&gt;.claimed": shard k is computed by worker</li>
+ * <li>"shard-k.edges.gz": the gzipped conflicts of shard k (pairs of indices of the table)</li>
+ * </ul>
+ * A worker claims a shard by atomically renaming its todo file (only one rename of the same file succeeds),
+ * writes the conflicts to a temporary file of its own, syncs it to the disk and renames it when complete.
+ * While computing a shard, the worker sets the modification time of its claim file every
+ * {@link ShardedConflictSweep#HEARTBEAT_MILLIS} (a rename keeps the modification time of the todo file).
+ * If a worker dies, its claims are no longer refreshed and can be given back by
+ * {@link ShardedConflictSweep#releaseStaleClaims(long)}.
+ * Should a shard still be computed twice, both workers write the same fragment, so either rename is fine.
+ * When all shards are done, {@link ShardedConflictSweep#merge()} builds the conflict graph from the fragments.
+ * <p>
+ * Each worker needs only the table and one buffer for writing, not the conflict graph.
+ *
+ * @author Johannes
+ *
+ */
+public class ShardedConflictSweep {
+
+	private static final int FRAGMENT_MAGIC = 0x53484152;
+	private static final String JOB_FILE_NAME = "job.properties";
+	private static final String TODO_SUFFIX = ".todo";
+	private static final String CLAIMED_SUFFIX = ".claimed";
+	private static final String EDGES_SUFFIX = ".edges.gz";
+
+	/**
+	 * Interval in which a worker refreshes the modification time of the claim file of the shard it computes
+	 */
+	public static final long HEARTBEAT_MILLIS = 10000;
+
+	private static final AtomicInteger workerCounter = new AtomicInteger();
+
+	private final File workDirectory;
+	private final PointSegmentTable table;
+	private final int numberOfShards;
+	/**
+	 * Shard k consists of the rows shardStarts[k] to shardStarts[k + 1] - 1
+	 */
+	private final int[] shardStarts;
+
+	private ShardedConflictSweep(File workDirectory, PointSegmentTable table, int numberOfShards) {
+		this.workDirectory = workDirectory;
+		this.table = table;
+		this.numberOfShards = numberOfShards;
+		this.shardStarts = getShardStarts(table.size(), numberOfShards);
+	}
+
+	/**
+	 * Creates the job in workDirectory (with all shards to do) or opens it if workDirectory already contains this
+	 * job (then the shards done are kept).
+	 * Only one process should create a job; the workers use {@link ShardedConflictSweep#open(File)}.
+	 */
+	public static ShardedConflictSweep create(File workDirectory, int xMin, int xMax, int yMin, int yMax,
+			int gridLength, boolean lengthenMainSegment, int numberOfShards) throws IOException {
+		if (numberOfShards < 1) {
+			throw new IllegalArgumentException("Number of shards must be positive, but is "+numberOfShards+".");
+		}
+		Properties job = new Properties();
+		job.setProperty("xMin", Integer.toString(xMin));
+		job.setProperty("xMax", Integer.toString(xMax));
+		job.setProperty("yMin", Integer.toString(yMin));
+		job.setProperty("yMax", Integer.toString(yMax));
+		job.setProperty("gridLength", Integer.toString(gridLength));
+		job.setProperty("lengthenMainSegment", Boolean.toString(lengthenMainSegment));
+		job.setProperty("numberOfShards", Integer.toString(numberOfShards));
+
+		File jobFile = new File(workDirectory, JOB_FILE_NAME);
+		if (jobFile.exists()) {
+			if (!readJob(jobFile).equals(job)) {
+				throw new IllegalArgumentException("Work directory "+workDirectory+" contains a different job.");
+			}
+			return open(workDirectory);
+		}
+		Files.createDirectories(workDirectory.toPath());
+		PointSegmentTable table = new PointSegmentTable(xMin, xMax, yMin, yMax, gridLength, lengthenMainSegment);
+		ShardedConflictSweep sweep = new ShardedConflictSweep(workDirectory, table, numberOfShards);
+		for (int k = 0; k < numberOfShards; ++k) {
+			if (!sweep.getEdgesFile(k).exists()) {
+				new File(workDirectory, getShardName(k) + TODO_SUFFIX).createNewFile();
+			}
+		}
+		//the job becomes visible to the workers only after all shards are there
+		File temporaryFile = new File(workDirectory, JOB_FILE_NAME + ".tmp");
+		try (OutputStream out = new FileOutputStream(temporaryFile)) {
+			job.store(out, null);
+		}
+		Files.move(temporaryFile.toPath(), jobFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		return sweep;
+	}
+
+	/**
+	 * Opens the job in workDirectory
+	 */
+	public static ShardedConflictSweep open(File workDirectory) throws IOException {
+		Properties job = readJob(new File(workDirectory, JOB_FILE_NAME));
+		PointSegmentTable table = new PointSegmentTable(Integer.parseInt(job.getProperty("xMin")),
+				Integer.parseInt(job.getProperty("xMax")), Integer.parseInt(job.getProperty("yMin")),
+				Integer.parseInt(job.getProperty("yMax")), Integer.parseInt(job.getProperty("gridLength")),
+				Boolean.parseBoolean(job.getProperty("lengthenMainSegment")));
+		return new ShardedConflictSweep(workDirectory, table, Integer.parseInt(job.getProperty("numberOfShards")));
+	}
+
+	private static Properties readJob(File jobFile) throws IOException {
+		Properties job = new Properties();
+		try (InputStream in = new FileInputStream(jobFile)) {
+			job.load(in);
+		}
+		return job;
+	}
+
+	/**
+	 * @return
+	 * 		starts of the shards (and size at the end) such that each shard has about the same number of pairs
+	 * 		(row i has size - 1 - i pairs)
+	 */
+	private static int[] getShardStarts(int size, int numberOfShards) {
+		int[] shardStarts = new int[numberOfShards + 1];
+		long numberOfPairs = (long) size * (size - 1) / 2;
+		long pairsBefore = 0;
+		int row = 0;
+		for (int k = 1; k < numberOfShards; ++k) {
+			while (row < size && pairsBefore < numberOfPairs * k / numberOfShards) {
+				pairsBefore += size - 1 - row;
+				++row;
+			}
+			shardStarts[k] = row;
+		}
+		shardStarts[numberOfShards] = size;
+		return shardStarts;
+	}
+
+	public PointSegmentTable getTable() {
+		return table;
+	}
+
+	public int getNumberOfShards() {
+		return numberOfShards;
+	}
+
+	private static String getShardName(int shard) {
+		return String.format("shard-%05d", shard);
+	}
+
+	private File getEdgesFile(int shard) {
+		return new File(workDirectory, getShardName(shard) + EDGES_SUFFIX);
+	}
+
+	/**
+	 * @return
+	 * 		true if the conflicts of shard have been written completely
+	 */
+	public boolean isDone(int shard) {
+		return getEdgesFile(shard).exists();
+	}
+
+	/**
+	 * @return
+	 * 		true if all shards are done
+	 */
+	public boolean isComplete() {
+		for (int k = 0; k < numberOfShards; ++k) {
+			if (!isDone(k)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Claims and computes shards until no shard is left to do
+	 *
+	 * @return
+	 * 		number of shards computed by this call
+	 */
+	public int work() throws IOException {
+		String worker = ManagementFactory.getRuntimeMXBean().getName().replaceAll("[^A-Za-z0-9@_-]", "_") + "-"
+				+ workerCounter.incrementAndGet();
+		ConflictGraphBuilder builder = new ConflictGraphBuilder(table);
+		int numberOfShardsComputed = 0;
+		Timer heartbeat = new Timer("Heartbeat of "+worker, true);
+		try {
+			for (int k = 0; k < numberOfShards; ++k) {
+				File todoFile = new File(workDirectory, getShardName(k) + TODO_SUFFIX);
+				final File claimFile = new File(workDirectory, getShardName(k) + "." + worker + CLAIMED_SUFFIX);
+				try {
+					Files.move(todoFile.toPath(), claimFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+					//the rename kept the modification time of the todo file
+					touch(claimFile);
+				}
+				catch (NoSuchFileException e) {
+					//done or claimed by another worker or (between both steps) given back as stale claim
+					continue;
+				}
+				if (isDone(k)) {
+					//the claim of a worker was given back after it had finished
+					Files.deleteIfExists(claimFile.toPath());
+					continue;
+				}
+				TimerTask refreshClaim = new TimerTask() {
+					@Override
+					public void run() {
+						try {
+							touch(claimFile);
+						}
+						catch (IOException e) {
+							//given back as stale claim; the shard is still finished
+						}
+					}
+				};
+				heartbeat.schedule(refreshClaim, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS);
+				try {
+					writeShard(builder, k, worker);
+				}
+				finally {
+					refreshClaim.cancel();
+				}
+				//if it does not exist anymore, it has already been given back as stale claim
+				Files.deleteIfExists(claimFile.toPath());
+				++numberOfShardsComputed;
+			}
+		}
+		finally {
+			heartbeat.cancel();
+		}
+		return numberOfShardsComputed;
+	}
+
+	private static void touch(File file) throws IOException {
+		Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+	}
+
+	private void writeShard(ConflictGraphBuilder builder, int shard, String worker) throws IOException {
+		//each worker has its own temporary file in case a shard is computed twice
+		File temporaryFile = new File(workDirectory, getEdgesFile(shard).getName() + "." + worker + ".tmp");
+		try (FileOutputStream fileOut = new FileOutputStream(temporaryFile);
+				GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut, 1 << 16);
+				final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzipOut, 1 << 16))) {
+			out.writeInt(FRAGMENT_MAGIC);
+			out.writeInt(shard);
+			out.writeInt(table.size());
+			final IOException[] exception = new IOException[1];
+			builder.visitConflicts(shardStarts[shard], shardStarts[shard + 1], new ConflictVisitor() {
+				@Override
+				public void conflict(int i, int j) {
+					if (exception[0] == null) {
+						try {
+							out.writeInt(i);
+							out.writeInt(j);
+						}
+						catch (IOException e) {
+							exception[0] = e;
+						}
+					}
+				}
+			});
+			if (exception[0] != null) {
+				throw exception[0];
+			}
+			out.writeInt(-1);
+			out.flush();
+			gzipOut.finish();
+			//the fragment must be complete on the disk before it becomes visible under its final name
+			fileOut.getFD().sync();
+		}
+		Files.move(temporaryFile.toPath(), getEdgesFile(shard).toPath(), StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Gives back the shards whose claim has not been refreshed for more than maxAgeMillis (e.g. claimed by a worker
+	 * that died) so that they are claimed again
+	 *
+	 * @param maxAgeMillis
+	 * 		at least 3 * {@link ShardedConflictSweep#HEARTBEAT_MILLIS}, so that a late heartbeat does not give back
+	 * 		the shard of a living worker
+	 * @return
+	 * 		number of shards given back
+	 */
+	public int releaseStaleClaims(long maxAgeMillis) throws IOException {
+		if (maxAgeMillis < 3 * HEARTBEAT_MILLIS) {
+			throw new IllegalArgumentException("Maximum age of a claim must be at least "+(3 * HEARTBEAT_MILLIS)
+					+" ms, but is "+maxAgeMillis+" ms.");
+		}
+		File[] claimFiles = workDirectory.listFiles();
+		if (claimFiles == null) {
+			throw new IOException("Cannot list work directory "+workDirectory+".");
+		}
+		int numberOfReleasedShards = 0;
+		for (File claimFile : claimFiles) {
+			String name = claimFile.getName();
+			if (!name.endsWith(CLAIMED_SUFFIX) || System.currentTimeMillis() - claimFile.lastModified() <= maxAgeMillis) {
+				continue;
+			}
+			String shardName = name.substring(0, name.indexOf('.'));
+			try {
+				Files.move(claimFile.toPath(), new File(workDirectory, shardName + TODO_SUFFIX).toPath(),
+						StandardCopyOption.ATOMIC_MOVE);
+				++numberOfReleasedShards;
+			}
+			catch (NoSuchFileException e) {
+				//the worker has just finished
+			}
+		}
+		return numberOfReleasedShards;
+	}
+
+	/**
+	 * Reports the conflicts of all shards (in the order of the shards) to visitor
+	 */
+	public void visitConflicts(ConflictVisitor visitor) throws IOException {
+		for (int k = 0; k < numberOfShards; ++k) {
+			if (!isDone(k)) {
+				throw new IllegalStateException("Shard "+k+" of "+workDirectory+" is not done.");
+			}
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+					new GZIPInputStream(new FileInputStream(getEdgesFile(k)), 1 << 16), 1 << 16))) {
+				if (in.readInt() != FRAGMENT_MAGIC || in.readInt() != k || in.readInt() != table.size()) {
+					throw new IOException(getEdgesFile(k)+" is no fragment of shard "+k+" of this job.");
+				}
+				for (int i = in.readInt(); i >= 0; i = in.readInt()) {
+					visitor.conflict(i, in.readInt());
+				}
+			}
+			catch (EOFException e) {
+				throw new IOException(getEdgesFile(k)+" is truncated.", e);
+			}
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the conflict graph built from the fragments of all shards (which must be done)
+	 */
+	public CompactConflictGraph merge() throws IOException {
+		final CompactConflictGraph conflictGraph = new CompactConflictGraph(table);
+		visitConflicts(new ConflictVisitor() {
+			@Override
+			public void conflict(int i, int j) {
+				conflictGraph.addEdge(conflictGraph.getIndex(table.getX(i), table.getY(i)),
+						conflictGraph.getIndex(table.getX(j), table.getY(j)));
+			}
+		});
+		return conflictGraph;
+	}
+}
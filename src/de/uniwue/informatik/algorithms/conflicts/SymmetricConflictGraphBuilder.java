@@ -0,0 +1,97 @@
+package de.uniwue.informatik.algorithms.conflicts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uniwue.informatik.algorithms.conflicts.ConflictGraphBuilder.ConflictVisitor;
+
+/**
+ * Builds the conflict graph of a {@link PointSegmentTable} using the {@link GridSymmetry}s that map the grid
+ * points of the table onto themselves (e.g. the reflections of the grids around the origin in the quadrant modes
+ * ALL_DIRECTIONS, NORTH and EAST of {@link de.uniwue.informatik.main.StackedTrianglesMain}).
+ * <p>
+ * A grid point is canonical if it has the smallest index in its orbit.
+ * Only the pairs (i, j) with i < j, i canonical and no index smaller than i in the orbit of j are tested; each
+ * conflict found is added together with all its images.
+ * Every pair is the image of such a pair (map the grid point whose orbit has the smaller representative to that
+ * representative), so this gives the same graph as testing all pairs, but with k symmetries only about a
+ * 1/k-fraction of the pairs is tested.
+ *
+ * @author Johannes
+ *
+ */
+public class SymmetricConflictGraphBuilder {
+
+	private final PointSegmentTable table;
+	private final List<GridSymmetry> symmetries = new ArrayList<>();
+
+	public SymmetricConflictGraphBuilder(PointSegmentTable table) {
+		this.table = table;
+		for (GridSymmetry symmetry : GridSymmetry.getSymmetriesOf(table.getXMin(), table.getXMax(), table.getYMin(),
+				table.getYMax())) {
+			boolean mapsPointsOntoThemselves = true;
+			for (int i = 0; i < table.size() && mapsPointsOntoThemselves; ++i) {
+				mapsPointsOntoThemselves = table.indexOf(symmetry.mapX(table.getX(i), table.getY(i)),
+						symmetry.mapY(table.getX(i), table.getY(i))) >= 0;
+			}
+			if (mapsPointsOntoThemselves) {
+				symmetries.add(symmetry);
+			}
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the symmetries used (including the identity)
+	 */
+	public List<GridSymmetry> getSymmetries() {
+		return symmetries;
+	}
+
+	/**
+	 * @param inParallel
+	 * 		if true, the conflicts are found by the threads of the common fork/join pool
+	 * @return
+	 * 		conflict graph in which each grid point of the table is a vertex
+	 */
+	public CompactConflictGraph buildCompactGraph(boolean inParallel) {
+		final CompactConflictGraph conflictGraph = new CompactConflictGraph(table);
+		if (symmetries.size() == 1) {
+			new ConflictGraphBuilder(table).addConflicts(conflictGraph, inParallel);
+			return conflictGraph;
+		}
+
+		//images[s][i] is the index in conflictGraph of the image of grid point i under symmetry s
+		final int[][] images = new int[symmetries.size()][table.size()];
+		int[] orbitRepresentatives = new int[table.size()];
+		for (int i = 0; i < table.size(); ++i) {
+			orbitRepresentatives[i] = i;
+			for (int s = 0; s < symmetries.size(); ++s) {
+				int x = symmetries.get(s).mapX(table.getX(i), table.getY(i));
+				int y = symmetries.get(s).mapY(table.getX(i), table.getY(i));
+				images[s][i] = conflictGraph.getIndex(x, y);
+				orbitRepresentatives[i] = Math.min(orbitRepresentatives[i], table.indexOf(x, y));
+			}
+		}
+
+		ConflictVisitor edgeInserter = new ConflictVisitor() {
+			@Override
+			public void conflict(int i, int j) {
+				for (int[] imagesOfSymmetry : images) {
+					conflictGraph.addArc(imagesOfSymmetry[i], imagesOfSymmetry[j]);
+					conflictGraph.addArc(imagesOfSymmetry[j], imagesOfSymmetry[i]);
+				}
+			}
+		};
+		ConflictGraphBuilder builder = new ConflictGraphBuilder(table, ConflictGraphBuilder.DEFAULT_BLOCK_SIZE, null,
+				orbitRepresentatives);
+		//the images of a conflict are in other rows, so the visitor must be called from one thread
+		if (inParallel) {
+			builder.visitConflictsInParallel(edgeInserter);
+		}
+		else {
+			builder.visitConflicts(edgeInserter);
+		}
+		return conflictGraph;
+	}
+}
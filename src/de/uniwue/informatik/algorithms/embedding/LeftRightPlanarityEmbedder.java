@@ -0,0 +1,699 @@
+package de.uniwue.informatik.algorithms.embedding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.javatuples.Pair;
+
+import com.google.common.base.Function;
+
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import edu.uci.ics.jung.graph.UndirectedGraph;
+
+/**
+ * Planarity test and computation of a planar embedding in linear time.
+ * This follows the left-right planarity test ("The Left-Right Planarity Test" by Brandes, 2009, based on
+ * de Fraysseix and Rosenstiehl).
+ * Naming of the arrays is like in that paper (lowpt, lowpt2, nesting depth, ref, side, conflict pairs ...).
+ * <p>
+ * The input can be any {@link UndirectedGraph} without self-loops and multi-edges whose edges are in a single
+ * component.
+ * If it is planar, the output is an {@link EmbeddedUndirectedGraph} with the same vertex and edge objects that is
+ * built via {@link EmbeddedUndirectedGraph#fromRotationSystem(Map)}. The face with the most edges is its outer face.
+ * If it is not planar, null is returned.
+ * <p>
+ * All depth-first searches are iterative, so also very large graphs can be handled.
+ * Vertices and edges are mapped to indices once at the beginning and all further work is done on int-arrays.
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class LeftRightPlanarityEmbedder<V, E> implements Function<UndirectedGraph<V, E>, EmbeddedUndirectedGraph<V, E>> {
+
+	private static final int NONE = -1;
+
+	private Object[] vertexOf;
+	private Object[] edgeOf;
+
+	/**
+	 * Incident edges of each vertex (compressed: the ones of vertex v are at indices adjStart[v] to adjStart[v+1]-1)
+	 */
+	private int[] adjStart;
+	private int[] adjEdges;
+	/**
+	 * Endpoints of each edge as in the input; after {@link LeftRightPlanarityEmbedder#orient(int)} they are
+	 * swapped such that the edge is oriented from source to target
+	 */
+	private int[] source;
+	private int[] target;
+	private boolean[] oriented;
+
+	private int[] height;
+	private int[] parentEdge;
+	private int[] lowpt;
+	private int[] lowpt2;
+	private int[] nestingDepth;
+
+	/**
+	 * Outgoing edges of each vertex ordered by nesting depth (compressed like adjStart/adjEdges)
+	 */
+	private int[] outStart;
+	private int[] outEdges;
+
+	private int[] ref;
+	private int[] side;
+	private int[] lowptEdge;
+	private ConflictPair[] stackBottom;
+	private ArrayList<ConflictPair> S;
+
+	/**
+	 * Rotation system under construction. Half-edge 2e is edge e at its source, 2e+1 is edge e at its target.
+	 */
+	private int[] cw;
+	private int[] ccw;
+	private int[] firstHalfEdge;
+	private int[] leftRef;
+	private int[] rightRef;
+
+	private ArrayList<Integer> roots;
+
+	public LeftRightPlanarityEmbedder() {
+
+	}
+
+	private void reset() {
+		vertexOf = null;
+		edgeOf = null;
+		adjStart = null;
+		adjEdges = null;
+		source = null;
+		target = null;
+		oriented = null;
+		height = null;
+		parentEdge = null;
+		lowpt = null;
+		lowpt2 = null;
+		nestingDepth = null;
+		outStart = null;
+		outEdges = null;
+		ref = null;
+		side = null;
+		lowptEdge = null;
+		stackBottom = null;
+		S = null;
+		cw = null;
+		ccw = null;
+		firstHalfEdge = null;
+		leftRef = null;
+		rightRef = null;
+		roots = null;
+	}
+
+	/**
+	 * @param graph
+	 * 		graph to be tested and embedded
+	 * @return
+	 * 		true iff the passed graph is planar
+	 */
+	public boolean isPlanar(UndirectedGraph<V, E> graph) {
+		initialize(graph);
+		boolean planar = runPlanarityTest();
+		reset();
+		return planar;
+	}
+
+	@Override
+	public EmbeddedUndirectedGraph<V, E> apply(UndirectedGraph<V, E> graph) {
+		initialize(graph);
+		if (!runPlanarityTest()) {
+			reset();
+			return null;
+		}
+		int componentsWithEdges = 0;
+		for (int root : roots) {
+			if (adjStart[root + 1] > adjStart[root]) {
+				++componentsWithEdges;
+			}
+		}
+		if (componentsWithEdges > 1) {
+			reset();
+			throw new IllegalArgumentException("Input graph ("+graph+") is planar but its edges are not in a single "
+					+ "component. An embedding can only be computed for each component separately.");
+		}
+		computeEmbedding();
+
+		EmbeddedUndirectedGraph<V, E> embeddedGraph = EmbeddedUndirectedGraph.fromRotationSystem(getRotationSystem());
+		reset();
+		return embeddedGraph;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void initialize(UndirectedGraph<V, E> graph) {
+		reset();
+		int n = graph.getVertexCount();
+		int m = graph.getEdgeCount();
+
+		vertexOf = new Object[n];
+		edgeOf = new Object[m];
+		Map<V, Integer> indexOf = new HashMap<>(2 * n);
+		int i = 0;
+		for (V v : graph.getVertices()) {
+			vertexOf[i] = v;
+			indexOf.put(v, i);
+			++i;
+		}
+		source = new int[m];
+		target = new int[m];
+		adjStart = new int[n + 1];
+		int j = 0;
+		for (E e : graph.getEdges()) {
+			edgeOf[j] = e;
+			source[j] = indexOf.get(graph.getEndpoints(e).getFirst());
+			target[j] = indexOf.get(graph.getEndpoints(e).getSecond());
+			if (source[j] == target[j]) {
+				throw new IllegalArgumentException("Self-loop "+e+" at vertex "+vertexOf[source[j]]+" is not supported.");
+			}
+			++adjStart[source[j] + 1];
+			++adjStart[target[j] + 1];
+			++j;
+		}
+		for (int v = 0; v < n; ++v) {
+			adjStart[v + 1] += adjStart[v];
+		}
+		adjEdges = new int[2 * m];
+		int[] fill = Arrays.copyOf(adjStart, n);
+		for (int e = 0; e < m; ++e) {
+			adjEdges[fill[source[e]]++] = e;
+			adjEdges[fill[target[e]]++] = e;
+		}
+		//multi-edges are not supported (neither by this algorithm nor by EmbeddedUndirectedGraph)
+		int[] lastSeenAt = new int[n];
+		Arrays.fill(lastSeenAt, NONE);
+		for (int v = 0; v < n; ++v) {
+			for (int k = adjStart[v]; k < adjStart[v + 1]; ++k) {
+				int w = opposite(adjEdges[k], v);
+				if (lastSeenAt[w] == v) {
+					throw new IllegalArgumentException("Multi-edge between "+vertexOf[v]+" and "+vertexOf[w]
+							+" is not supported.");
+				}
+				lastSeenAt[w] = v;
+			}
+		}
+	}
+
+	private boolean runPlanarityTest() {
+		int n = vertexOf.length;
+		int m = edgeOf.length;
+		if (n > 2 && m > 3 * n - 6) {
+			return false;
+		}
+
+		oriented = new boolean[m];
+		height = new int[n];
+		Arrays.fill(height, NONE);
+		parentEdge = new int[n];
+		Arrays.fill(parentEdge, NONE);
+		lowpt = new int[m];
+		lowpt2 = new int[m];
+		nestingDepth = new int[m];
+		roots = new ArrayList<>();
+
+		//phase 1: orientation
+		for (int v = 0; v < n; ++v) {
+			if (height[v] == NONE) {
+				height[v] = 0;
+				roots.add(v);
+				orient(v);
+			}
+		}
+		lowpt2 = null;
+
+		sortOutgoingEdgesByNestingDepth();
+
+		//phase 2: testing
+		ref = new int[m];
+		Arrays.fill(ref, NONE);
+		side = new int[m];
+		Arrays.fill(side, 1);
+		lowptEdge = new int[m];
+		Arrays.fill(lowptEdge, NONE);
+		stackBottom = new ConflictPair[m];
+		S = new ArrayList<>();
+		for (int root : roots) {
+			if (!test(root)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Depth-first search orienting all edges, computing heights, lowpoints and nesting depths
+	 *
+	 * @param root
+	 */
+	private void orient(int root) {
+		int[] dfsStack = new int[vertexOf.length];
+		int stackSize = 0;
+		int[] nextIndex = Arrays.copyOf(adjStart, vertexOf.length);
+		boolean[] returnedFrom = new boolean[edgeOf.length];
+		dfsStack[stackSize++] = root;
+		while (stackSize > 0) {
+			int v = dfsStack[--stackSize];
+			int e = parentEdge[v];
+			while (nextIndex[v] < adjStart[v + 1]) {
+				int vw = adjEdges[nextIndex[v]];
+				//returnedFrom is only relevant at the upper endpoint of a tree edge
+				if (!returnedFrom[vw] || source[vw] != v) {
+					if (oriented[vw]) {
+						++nextIndex[v];
+						continue;
+					}
+					//orient vw from v to w
+					oriented[vw] = true;
+					if (source[vw] != v) {
+						target[vw] = source[vw];
+						source[vw] = v;
+					}
+					int w = target[vw];
+					lowpt[vw] = height[v];
+					lowpt2[vw] = height[v];
+					if (height[w] == NONE) {
+						//tree edge -> continue with w and come back to v later
+						parentEdge[w] = vw;
+						height[w] = height[v] + 1;
+						returnedFrom[vw] = true;
+						dfsStack[stackSize++] = v;
+						dfsStack[stackSize++] = w;
+						break;
+					}
+					else {
+						//back edge
+						lowpt[vw] = height[w];
+					}
+				}
+				//determine nesting depth
+				nestingDepth[vw] = 2 * lowpt[vw];
+				if (lowpt2[vw] < height[v]) {
+					//chordal
+					++nestingDepth[vw];
+				}
+				//update lowpoints of the parent edge e
+				if (e != NONE) {
+					if (lowpt[vw] < lowpt[e]) {
+						lowpt2[e] = Math.min(lowpt[e], lowpt2[vw]);
+						lowpt[e] = lowpt[vw];
+					}
+					else if (lowpt[vw] > lowpt[e]) {
+						lowpt2[e] = Math.min(lowpt2[e], lowpt[vw]);
+					}
+					else {
+						lowpt2[e] = Math.min(lowpt2[e], lowpt2[vw]);
+					}
+				}
+				++nextIndex[v];
+			}
+		}
+	}
+
+	/**
+	 * Bucket sort of all edges by their (possibly negative) nesting depth, then distributing them to their sources.
+	 * Linear in the number of vertices and edges.
+	 */
+	private void sortOutgoingEdgesByNestingDepth() {
+		int n = vertexOf.length;
+		int m = edgeOf.length;
+		int offset = 2 * n + 2;
+		int[] bucketStart = new int[2 * offset + 2];
+		for (int e = 0; e < m; ++e) {
+			++bucketStart[nestingDepth[e] + offset + 1];
+		}
+		for (int k = 1; k < bucketStart.length; ++k) {
+			bucketStart[k] += bucketStart[k - 1];
+		}
+		int[] sortedEdges = new int[m];
+		for (int e = 0; e < m; ++e) {
+			sortedEdges[bucketStart[nestingDepth[e] + offset]++] = e;
+		}
+
+		outStart = new int[n + 1];
+		for (int e = 0; e < m; ++e) {
+			++outStart[source[e] + 1];
+		}
+		for (int v = 0; v < n; ++v) {
+			outStart[v + 1] += outStart[v];
+		}
+		outEdges = new int[m];
+		int[] fill = Arrays.copyOf(outStart, n);
+		for (int e : sortedEdges) {
+			outEdges[fill[source[e]]++] = e;
+		}
+	}
+
+	/**
+	 * Depth-first search (along the same tree as in {@link LeftRightPlanarityEmbedder#orient(int)}) that checks
+	 * the left-right constraints
+	 *
+	 * @param root
+	 * @return
+	 * 		false if a conflict was found (graph is not planar)
+	 */
+	private boolean test(int root) {
+		int[] dfsStack = new int[vertexOf.length];
+		int stackSize = 0;
+		int[] nextIndex = Arrays.copyOf(outStart, vertexOf.length);
+		boolean[] returnedFrom = new boolean[edgeOf.length];
+		dfsStack[stackSize++] = root;
+		while (stackSize > 0) {
+			int v = dfsStack[--stackSize];
+			int e = parentEdge[v];
+			boolean descended = false;
+			while (nextIndex[v] < outStart[v + 1]) {
+				int ei = outEdges[nextIndex[v]];
+				int w = target[ei];
+				if (!returnedFrom[ei]) {
+					stackBottom[ei] = top();
+					if (ei == parentEdge[w]) {
+						//tree edge
+						returnedFrom[ei] = true;
+						dfsStack[stackSize++] = v;
+						dfsStack[stackSize++] = w;
+						descended = true;
+						break;
+					}
+					else {
+						//back edge
+						lowptEdge[ei] = ei;
+						ConflictPair P = new ConflictPair();
+						P.right.low = ei;
+						P.right.high = ei;
+						S.add(P);
+					}
+				}
+				//integrate new return edges
+				if (lowpt[ei] < height[v]) {
+					if (nextIndex[v] == outStart[v]) {
+						lowptEdge[e] = lowptEdge[ei];
+					}
+					else if (!addConstraints(ei, e)) {
+						return false;
+					}
+				}
+				++nextIndex[v];
+			}
+			if (!descended && e != NONE) {
+				removeBackEdges(e);
+			}
+		}
+		return true;
+	}
+
+	private boolean addConstraints(int ei, int e) {
+		ConflictPair P = new ConflictPair();
+		//merge return edges of e_i into P.right
+		do {
+			ConflictPair Q = S.remove(S.size() - 1);
+			if (!Q.left.isEmpty()) {
+				Q.swap();
+			}
+			if (!Q.left.isEmpty()) {
+				return false;
+			}
+			if (lowpt[Q.right.low] > lowpt[e]) {
+				//merge intervals
+				if (P.right.isEmpty()) {
+					P.right.high = Q.right.high;
+				}
+				else {
+					ref[P.right.low] = Q.right.high;
+				}
+				P.right.low = Q.right.low;
+			}
+			else {
+				//align
+				ref[Q.right.low] = lowptEdge[e];
+			}
+		} while (top() != stackBottom[ei]);
+		//merge conflicting return edges of e_1, ..., e_{i-1} into P.left
+		while (top() != null && (isConflicting(top().left, ei) || isConflicting(top().right, ei))) {
+			ConflictPair Q = S.remove(S.size() - 1);
+			if (isConflicting(Q.right, ei)) {
+				Q.swap();
+			}
+			if (isConflicting(Q.right, ei)) {
+				return false;
+			}
+			//merge interval below lowpt(e_i) into P.right
+			if (P.right.low != NONE) {
+				ref[P.right.low] = Q.right.high;
+			}
+			if (Q.right.low != NONE) {
+				P.right.low = Q.right.low;
+			}
+			if (P.left.isEmpty()) {
+				P.left.high = Q.left.high;
+			}
+			else {
+				ref[P.left.low] = Q.left.high;
+			}
+			P.left.low = Q.left.low;
+		}
+		if (!P.left.isEmpty() || !P.right.isEmpty()) {
+			S.add(P);
+		}
+		return true;
+	}
+
+	private void removeBackEdges(int e) {
+		int u = source[e];
+		//trim back edges ending at parent u: drop entire conflict pairs
+		while (!S.isEmpty() && lowest(top()) == height[u]) {
+			ConflictPair P = S.remove(S.size() - 1);
+			if (P.left.low != NONE) {
+				side[P.left.low] = -1;
+			}
+		}
+		//one more conflict pair to consider
+		if (!S.isEmpty()) {
+			ConflictPair P = S.remove(S.size() - 1);
+			//trim left interval
+			while (P.left.high != NONE && target[P.left.high] == u) {
+				P.left.high = ref[P.left.high];
+			}
+			if (P.left.high == NONE && P.left.low != NONE) {
+				//just emptied
+				ref[P.left.low] = P.right.low;
+				side[P.left.low] = -1;
+				P.left.low = NONE;
+			}
+			//trim right interval
+			while (P.right.high != NONE && target[P.right.high] == u) {
+				P.right.high = ref[P.right.high];
+			}
+			if (P.right.high == NONE && P.right.low != NONE) {
+				//just emptied
+				ref[P.right.low] = P.left.low;
+				side[P.right.low] = -1;
+				P.right.low = NONE;
+			}
+			S.add(P);
+		}
+		//side of e is side of a highest return edge
+		if (lowpt[e] < height[u] && !S.isEmpty()) {
+			int hl = top().left.high;
+			int hr = top().right.high;
+			if (hl != NONE && (hr == NONE || lowpt[hl] > lowpt[hr])) {
+				ref[e] = hl;
+			}
+			else {
+				ref[e] = hr;
+			}
+		}
+	}
+
+	/**
+	 * Phase 3: make the nesting depths signed, order the outgoing edges again and build the rotation system
+	 */
+	private void computeEmbedding() {
+		int n = vertexOf.length;
+		int m = edgeOf.length;
+		int[] chain = new int[m];
+		for (int e = 0; e < m; ++e) {
+			nestingDepth[e] = sign(e, chain) * nestingDepth[e];
+		}
+		sortOutgoingEdgesByNestingDepth();
+
+		cw = new int[2 * m];
+		ccw = new int[2 * m];
+		firstHalfEdge = new int[n];
+		Arrays.fill(firstHalfEdge, NONE);
+		leftRef = new int[n];
+		rightRef = new int[n];
+		for (int v = 0; v < n; ++v) {
+			int previous = NONE;
+			for (int k = outStart[v]; k < outStart[v + 1]; ++k) {
+				int halfEdge = 2 * outEdges[k];
+				addHalfEdgeClockwise(v, halfEdge, previous);
+				previous = halfEdge;
+			}
+		}
+
+		for (int root : roots) {
+			embed(root);
+		}
+	}
+
+	/**
+	 * Iterative version of the recursive sign-function in the paper.
+	 *
+	 * @param e
+	 * @param chain
+	 * 		buffer for the chain of references
+	 * @return
+	 */
+	private int sign(int e, int[] chain) {
+		int length = 0;
+		while (ref[e] != NONE) {
+			chain[length++] = e;
+			e = ref[e];
+		}
+		for (int k = length - 1; k >= 0; --k) {
+			int f = chain[k];
+			side[f] = side[f] * side[ref[f]];
+			ref[f] = NONE;
+		}
+		return length > 0 ? side[chain[0]] : side[e];
+	}
+
+	private void embed(int root) {
+		int[] dfsStack = new int[vertexOf.length];
+		int stackSize = 0;
+		int[] nextIndex = Arrays.copyOf(outStart, vertexOf.length);
+		dfsStack[stackSize++] = root;
+		while (stackSize > 0) {
+			int v = dfsStack[--stackSize];
+			while (nextIndex[v] < outStart[v + 1]) {
+				int ei = outEdges[nextIndex[v]++];
+				int w = target[ei];
+				if (ei == parentEdge[w]) {
+					//tree edge
+					addHalfEdgeFirst(w, 2 * ei + 1);
+					leftRef[v] = 2 * ei;
+					rightRef[v] = 2 * ei;
+					dfsStack[stackSize++] = v;
+					dfsStack[stackSize++] = w;
+					break;
+				}
+				else {
+					//back edge
+					if (side[ei] == 1) {
+						addHalfEdgeClockwise(w, 2 * ei + 1, rightRef[w]);
+					}
+					else {
+						addHalfEdgeCounterClockwise(w, 2 * ei + 1, leftRef[w]);
+						leftRef[w] = 2 * ei + 1;
+					}
+				}
+			}
+		}
+	}
+
+	private void addHalfEdgeClockwise(int v, int halfEdge, int reference) {
+		if (reference == NONE) {
+			cw[halfEdge] = halfEdge;
+			ccw[halfEdge] = halfEdge;
+			firstHalfEdge[v] = halfEdge;
+			return;
+		}
+		int cwReference = cw[reference];
+		cw[reference] = halfEdge;
+		cw[halfEdge] = cwReference;
+		ccw[cwReference] = halfEdge;
+		ccw[halfEdge] = reference;
+	}
+
+	private void addHalfEdgeCounterClockwise(int v, int halfEdge, int reference) {
+		if (reference == NONE) {
+			addHalfEdgeClockwise(v, halfEdge, NONE);
+			return;
+		}
+		addHalfEdgeClockwise(v, halfEdge, ccw[reference]);
+		if (reference == firstHalfEdge[v]) {
+			firstHalfEdge[v] = halfEdge;
+		}
+	}
+
+	private void addHalfEdgeFirst(int v, int halfEdge) {
+		addHalfEdgeCounterClockwise(v, halfEdge, firstHalfEdge[v]);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<V, ArrayList<Pair<V, E>>> getRotationSystem() {
+		Map<V, ArrayList<Pair<V, E>>> rotationSystem = new LinkedHashMap<>(2 * vertexOf.length);
+		for (int v = 0; v < vertexOf.length; ++v) {
+			ArrayList<Pair<V, E>> neighbors = new ArrayList<>(adjStart[v + 1] - adjStart[v]);
+			int first = firstHalfEdge[v];
+			if (first != NONE) {
+				int halfEdge = first;
+				do {
+					int e = halfEdge / 2;
+					int w = halfEdge % 2 == 0 ? target[e] : source[e];
+					neighbors.add(new Pair<>((V) vertexOf[w], (E) edgeOf[e]));
+					halfEdge = cw[halfEdge];
+				} while (halfEdge != first);
+			}
+			rotationSystem.put((V) vertexOf[v], neighbors);
+		}
+		return rotationSystem;
+	}
+
+	private int opposite(int e, int v) {
+		return source[e] == v ? target[e] : source[e];
+	}
+
+	private ConflictPair top() {
+		return S.isEmpty() ? null : S.get(S.size() - 1);
+	}
+
+	private boolean isConflicting(Interval I, int b) {
+		return !I.isEmpty() && lowpt[I.high] > lowpt[b];
+	}
+
+	private int lowest(ConflictPair P) {
+		if (P.left.isEmpty()) {
+			return lowpt[P.right.low];
+		}
+		if (P.right.isEmpty()) {
+			return lowpt[P.left.low];
+		}
+		return Math.min(lowpt[P.left.low], lowpt[P.right.low]);
+	}
+
+	/**
+	 * Interval of return edges (given by its lowest and highest edge)
+	 */
+	private static class Interval {
+		private int low = NONE;
+		private int high = NONE;
+
+		private boolean isEmpty() {
+			return low == NONE && high == NONE;
+		}
+	}
+
+	private static class ConflictPair {
+		private Interval left = new Interval();
+		private Interval right = new Interval();
+
+		private void swap() {
+			Interval temp = left;
+			left = right;
+			right = temp;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package de.uniwue.informatik.algorithms.layout;
 
 import java.awt.Dimension;
 import java.awt.geom.Point2D;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -48,6 +49,17 @@ abstract public class AbstractGridLayout<V, E> implements GridLayout<V,E> {
 	    	}
     });
     
+    /**
+     * Created at the first call of {@link AbstractGridLayout#getSpatialIndex()}, then updated at each
+     * {@link AbstractGridLayout#setLocation(Object, int, int)}
+     */
+    private GridSpatialIndex<V> spatialIndex;
+    /**
+     * {@link EmbeddedUndirectedGraph#getVertexModificationCount()} of the graph when the vertices of
+     * {@link AbstractGridLayout#spatialIndex} were last reconciled with the vertices of the graph
+     */
+    private int vertexModificationCountOfSpatialIndex;
+    
     protected LoadingCache<V, Boolean> visibilityVertices =
     	CacheBuilder.newBuilder().build(new CacheLoader<V, Boolean>() {
 	    	public Boolean load(V vertex) {
@@ -98,6 +110,7 @@ abstract public class AbstractGridLayout<V, E> implements GridLayout<V,E> {
     
     public void setGraph(Graph<V,E> graph) {
         this.graph = graph;
+        this.spatialIndex = null;
         if(graph != null) {
         	initialize();
         }
@@ -120,6 +133,7 @@ abstract public class AbstractGridLayout<V, E> implements GridLayout<V,E> {
 					initializer
 					);
 		this.locations = CacheBuilder.newBuilder().build(CacheLoader.from(chain)); 
+		this.spatialIndex = null;
     	initialized = true;
     }
 
@@ -169,8 +183,7 @@ abstract public class AbstractGridLayout<V, E> implements GridLayout<V,E> {
 	 */
 	protected void offsetVertex(V v, int xOffset, int yOffset) {
 		GridPoint c = getCoordinates(v);
-        c.setLocation(c.getX()+xOffset, c.getY()+yOffset);
-		setLocation(v, c);
+		setLocation(v, c.getX()+xOffset, c.getY()+yOffset);
 	}
 
 	/**
@@ -192,11 +205,64 @@ abstract public class AbstractGridLayout<V, E> implements GridLayout<V,E> {
 	public void setLocation(V picked, int x, int y) {
 		GridPoint coord = getCoordinates(picked);
 		coord.setLocation(x, y);
+		if (spatialIndex != null) {
+			spatialIndex.put(picked, x, y);
+		}
 	}
 
 	public void setLocation(V picked, GridPoint p) {
-		GridPoint coord = getCoordinates(picked);
-		coord.setLocation(p);
+		setLocation(picked, p.getX(), p.getY());
+	}
+	
+	/**
+	 * Spatial index over the vertices of the graph of this layout.
+	 * It is built at the first call and from then on updated by each call of setLocation.
+	 * Vertices that were added to or removed from the graph since the last call are added/removed here.
+	 * For an {@link EmbeddedUndirectedGraph} this is checked if its vertex set was modified since the last
+	 * call (see {@link EmbeddedUndirectedGraph#getVertexModificationCount()}).
+	 * Other graphs do not report modifications, for them it is only checked if the number of vertices changed;
+	 * after removing and adding the same number of vertices, call
+	 * {@link AbstractGridLayout#invalidateSpatialIndex()}. Locations must only be changed via setLocation,
+	 * not by modifying the {@link GridPoint} returned by {@link AbstractGridLayout#apply(Object)}.
+	 * 
+	 * @return
+	 */
+	public GridSpatialIndex<V> getSpatialIndex() {
+		boolean reconcile = true;
+		if (spatialIndex == null) {
+			spatialIndex = new GridSpatialIndex<>();
+		}
+		else if (graph instanceof EmbeddedUndirectedGraph) {
+			reconcile = ((EmbeddedUndirectedGraph<?, ?>) graph).getVertexModificationCount() 
+					!= vertexModificationCountOfSpatialIndex;
+		}
+		else {
+			reconcile = spatialIndex.size() != graph.getVertexCount();
+		}
+		if (reconcile) {
+			for (V v : new ArrayList<>(spatialIndex.getVertices())) {
+				if (!graph.containsVertex(v)) {
+					spatialIndex.remove(v);
+				}
+			}
+			for (V v : graph.getVertices()) {
+				if (!spatialIndex.contains(v)) {
+					spatialIndex.put(v, getX(v), getY(v));
+				}
+			}
+			if (graph instanceof EmbeddedUndirectedGraph) {
+				vertexModificationCountOfSpatialIndex = 
+						((EmbeddedUndirectedGraph<?, ?>) graph).getVertexModificationCount();
+			}
+		}
+		return spatialIndex;
+	}
+
+	/**
+	 * The spatial index is built anew at the next call of {@link AbstractGridLayout#getSpatialIndex()}
+	 */
+	public void invalidateSpatialIndex() {
+		spatialIndex = null;
 	}
 
 	/**
@@ -14,13 +14,15 @@ import org.javatuples.Triplet;
 
 import com.google.common.base.Function;
 
-import edu.uci.ics.jung.algorithms.cluster.BicomponentClusterer;
 import edu.uci.ics.jung.graph.util.Pair;
 import de.uniwue.informatik.graph.embedding.EdgeSide;
 import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.graph.embedding.EmbeddingValidator;
 import de.uniwue.informatik.graph.embedding.Face;
-import de.uniwue.informatik.main.DrawGraphs;
 import de.uniwue.informatik.util.EmbeddedGraphOperations;
+import de.uniwue.informatik.util.GraphElementFactory;
+import de.uniwue.informatik.util.GraphElementFactory.Origin;
+import de.uniwue.informatik.util.PhaseRecorder;
 
 /**
  * This class follows "An Algorithm for Straight-Line Drawing of Planar Graphs" by Harel and Sardas (1995).
@@ -53,17 +55,20 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 	private HashSet<V> allVerticesNotAddedYet = new LinkedHashSet<V>();
 	
 	/**
-	 * See {@link BiconnectedCanonicalOrderer#registerCollectionOfRemovedCrossingEdges(Collection)}
+	 * See {@link BiconnectedCanonicalOrderer#registerCollectionOfRemovedCrossingEdges(Collection, Map, GraphElementFactory)}
 	 * 
 	 * If null it is not used (no insertion of edges and dummy vertices during computation)
 	 */
 	private Collection<Pair<Pair<V>>> removedEdges = null;
 	private Map<V, LinkedList<Pair<Pair<V>>>> vertex2removedEdges;
 	private Map<E, Triplet<E, V, E>> originalEdgesReplacedByASplitEdge;
+	private GraphElementFactory<V, E> elementFactory;
 	
-	public boolean case1 = false;
-	public boolean case2 = false;
-	public boolean case3 = false;
+	/**
+	 * Counters of the last call of {@link BiconnectedCanonicalOrderer#apply(EmbeddedUndirectedGraph)}.
+	 * Always the same object (reset at each call), so it can be registered as MBean once.
+	 */
+	private KiteCaseMetrics kiteCaseMetrics = new KiteCaseMetrics();
 	
 	
 	private ArrayList<V> biconnectedCannonicalOrdering;
@@ -91,7 +96,7 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 	 * If you want to make a biconnected canonical ordering without any modification during the computation
 	 * simply do not call this method (or pass null as parameter-value).
 	 * 
-	 * Works only if type of <V, E> is <VData<String>, String> because vertices (bend points) and dummy edges are inserted. 
+	 * Vertices (bend points, shift vertices) and dummy edges that are inserted are created by the passed factory.
 	 * 
 	 * @param removedEdges
 	 * 		Existing collection of previously crossed edges (represented by their vertex-endpoints). These edges were removed in the graph.
@@ -99,13 +104,20 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 	 * 		Empty data structure (map) in which the edges are noted that were split during the execution of 
 	 * 		{@link BiconnectedCanonicalOrderer#apply(EmbeddedUndirectedGraph)}. The key is the then removed edges and the
 	 * 		target value is the edge-vertex-edge objects that are then there instead of that one original edge.
+	 * @param elementFactory
+	 * 		creates the inserted vertices and edges
 	 * @return this
 	 */
 	public BiconnectedCanonicalOrderer<V, E> registerCollectionOfRemovedCrossingEdges(
-			Collection<Pair<Pair<V>>> removedEdges, Map<E, Triplet<E, V, E>> emptyMapForEdgesReplacedByASplitEdge) {
+			Collection<Pair<Pair<V>>> removedEdges, Map<E, Triplet<E, V, E>> emptyMapForEdgesReplacedByASplitEdge,
+			GraphElementFactory<V, E> elementFactory) {
 		if (removedEdges != null) {		
+			if (elementFactory == null) {
+				throw new IllegalArgumentException("An element factory is needed if removed crossing edges are registered.");
+			}
 			this.removedEdges = removedEdges;
 			this.originalEdgesReplacedByASplitEdge = emptyMapForEdgesReplacedByASplitEdge;
+			this.elementFactory = elementFactory;
 			this.vertex2removedEdges = new LinkedHashMap<>();
 			for (Pair<Pair<V>> removedCrossing : removedEdges) {
 				for (Pair<V> removedEdge : removedCrossing) {
@@ -121,13 +133,44 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 		return this;
 	}
 	
+	/**
+	 * Lets this orderer count into the passed counters instead of its own ones, e.g. to keep counters that are
+	 * already registered as MBean when a new orderer is created for the same drawing.
+	 * 
+	 * @param kiteCaseMetrics
+	 * 		they are reset at each call of {@link BiconnectedCanonicalOrderer#apply(EmbeddedUndirectedGraph)}
+	 * @return this
+	 */
+	public BiconnectedCanonicalOrderer<V, E> useKiteCaseMetrics(KiteCaseMetrics kiteCaseMetrics) {
+		if (kiteCaseMetrics == null) {
+			throw new IllegalArgumentException("The kite case metrics may not be null.");
+		}
+		this.kiteCaseMetrics = kiteCaseMetrics;
+		return this;
+	}
+	
+	/**
+	 * @return
+	 * 		counters of the cases and the inserted elements of the last call of
+	 * 		{@link BiconnectedCanonicalOrderer#apply(EmbeddedUndirectedGraph)} (all 0 if no removed crossing edges
+	 * 		were registered). It is the same object for all calls, i.e., its values are overwritten by the next call.
+	 */
+	public KiteCaseMetrics getKiteCaseMetrics() {
+		return kiteCaseMetrics;
+	}
+	
 	@Override
 	public ArrayList<V> apply(EmbeddedUndirectedGraph<V, E> biconnectedGraph) {
-		assert new BicomponentClusterer<V, E>().apply(biconnectedGraph).size() == 1
-				: "Input graph ("+biconnectedGraph+") is not biconnected. Can not find biconnected canonical ordering.";
-		assert biconnectedGraph.getFaces() != null : "Input graph ("+biconnectedGraph+") has an inconsistent or no embedding.";
+		PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.CANONICAL_ORDERING);
+		
+		//check embedding and biconnectivity (in linear time) only if that is switched on for this graph
+		EmbeddingValidator<V, E> validator = biconnectedGraph.getValidator();
+		if (validator != null && validator.getMode() != EmbeddingValidator.Mode.OFF) {
+			validator.validateBiconnected(biconnectedGraph);
+		}
 		
 		initialize(biconnectedGraph);
+		kiteCaseMetrics.reset();
 		
 		for (int k = 1; k <= biconnectedGraph.getVertexCount(); ++k) {
 			V v_k = null;
@@ -183,9 +226,7 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 				k = handleEmptyAndDividedQuadrangles(biconnectedGraph, k, v_k);
 			}
 		}
-		if (case1 && case2 && case3) {
-			DrawGraphs.allCasesAppear = true;
-		}
+		phase.end(biconnectedGraph);
 		return biconnectedCannonicalOrdering;
 	}
 
@@ -221,7 +262,7 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 				if (isFirstVertex) {
 					//insert dummy edge to make an divided quadrangle out of that empty quadrangle
 					Face<V, E> emptyQuadrangleFace = getEmptyQuadrangleFace(biconnectedGraph, quadrangle);
-					E dummyEdge = (E) ("dummyE_btw._"+v_k+"_"+opposite);
+					E dummyEdge = elementFactory.newEdge(Origin.QUADRANGLE_DUMMY_EDGE);
 					biconnectedGraph.addEdge(dummyEdge, 
 							v_k, biconnectedGraph.getEdgeIndexInEmbeddingList(emptyQuadrangleFace, v_k), 
 							opposite, biconnectedGraph.getEdgeIndexInEmbeddingList(emptyQuadrangleFace, opposite));
@@ -230,13 +271,14 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 					A.put(biconnectedGraph.getLeftIncidentFace(dummyEdge), 0);
 					A.put(biconnectedGraph.getRightIncidentFace(dummyEdge), 0);
 					N.replace(opposite, N.get(opposite) + 1);
+					kiteCaseMetrics.countDummyEdgesAdded(1);
 				}
 				//2. v_k is the last vertex of the quadrangle, the opposite in not the first and the opposite is
 				//   in the underset of one of the two neighbors of v_k
 				if (isLastVertex && lowestIndex < biconnectedCannonicalOrdering.indexOf(opposite) 
 						&& (isDirectlyCoveredBy(opposite, neighborsInQuadrangle.getFirst(), biconnectedGraph, biconnectedCannonicalOrdering) 
 						|| isDirectlyCoveredBy(opposite, neighborsInQuadrangle.getSecond(), biconnectedGraph, biconnectedCannonicalOrdering))) {
-					System.out.println("Case2"); case2 = true;
+					kiteCaseMetrics.countCase2();
 					//Add a dummy shift vertex between the two neighbors of it. Inset it
 					// in the biconn can ordering directly before v_k
 					V leftNeighbor = biconnectedGraph.isDirectPredecessorInEmbeddingList(
@@ -245,9 +287,9 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 					V rightNeighbor = leftNeighbor == neighborsInQuadrangle.getFirst() ?
 							neighborsInQuadrangle.getSecond() : neighborsInQuadrangle.getFirst();
 					Face<V, E> faceForInsertion = biconnectedGraph.getLeftFace(biconnectedGraph.findEdge(v_k, leftNeighbor), v_k);
-					V shiftVertex = (V) new VData<String>("shiftVertexOf_"+leftNeighbor+"+"+rightNeighbor);
-					E dummyEdge0 = (E) ("dummyEdge0_"+shiftVertex);
-					E dummyEdge1 = (E) ("dummyEdge1_"+shiftVertex);
+					V shiftVertex = elementFactory.newVertex(Origin.SHIFT_VERTEX);
+					E dummyEdge0 = elementFactory.newEdge(Origin.SHIFT_VERTEX_EDGE);
+					E dummyEdge1 = elementFactory.newEdge(Origin.SHIFT_VERTEX_EDGE);
 					biconnectedGraph.addVertex(shiftVertex);
 					biconnectedGraph.addEdge(dummyEdge0, shiftVertex, 0, leftNeighbor, 
 							biconnectedGraph.getVertexIndexInEmbeddingList(v_k, leftNeighbor));
@@ -262,6 +304,8 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 					N.put(shiftVertex, 2);
 					//insert new shift vertex in current cannonical order before v_k
 					biconnectedCannonicalOrdering.add(biconnectedCannonicalOrdering.indexOf(v_k), shiftVertex); 
+					kiteCaseMetrics.countShiftVertexInserted();
+					kiteCaseMetrics.countDummyEdgesAdded(2);
 					// -> must increment k by 1; this is the only case where k is changed here
 					++k;
 				}
@@ -270,7 +314,7 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 				else if (isLastVertex && lowestIndex < biconnectedCannonicalOrdering.indexOf(opposite) 
 						&& !isDirectlyCoveredBy(opposite, neighborsInQuadrangle.getFirst(), biconnectedGraph, biconnectedCannonicalOrdering) 
 						&& !isDirectlyCoveredBy(opposite, neighborsInQuadrangle.getSecond(), biconnectedGraph, biconnectedCannonicalOrdering)) {
-					System.out.println("Case3"); case3 = true;
+					kiteCaseMetrics.countCase3();
 					//split edge
 					V vLowest = biconnectedCannonicalOrdering.indexOf(neighborsInQuadrangle.getFirst()) 
 							< biconnectedCannonicalOrdering.indexOf(neighborsInQuadrangle.getSecond()) ?
@@ -282,12 +326,13 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 					Face<V, E> rightOriginalFace = biconnectedGraph.getRightFace(edgeToBeSplit, vLowest);
 					int leftOriginalFaceAValue = A.remove(leftOriginalFace);
 					int rightOriginalFaceAValue = A.remove(rightOriginalFace);
-					V newBendPoint = (V) new VData<String>(VData.VType.BEND_POINT);
-					E firstPart = (E) ("firstPartOf_"+edgeToBeSplit);
-					E secondPart = (E) ("secondPartOf_"+edgeToBeSplit);
-					EmbeddedGraphOperations.splitEdgeViaAVertex(biconnectedGraph, edgeToBeSplit, newBendPoint, 
-							firstPart, secondPart);
-					originalEdgesReplacedByASplitEdge.put(edgeToBeSplit, new Triplet<>(firstPart, newBendPoint, secondPart));
+					Triplet<E, V, E> splitEdge = 
+							EmbeddedGraphOperations.splitEdgeViaANewVertex(biconnectedGraph, edgeToBeSplit, elementFactory);
+					E firstPart = splitEdge.getValue0();
+					V newBendPoint = splitEdge.getValue1();
+					E secondPart = splitEdge.getValue2();
+					originalEdgesReplacedByASplitEdge.put(edgeToBeSplit, splitEdge);
+					kiteCaseMetrics.countEdgeSplit();
 					//update data structures and current canonical ordering (we insert a new vertex!)
 					Face<V, E> leftNewFace = biconnectedGraph.getLeftFace(
 							biconnectedGraph.getEndpoints(firstPart).contains(vLowest) ? firstPart : secondPart, vLowest);
@@ -302,7 +347,7 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 					++k;
 
 					//insert a dummy edge at the spot where we just have split the edge of the quadrangle
-					E dummyEdge = (E) ("dummyE_btw._"+vLowest+"_"+opposite);
+					E dummyEdge = elementFactory.newEdge(Origin.QUADRANGLE_DUMMY_EDGE);
 					int index0 = Math.max(biconnectedGraph.getVertexIndexInEmbeddingList(vSecondHeighest, vLowest),
 							biconnectedGraph.getVertexIndexInEmbeddingList(newBendPoint, vLowest));
 					index0 = index0 == biconnectedGraph.degree(vLowest) - 1  ? 0 : index0;
@@ -322,9 +367,10 @@ public class BiconnectedCanonicalOrderer<V, E> implements Function<EmbeddedUndir
 					A.remove(faceForInsertion);
 					A.put(biconnectedGraph.getLeftIncidentFace(dummyEdge), 3);
 					A.put(biconnectedGraph.getRightIncidentFace(dummyEdge), 3);
+					kiteCaseMetrics.countDummyEdgesAdded(1);
 				}
 				else if (isLastVertex) {
-					System.out.println("Case1"); case1 = true;
+					kiteCaseMetrics.countCase1();
 				}
 			}
 		}
@@ -0,0 +1,363 @@
+package de.uniwue.informatik.algorithms.layout;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Spatial index over the vertices of a grid layout: uniform grid of square buckets of side length
+ * 2^bucketShift, only non-empty buckets are stored (hash map).
+ * <p>
+ * Supports rectangle queries, nearest-vertex queries, occupancy tests of grid points and the bounding box of
+ * all vertices (cached, i.e., O(1) after each update).
+ * Updates (insert/move/remove of a vertex) take O(log n) time (for maintaining the bounding box) plus the
+ * size of the affected buckets.
+ * <p>
+ * Usually obtained via {@link AbstractGridLayout#getSpatialIndex()}, which keeps it up to date.
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ */
+public class GridSpatialIndex<V> {
+
+	public static final int DEFAULT_BUCKET_SHIFT = 4;
+
+	private final int bucketShift;
+
+	private Map<V, GridPoint> positions = new HashMap<>();
+	private Map<Long, Bucket<V>> buckets = new HashMap<>();
+	/**
+	 * Multisets of the x- and y-coordinates of all vertices (coordinate -> number of vertices)
+	 */
+	private TreeMap<Integer, Integer> xCoordinates = new TreeMap<>();
+	private TreeMap<Integer, Integer> yCoordinates = new TreeMap<>();
+	private Rectangle boundingBox;
+
+	public GridSpatialIndex() {
+		this(DEFAULT_BUCKET_SHIFT);
+	}
+
+	/**
+	 * @param bucketShift
+	 * 		the buckets have side length 2^bucketShift
+	 */
+	public GridSpatialIndex(int bucketShift) {
+		if (bucketShift < 0 || bucketShift > 30) {
+			throw new IllegalArgumentException("Bucket shift must be in [0, 30], but is "+bucketShift+".");
+		}
+		this.bucketShift = bucketShift;
+	}
+
+	public int size() {
+		return positions.size();
+	}
+
+	public boolean contains(V v) {
+		return positions.containsKey(v);
+	}
+
+	/**
+	 * @param v
+	 * @return
+	 * 		position of v in this index or null if v is not contained
+	 */
+	public GridPoint getPosition(V v) {
+		return positions.get(v);
+	}
+
+	/**
+	 * Inserts v at (x,y) or moves it there if it is already contained.
+	 */
+	public void put(V v, int x, int y) {
+		GridPoint oldPosition = positions.get(v);
+		if (oldPosition != null) {
+			if (oldPosition.getX() == x && oldPosition.getY() == y) {
+				return;
+			}
+			remove(v);
+		}
+		positions.put(v, new GridPoint(x, y));
+		long key = bucketKey(x >> bucketShift, y >> bucketShift);
+		Bucket<V> bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new Bucket<>();
+			buckets.put(key, bucket);
+		}
+		bucket.add(v, x, y);
+		increment(xCoordinates, x);
+		increment(yCoordinates, y);
+		updateBoundingBox();
+	}
+
+	/**
+	 * @return
+	 * 		true if v was contained
+	 */
+	public boolean remove(V v) {
+		GridPoint position = positions.remove(v);
+		if (position == null) {
+			return false;
+		}
+		long key = bucketKey(position.getX() >> bucketShift, position.getY() >> bucketShift);
+		Bucket<V> bucket = buckets.get(key);
+		bucket.remove(v);
+		if (bucket.size == 0) {
+			buckets.remove(key);
+		}
+		decrement(xCoordinates, position.getX());
+		decrement(yCoordinates, position.getY());
+		updateBoundingBox();
+		return true;
+	}
+
+	public void clear() {
+		positions.clear();
+		buckets.clear();
+		xCoordinates.clear();
+		yCoordinates.clear();
+		boundingBox = null;
+	}
+
+	/**
+	 * @return
+	 * 		smallest rectangle containing all vertices (width and height are the differences of the extreme
+	 * 		coordinates) or null if the index is empty. Must not be modified.
+	 */
+	public Rectangle getBoundingBox() {
+		return boundingBox;
+	}
+
+	public boolean isOccupied(int x, int y) {
+		Bucket<V> bucket = buckets.get(bucketKey(x >> bucketShift, y >> bucketShift));
+		if (bucket != null) {
+			for (int i = 0; i < bucket.size; i++) {
+				if (bucket.xs[i] == x && bucket.ys[i] == y) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public List<V> getVerticesAt(int x, int y) {
+		return getVerticesIn(x, y, x, y);
+	}
+
+	/**
+	 * @return
+	 * 		all vertices v with xMin <= x(v) <= xMax and yMin <= y(v) <= yMax
+	 */
+	public List<V> getVerticesIn(int xMin, int yMin, int xMax, int yMax) {
+		List<V> result = new ArrayList<>();
+		if (xMin > xMax || yMin > yMax || boundingBox == null) {
+			return result;
+		}
+		//clip to the bounding box
+		xMin = Math.max(xMin, boundingBox.x);
+		yMin = Math.max(yMin, boundingBox.y);
+		xMax = Math.min(xMax, boundingBox.x + boundingBox.width);
+		yMax = Math.min(yMax, boundingBox.y + boundingBox.height);
+		if (xMin > xMax || yMin > yMax) {
+			return result;
+		}
+		int bxMin = xMin >> bucketShift, bxMax = xMax >> bucketShift;
+		int byMin = yMin >> bucketShift, byMax = yMax >> bucketShift;
+		long numberOfBuckets = ((long) bxMax - bxMin + 1) * ((long) byMax - byMin + 1);
+		if (numberOfBuckets > buckets.size()) {
+			//fewer non-empty buckets than buckets in the rectangle
+			for (Map.Entry<Long, Bucket<V>> bucket : buckets.entrySet()) {
+				int bx = bucketX(bucket.getKey());
+				int by = bucketY(bucket.getKey());
+				if (bxMin <= bx && bx <= bxMax && byMin <= by && by <= byMax) {
+					addVerticesIn(bucket.getValue(), xMin, yMin, xMax, yMax, result);
+				}
+			}
+			return result;
+		}
+		for (int bx = bxMin; bx <= bxMax; bx++) {
+			for (int by = byMin; by <= byMax; by++) {
+				Bucket<V> bucket = buckets.get(bucketKey(bx, by));
+				if (bucket != null) {
+					addVerticesIn(bucket, xMin, yMin, xMax, yMax, result);
+				}
+			}
+		}
+		return result;
+	}
+
+	private void addVerticesIn(Bucket<V> bucket, int xMin, int yMin, int xMax, int yMax, List<V> result) {
+		for (int i = 0; i < bucket.size; i++) {
+			if (xMin <= bucket.xs[i] && bucket.xs[i] <= xMax && yMin <= bucket.ys[i] && bucket.ys[i] <= yMax) {
+				result.add(bucket.vertices.get(i));
+			}
+		}
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @param maxDistance
+	 * 		only vertices with at most this Euclidean distance to (x,y) are considered
+	 * @return
+	 * 		vertex closest to (x,y) or null if there is none within maxDistance.
+	 * 		Among several closest vertices, any is returned.
+	 */
+	public V getNearestVertex(double x, double y, double maxDistance) {
+		if (boundingBox == null) {
+			return null;
+		}
+		int bucketSideLength = 1 << bucketShift;
+		int bx = (int) Math.floor(x) >> bucketShift;
+		int by = (int) Math.floor(y) >> bucketShift;
+		//number of rings needed to cover the bounding box
+		long maxRing = Math.max(Math.max(Math.abs((long) bx - (boundingBox.x >> bucketShift)),
+				Math.abs((long) bx - ((boundingBox.x + boundingBox.width) >> bucketShift))),
+				Math.max(Math.abs((long) by - (boundingBox.y >> bucketShift)),
+				Math.abs((long) by - ((boundingBox.y + boundingBox.height) >> bucketShift))));
+		//vertices within maxDistance are at most this number of rings away
+		maxRing = Math.min(maxRing, 
+				(long) Math.min(Math.ceil(maxDistance / bucketSideLength) + 1, Integer.MAX_VALUE));
+		V nearest = null;
+		double nearestDistanceSquared = maxDistance * maxDistance;
+		double numberOfBucketsInRings = (2.0 * maxRing + 1) * (2.0 * maxRing + 1);
+		if (numberOfBucketsInRings > buckets.size()) {
+			//fewer non-empty buckets than buckets in the rings
+			for (Map.Entry<Long, Bucket<V>> entry : buckets.entrySet()) {
+				Bucket<V> bucket = entry.getValue();
+				if (distanceSquaredToBucket(x, y, bucketX(entry.getKey()), bucketY(entry.getKey())) 
+						> nearestDistanceSquared) {
+					continue;
+				}
+				for (int k = 0; k < bucket.size; k++) {
+					double distanceSquared = (bucket.xs[k] - x) * (bucket.xs[k] - x) 
+							+ (bucket.ys[k] - y) * (bucket.ys[k] - y);
+					if (distanceSquared <= nearestDistanceSquared) {
+						nearest = bucket.vertices.get(k);
+						nearestDistanceSquared = distanceSquared;
+					}
+				}
+			}
+			return nearest;
+		}
+		for (int ring = 0; ring <= maxRing; ring++) {
+			//each point in a bucket of this ring has distance at least (ring - 1) * bucketSideLength
+			double lowerBound = Math.max(0, ring - 1) * (double) bucketSideLength;
+			if (lowerBound * lowerBound > nearestDistanceSquared) {
+				break;
+			}
+			for (int i = -ring; i <= ring; i++) {
+				for (int j = -ring; j <= ring; j += (i == -ring || i == ring) ? 1 : 2 * ring) {
+					Bucket<V> bucket = buckets.get(bucketKey(bx + i, by + j));
+					if (bucket == null || distanceSquaredToBucket(x, y, bx + i, by + j) > nearestDistanceSquared) {
+						continue;
+					}
+					for (int k = 0; k < bucket.size; k++) {
+						double distanceSquared = (bucket.xs[k] - x) * (bucket.xs[k] - x) 
+								+ (bucket.ys[k] - y) * (bucket.ys[k] - y);
+						if (distanceSquared <= nearestDistanceSquared) {
+							nearest = bucket.vertices.get(k);
+							nearestDistanceSquared = distanceSquared;
+						}
+					}
+					if (ring == 0) {
+						break;
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	private double distanceSquaredToBucket(double x, double y, int bx, int by) {
+		double xMin = (double) bx * (1 << bucketShift), xMax = xMin + (1 << bucketShift) - 1;
+		double yMin = (double) by * (1 << bucketShift), yMax = yMin + (1 << bucketShift) - 1;
+		double dx = x < xMin ? xMin - x : (x > xMax ? x - xMax : 0);
+		double dy = y < yMin ? yMin - y : (y > yMax ? y - yMax : 0);
+		return dx * dx + dy * dy;
+	}
+
+	private void updateBoundingBox() {
+		if (positions.isEmpty()) {
+			boundingBox = null;
+			return;
+		}
+		int xMin = xCoordinates.firstKey(), yMin = yCoordinates.firstKey();
+		boundingBox = new Rectangle(xMin, yMin, xCoordinates.lastKey() - xMin, yCoordinates.lastKey() - yMin);
+	}
+
+	/**
+	 * The lower half of the key is mixed with the upper half, so that {@link Long#hashCode()} (xor of both halves)
+	 * spreads neighboring buckets
+	 */
+	private static long bucketKey(int bx, int by) {
+		return ((long) by << 32) | ((bx ^ (by * 0x9E3779B1)) & 0xffffffffL);
+	}
+
+	private static int bucketX(long key) {
+		return (int) key ^ (bucketY(key) * 0x9E3779B1);
+	}
+
+	private static int bucketY(long key) {
+		return (int) (key >> 32);
+	}
+
+	private static void increment(TreeMap<Integer, Integer> multiset, int value) {
+		Integer count = multiset.get(value);
+		multiset.put(value, count == null ? 1 : count + 1);
+	}
+
+	private static void decrement(TreeMap<Integer, Integer> multiset, int value) {
+		int count = multiset.get(value);
+		if (count == 1) {
+			multiset.remove(value);
+		}
+		else {
+			multiset.put(value, count - 1);
+		}
+	}
+
+	/**
+	 * @return
+	 * 		all vertices in this index
+	 */
+	public Collection<V> getVertices() {
+		return positions.keySet();
+	}
+
+	/**
+	 * Vertices of one bucket with their coordinates in arrays (no lookup of the positions while scanning)
+	 */
+	private static class Bucket<V> {
+		private ArrayList<V> vertices = new ArrayList<>(4);
+		private int[] xs = new int[4];
+		private int[] ys = new int[4];
+		private int size = 0;
+
+		private void add(V v, int x, int y) {
+			if (size == xs.length) {
+				xs = Arrays.copyOf(xs, 2 * size);
+				ys = Arrays.copyOf(ys, 2 * size);
+			}
+			vertices.add(v);
+			xs[size] = x;
+			ys[size] = y;
+			++size;
+		}
+
+		private void remove(V v) {
+			int i = vertices.indexOf(v);
+			--size;
+			//move the last entry to position i
+			vertices.set(i, vertices.get(size));
+			vertices.remove(size);
+			xs[i] = xs[size];
+			ys[i] = ys[size];
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package de.uniwue.informatik.algorithms.layout;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -18,9 +19,12 @@ import org.javatuples.Triplet;
 
 import com.google.common.base.Function;
 
-import de.uniwue.informatik.algorithms.layout.VData.VType;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
 import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.util.GraphElementFactory;
+import de.uniwue.informatik.util.GraphElementFactory.Origin;
+import de.uniwue.informatik.util.PhaseRecorder;
 
 /**
  * 
@@ -41,8 +45,19 @@ import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
  */
 public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements IterativeContext {
 	
+	/**
+	 * Number of steps reported together as one {@link PhaseRecorder.Phase#SHIFT_STEPS} phase
+	 */
+	public static final int STEP_BATCH_SIZE = 1024;
+	
 	protected int iteration = 0;
 	
+	/**
+	 * The current batch of steps, see {@link HarelSardas#STEP_BATCH_SIZE}
+	 */
+	private PhaseRecorder stepBatch;
+	private int firstIterationOfStepBatch;
+	
 	protected ArrayList<V> biconnectedCanonicalOrdering;
 	protected Map<V, Integer> biconnectedCanonicalOrderingIndices;
 	
@@ -52,7 +67,7 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 	
 	/**
 	 * Data structure filled via execution of {@link BiconnectedCanonicalOrderer#apply(EmbeddedUndirectedGraph)}
-	 * if {@link BiconnectedCanonicalOrderer#registerCollectionOfRemovedCrossingEdges(Collection, Map)} was called,
+	 * if {@link BiconnectedCanonicalOrderer#registerCollectionOfRemovedCrossingEdges(Collection, Map, GraphElementFactory)} was called,
 	 * thus if in one of the constructors of that class an
 	 * Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges was passed.
 	 * 
@@ -61,27 +76,43 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 	 */
 	public Map<E, Triplet<E, V, E>> originalEdgesReplacedByASplitEdge;
 	
+	/**
+	 * Counters of the computation of the biconnected canonical ordering, see {@link KiteCaseMetrics}.
+	 * The same object is used for each (re-)initialization.
+	 */
+	protected final KiteCaseMetrics kiteCaseMetrics = new KiteCaseMetrics();
+	
 	/**
 	 * This is the set of vertices assigned to each vertex.
 	 * Same naming as in the paper. See there for more information
 	 */
 	protected Map<V, Set<V>> L;
 	
+	/**
+	 * Creates the vertices and edges inserted into the graph.
+	 * Only needed if removed crossing edges are passed (NIC-planar case).
+	 */
+	protected GraphElementFactory<V, E> elementFactory;
+	
 	public HarelSardas(EmbeddedUndirectedGraph<V, E> graph, Function<V, GridPoint> initializer, 
-			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges) {
+			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges,
+			GraphElementFactory<V, E> elementFactory) {
 		super(graph, initializer);
 		this.graph = graph;
+		this.elementFactory = elementFactory;
 		initialize(removedEdges);
 	}
 	
 	public HarelSardas(EmbeddedUndirectedGraph<V, E> graph) {
-		this(graph, null);
+		this(graph, null, null);
 	}
 
 	public HarelSardas(EmbeddedUndirectedGraph<V, E> graph, 
-			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges) {
+			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges,
+			GraphElementFactory<V, E> elementFactory) {
 		super(graph);
 		this.graph = graph;
+		this.elementFactory = elementFactory;
 		initialize(removedEdges);
 	}
 
@@ -93,8 +124,10 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 	public void initialize(Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges) {
 		reset();
 		originalEdgesReplacedByASplitEdge = new LinkedHashMap<>();
-		biconnectedCanonicalOrdering = new BiconnectedCanonicalOrderer<V, E>()
-				.registerCollectionOfRemovedCrossingEdges(removedEdges, originalEdgesReplacedByASplitEdge).apply(this.graph);
+		BiconnectedCanonicalOrderer<V, E> biconnectedCanonicalOrderer = new BiconnectedCanonicalOrderer<V, E>()
+				.registerCollectionOfRemovedCrossingEdges(removedEdges, originalEdgesReplacedByASplitEdge, elementFactory)
+				.useKiteCaseMetrics(kiteCaseMetrics);
+		biconnectedCanonicalOrdering = biconnectedCanonicalOrderer.apply(this.graph);
 		biconnectedCanonicalOrderingIndices = new HashMap<>(biconnectedCanonicalOrdering.size());
 		for (int i = 0; i < biconnectedCanonicalOrdering.size(); ++i) {
 			biconnectedCanonicalOrderingIndices.put(biconnectedCanonicalOrdering.get(i), i);
@@ -107,10 +140,12 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 	@Override
 	public void reset() {
 		iteration = 0;
+		stepBatch = null;
 		biconnectedCanonicalOrdering = null;
 		biconnectedCanonicalOrderingIndices = null;
 		currentContour = null;
 		originalEdgesReplacedByASplitEdge = null;
+		kiteCaseMetrics.reset();
 		L = null;
 		
 		resetVisibility();
@@ -127,6 +162,10 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 
 	@Override
 	public void step() {
+		if (stepBatch == null) {
+			stepBatch = PhaseRecorder.begin(PhaseRecorder.Phase.SHIFT_STEPS);
+			firstIterationOfStepBatch = iteration;
+		}
 		int k = iteration;
 		if (iteration == 0) {
 			setLocation(v(0), 0, 0);
@@ -226,6 +265,14 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 			}
 		}
 		++iteration;
+		if (iteration - firstIterationOfStepBatch == STEP_BATCH_SIZE || done()) {
+			stepBatch.end(graph, iteration - firstIterationOfStepBatch);
+			stepBatch = null;
+		}
+	}
+
+	public KiteCaseMetrics getKiteCaseMetrics() {
+		return kiteCaseMetrics;
 	}
 
 	@Override
@@ -278,103 +325,257 @@ public class HarelSardas<V, E> extends AbstractGridLayout<V, E> implements Itera
 	
 	
 	/**
-	 * Does only work if this of type <VData<String>, String>
+	 * Needs the element factory passed to the constructor (it creates bend points, crossing points and edge parts
+	 * and knows the shift vertices)
 	 * 
 	 * @param removedEdges
 	 */
 	public void reinsertCrossingEdgesInNICplanarCase(
 			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges) {
+		PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.CROSSING_REINSERTION);
 		
 		//remove all shiftVertices
 		for (V v : new ArrayList<>(graph.getVertices())) {
-			if (((VData<String>) v).getV() != null && ((VData<String>) v).getV().startsWith("shiftVertex")) {
+			if (elementFactory.getVertexOrigin(v) == Origin.SHIFT_VERTEX) {
 				graph.removeVertex(v);
 			}
 		}
 		
 		//insert all crossing edges
 		for (edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>> quadrangle : removedEdges) {
-			//assign vertices
-			V vA, vB, vC, vD;
-			if (graph.isNeighbor(quadrangle.getFirst().getFirst(), quadrangle.getFirst().getSecond())) {
-				vA = index(quadrangle.getFirst().getFirst()) < index(quadrangle.getFirst().getSecond()) ? 
-						quadrangle.getFirst().getFirst() : quadrangle.getFirst().getSecond();
-				vC = vA == quadrangle.getFirst().getFirst() ? quadrangle.getFirst().getSecond() : quadrangle.getFirst().getFirst();
-			}
-			else {
-				vA = index(quadrangle.getSecond().getFirst()) < index(quadrangle.getSecond().getSecond()) ? 
-						quadrangle.getSecond().getFirst() : quadrangle.getSecond().getSecond();
-				vC = vA == quadrangle.getSecond().getFirst() ? quadrangle.getSecond().getSecond() : quadrangle.getSecond().getFirst();
-			}
-			int indexOfAAtC = graph.getVertexIndexInEmbeddingList(vA, vC);
-			vD = graph.getNeighborsInEmbeddingOrder(vC).get((indexOfAAtC - 1 + graph.degree(vC)) % graph.degree(vC)).getValue0();
-			vB = graph.getNeighborsInEmbeddingOrder(vC).get((indexOfAAtC + 1) % graph.degree(vC)).getValue0();
-						
+			CrossingEdgePair p = computeCrossingEdgePair(quadrangle);
+			V vA = p.vA, vB = p.vB, vC = p.vC, vD = p.vD, vLower = p.vLower;
+			
 			//remove dummy edge, insert bend points and the crossing point. Edges between them follow in the following case distinction
-			V vLower = apply(vB).getY() < apply(vD).getY() ? vB : vD;
-			boolean vCCoversVLower = BiconnectedCanonicalOrderer.isDirectlyCoveredBy(vLower, vC, graph, biconnectedCanonicalOrdering);
 			graph.removeEdge(graph.findEdge(vA, vC));
-			V bendAC = (V) new VData<String>(VType.BEND_POINT);
-			V bendBD = (V) new VData<String>(VType.BEND_POINT);
-			V crossingPoint = (V) new VData<String>(VType.CROSSING_POINT);
+			V bendAC = elementFactory.newVertex(Origin.BEND_POINT);
+			V bendBD = elementFactory.newVertex(Origin.BEND_POINT);
+			V crossingPoint = elementFactory.newVertex(Origin.CROSSING_POINT);
 			graph.addVertex(bendAC);
 			graph.addVertex(bendBD);
 			graph.addVertex(crossingPoint);
+			setLocation(crossingPoint, p.crossingPoint);
+			setLocation(bendAC, p.bendAC);
+			setLocation(bendBD, p.bendBD);
 			int embeddingOrderIndexA = graph.isNeighbor(vA, vB) ? graph.getVertexIndexInEmbeddingList(vB, vA) + 1 
 					: graph.getVertexIndexInEmbeddingList(vD, vA);
 			int embeddingOrderIndexB = graph.getVertexIndexInEmbeddingList(vC, vB) + 1;
 			int embeddingOrderIndexC = graph.getVertexIndexInEmbeddingList(vB, vC);
 			int embeddingOrderIndexD = graph.getVertexIndexInEmbeddingList(vC, vD);
-			String eAC = "e_"+vA+"_"+vC;
-			String eBD = "e_"+vB+"_"+vD;
 			
-			//find positions for bend points and crossing points and insert edges
-			if (index(vC) > index(vB) && index(vC) > index(vD)) {
-				//Case 1
-				setLocation(crossingPoint, getX(vA), getY(vLower));
-				setLocation(bendAC, getX(vA), getY(vLower) + 1);
-				setLocation(bendBD, vLower == vB ? getX(vA) - 1 : getX(vA) + 1, getY(vLower));
-				graph.addEdge((E) ("firstPartOf_"+eAC), vA, embeddingOrderIndexA, crossingPoint, 0);
-				graph.addEdge((E) ("secondPartOf_"+eAC), crossingPoint, 1, bendAC, 0);
-				graph.addEdge((E) ("thirdPartOf_"+eAC), bendAC, 1, vC, embeddingOrderIndexC);
+			//insert edges; each part knows the removed edge it belongs to
+			edu.uci.ics.jung.graph.util.Pair<V> removedAC = new edu.uci.ics.jung.graph.util.Pair<>(vA, vC);
+			edu.uci.ics.jung.graph.util.Pair<V> removedBD = new edu.uci.ics.jung.graph.util.Pair<>(vB, vD);
+			if (p.crossingCase == 1) {
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedAC), vA, embeddingOrderIndexA, crossingPoint, 0);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedAC), crossingPoint, 1, bendAC, 0);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedAC), bendAC, 1, vC, embeddingOrderIndexC);
 			}
 			else {
-				//Case 2 or 3
-				if (vCCoversVLower) {
-					//Case 2
-					int xCross = vLower == vB ? (getX(vC) - getY(vC) + getX(vLower) + getY(vLower)) / 2 
-							: (getX(vC) + getY(vC) + getX(vLower) - getY(vLower)) / 2;
-					int yCross = vLower == vB ? (-getX(vC) + getY(vC) + getX(vLower) + getY(vLower)) / 2 
-							: (getX(vC) + getY(vC) - getX(vLower) + getY(vLower)) / 2;
-					setLocation(crossingPoint, xCross, yCross);
-					setLocation(bendAC, vLower == vB ? xCross - 1 : xCross + 1, yCross - 1);
-					setLocation(bendBD, vLower == vB ? xCross - 1 : xCross + 1, yCross + 1);
-				}
-				else {
-					//Case 3
-					setLocation(crossingPoint, getX(vC), getY(vLower));
-					setLocation(bendAC, getX(vC), getY(vLower) - 1);
-					setLocation(bendBD, vLower == vB ? getX(vC) - (getY(vC) - getY(vB)) : getX(vC) + (getY(vC) - getY(vD)), getY(vLower));
-				}
-				graph.addEdge((E) ("firstPartOf_"+eAC), vA, embeddingOrderIndexA, bendAC, 0);
-				graph.addEdge((E) ("secondPartOf_"+eAC), bendAC, 1, crossingPoint, 0);
-				graph.addEdge((E) ("thirdPartOf_"+eAC), crossingPoint, 1, vC, embeddingOrderIndexC);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedAC), vA, embeddingOrderIndexA, bendAC, 0);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedAC), bendAC, 1, crossingPoint, 0);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedAC), crossingPoint, 1, vC, embeddingOrderIndexC);
 			}
 			//in all cases
 			if (vLower == vB) {
-				graph.addEdge((E) ("firstPartOf_"+eBD), vB, embeddingOrderIndexB, crossingPoint, 1);
-				graph.addEdge((E) ("secondPartOf_"+eBD), crossingPoint, 3, bendBD, 0);
-				graph.addEdge((E) ("thirdPartOf_"+eBD), bendBD, 1, vD, embeddingOrderIndexD);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedBD), vB, embeddingOrderIndexB, crossingPoint, 1);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedBD), crossingPoint, 3, bendBD, 0);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedBD), bendBD, 1, vD, embeddingOrderIndexD);
 			}
 			else {
-				graph.addEdge((E) ("firstPartOf_"+eBD), vB, embeddingOrderIndexB, bendBD, 0);
-				graph.addEdge((E) ("secondPartOf_"+eBD), bendBD, 1, crossingPoint, 1);
-				graph.addEdge((E) ("thirdPartOf_"+eBD), crossingPoint, 3, vD, embeddingOrderIndexD);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedBD), vB, embeddingOrderIndexB, bendBD, 0);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedBD), bendBD, 1, crossingPoint, 1);
+				graph.addEdge(elementFactory.newEdge(Origin.CROSSING_EDGE_PART, removedBD), crossingPoint, 3, vD, embeddingOrderIndexD);
 			}
 			//in Case 3 we additionally have to remove the dummy edge (a, v_lower)
-			if (!(index(vC) > index(vB) && index(vC) > index(vD)) && !vCCoversVLower) {
+			if (p.crossingCase == 3) {
 				graph.removeEdge(graph.findEdge(vA, vLower));
 			}
 		}
+		phase.end(graph);
+	}
+	
+	/**
+	 * Alternative to {@link HarelSardas#reinsertCrossingEdgesInNICplanarCase(Collection)}:
+	 * Instead of inserting bend points and crossing points as vertices, a {@link PolylineLayout} is created.
+	 * It contains the vertices and edges of the input graph (without dummy objects) at their current positions.
+	 * Edges that were split via bend points are polylines again and
+	 * each removed pair of crossing edges is re-inserted as two new edges with two bends each, one of them is the
+	 * crossing point (at the same positions as in {@link HarelSardas#reinsertCrossingEdgesInNICplanarCase(Collection)}).
+	 * <p>
+	 * Dummy objects are recognized via the element factory passed to the constructor.
+	 * Like in {@link HarelSardas#reinsertCrossingEdgesInNICplanarCase(Collection)} the shift vertices are removed
+	 * from the graph of this layout, besides that it is not changed.
+	 * 
+	 * @param removedEdges
+	 * @return
+	 */
+	public PolylineLayout<V, E> createPolylineLayout(
+			Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>>> removedEdges) {
+		PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.CROSSING_REINSERTION);
+		
+		//remove all shiftVertices
+		for (V v : new ArrayList<>(graph.getVertices())) {
+			if (elementFactory.getVertexOrigin(v) == Origin.SHIFT_VERTEX) {
+				graph.removeVertex(v);
+			}
+		}
+		//positions of the crossing edges
+		ArrayList<CrossingEdgePair> crossingEdgePairs = new ArrayList<>(removedEdges.size());
+		for (edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>> quadrangle : removedEdges) {
+			crossingEdgePairs.add(computeCrossingEdgePair(quadrangle));
+		}
+		
+		UndirectedSparseGraph<V, E> polylineGraph = new UndirectedSparseGraph<>();
+		PolylineLayout<V, E> polylineLayout = new PolylineLayout<>(polylineGraph);
+		for (V v : graph.getVertices()) {
+			if (elementFactory.getVertexOrigin(v) == null) {
+				polylineGraph.addVertex(v);
+				polylineLayout.setLocation(v, getX(v), getY(v));
+			}
+		}
+		//collapse each chain of split edges (starting at an original vertex) to one polyline
+		Set<E> edgesDone = new HashSet<>();
+		for (E e : graph.getEdges()) {
+			if (edgesDone.contains(e) || isDummyEdge(e)) {
+				continue;
+			}
+			V start = graph.getEndpoints(e).getFirst();
+			if (!polylineGraph.containsVertex(start)) {
+				start = graph.getEndpoints(e).getSecond();
+				if (!polylineGraph.containsVertex(start)) {
+					//inner part of a chain, will be handled from its start
+					continue;
+				}
+			}
+			int[] bendCoordinates = new int[0];
+			E current = e;
+			V next = graph.getOpposite(start, e);
+			edgesDone.add(e);
+			while (!polylineGraph.containsVertex(next)) {
+				bendCoordinates = Arrays.copyOf(bendCoordinates, bendCoordinates.length + 2);
+				bendCoordinates[bendCoordinates.length - 2] = getX(next);
+				bendCoordinates[bendCoordinates.length - 1] = getY(next);
+				E following = null;
+				for (E incidentEdge : graph.getIncidentEdges(next)) {
+					if (!incidentEdge.equals(current) && !isDummyEdge(incidentEdge)) {
+						following = incidentEdge;
+					}
+				}
+				if (following == null) {
+					throw new IllegalStateException("The chain of split edges starting at "+start+" ends at the "
+							+ "inserted vertex "+next+", which has no further incident edge that is not a dummy edge.");
+				}
+				edgesDone.add(following);
+				next = graph.getOpposite(next, following);
+				current = following;
+			}
+			E polylineEdge = elementFactory.getOriginalEdge(e);
+			polylineGraph.addEdge(polylineEdge, start, next);
+			polylineLayout.setBends(polylineEdge, bendCoordinates);
+		}
+		//re-insert crossing edges
+		for (CrossingEdgePair p : crossingEdgePairs) {
+			//the crossing point is a bend of both edges
+			E eAC = elementFactory.newEdge(Origin.CROSSING_EDGE, new edu.uci.ics.jung.graph.util.Pair<>(p.vA, p.vC));
+			polylineGraph.addEdge(eAC, p.vA, p.vC);
+			polylineLayout.setBends(eAC, p.crossingCase == 1 ? toBendCoordinates(p.crossingPoint, p.bendAC) 
+					: toBendCoordinates(p.bendAC, p.crossingPoint));
+			E eBD = elementFactory.newEdge(Origin.CROSSING_EDGE, new edu.uci.ics.jung.graph.util.Pair<>(p.vB, p.vD));
+			polylineGraph.addEdge(eBD, p.vB, p.vD);
+			polylineLayout.setBends(eBD, p.vLower == p.vB ? toBendCoordinates(p.crossingPoint, p.bendBD) 
+					: toBendCoordinates(p.bendBD, p.crossingPoint));
+			if (p.crossingCase == 3 && polylineGraph.findEdge(p.vA, p.vLower) != null) {
+				polylineGraph.removeEdge(polylineGraph.findEdge(p.vA, p.vLower));
+			}
+		}
+		phase.end(polylineGraph);
+		return polylineLayout;
+	}
+	
+	private static int[] toBendCoordinates(GridPoint first, GridPoint second) {
+		return new int[] {first.getX(), first.getY(), second.getX(), second.getY()};
+	}
+	
+	private boolean isDummyEdge(E edge) {
+		Origin origin = elementFactory.getOrigin(elementFactory.getOriginalEdge(edge));
+		return origin == Origin.KITE_DUMMY_EDGE || origin == Origin.STAR_DUMMY_EDGE 
+				|| origin == Origin.QUADRANGLE_DUMMY_EDGE || origin == Origin.SHIFT_VERTEX_EDGE;
+	}
+	
+	/**
+	 * Vertices and positions of one pair of crossing edges that is re-inserted.
+	 * Edge (a, c) and edge (b, d) cross; a is before c in the biconnected canonical ordering.
+	 */
+	private class CrossingEdgePair {
+		private V vA, vB, vC, vD;
+		/**
+		 * The lower one of b and d
+		 */
+		private V vLower;
+		/**
+		 * 1: c is after b and d in the biconnected canonical ordering,
+		 * 2: c directly covers the lower one of b and d,
+		 * 3: otherwise
+		 */
+		private int crossingCase;
+		private GridPoint crossingPoint;
+		private GridPoint bendAC;
+		private GridPoint bendBD;
+	}
+	
+	private CrossingEdgePair computeCrossingEdgePair(
+			edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<V>> quadrangle) {
+		CrossingEdgePair p = new CrossingEdgePair();
+		//assign vertices
+		V vA, vB, vC, vD;
+		if (graph.isNeighbor(quadrangle.getFirst().getFirst(), quadrangle.getFirst().getSecond())) {
+			vA = index(quadrangle.getFirst().getFirst()) < index(quadrangle.getFirst().getSecond()) ? 
+					quadrangle.getFirst().getFirst() : quadrangle.getFirst().getSecond();
+			vC = vA == quadrangle.getFirst().getFirst() ? quadrangle.getFirst().getSecond() : quadrangle.getFirst().getFirst();
+		}
+		else {
+			vA = index(quadrangle.getSecond().getFirst()) < index(quadrangle.getSecond().getSecond()) ? 
+					quadrangle.getSecond().getFirst() : quadrangle.getSecond().getSecond();
+			vC = vA == quadrangle.getSecond().getFirst() ? quadrangle.getSecond().getSecond() : quadrangle.getSecond().getFirst();
+		}
+		int indexOfAAtC = graph.getVertexIndexInEmbeddingList(vA, vC);
+		vD = graph.getNeighborsInEmbeddingOrder(vC).get((indexOfAAtC - 1 + graph.degree(vC)) % graph.degree(vC)).getValue0();
+		vB = graph.getNeighborsInEmbeddingOrder(vC).get((indexOfAAtC + 1) % graph.degree(vC)).getValue0();
+		V vLower = apply(vB).getY() < apply(vD).getY() ? vB : vD;
+		p.vA = vA;
+		p.vB = vB;
+		p.vC = vC;
+		p.vD = vD;
+		p.vLower = vLower;
+		
+		//find positions for bend points and crossing points
+		if (index(vC) > index(vB) && index(vC) > index(vD)) {
+			//Case 1
+			p.crossingCase = 1;
+			p.crossingPoint = new GridPoint(getX(vA), getY(vLower));
+			p.bendAC = new GridPoint(getX(vA), getY(vLower) + 1);
+			p.bendBD = new GridPoint(vLower == vB ? getX(vA) - 1 : getX(vA) + 1, getY(vLower));
+		}
+		else if (BiconnectedCanonicalOrderer.isDirectlyCoveredBy(vLower, vC, graph, biconnectedCanonicalOrdering)) {
+			//Case 2
+			p.crossingCase = 2;
+			int xCross = vLower == vB ? (getX(vC) - getY(vC) + getX(vLower) + getY(vLower)) / 2 
+					: (getX(vC) + getY(vC) + getX(vLower) - getY(vLower)) / 2;
+			int yCross = vLower == vB ? (-getX(vC) + getY(vC) + getX(vLower) + getY(vLower)) / 2 
+					: (getX(vC) + getY(vC) - getX(vLower) + getY(vLower)) / 2;
+			p.crossingPoint = new GridPoint(xCross, yCross);
+			p.bendAC = new GridPoint(vLower == vB ? xCross - 1 : xCross + 1, yCross - 1);
+			p.bendBD = new GridPoint(vLower == vB ? xCross - 1 : xCross + 1, yCross + 1);
+		}
+		else {
+			//Case 3
+			p.crossingCase = 3;
+			p.crossingPoint = new GridPoint(getX(vC), getY(vLower));
+			p.bendAC = new GridPoint(getX(vC), getY(vLower) - 1);
+			p.bendBD = new GridPoint(vLower == vB ? getX(vC) - (getY(vC) - getY(vB)) : getX(vC) + (getY(vC) - getY(vD)), 
+					getY(vLower));
+		}
+		return p;
 	}
 }
@@ -0,0 +1,136 @@
+package de.uniwue.informatik.algorithms.layout;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters of one run of {@link BiconnectedCanonicalOrderer#apply} with registered
+ * removed crossing edges (NIC-planar case): how often each of the three cases of handling a quadrangle when its last
+ * vertex is added occurred (see the article) and how many elements were inserted for that.
+ * <p>
+ * The counters are only written by the thread computing the ordering; they can be read at any time, e.g. via JMX
+ * after {@link KiteCaseMetrics#registerMBean(String)}.
+ * They are reset at the beginning of each run, so the same object (and a registered MBean) can be kept for
+ * multiple runs; it then shows the counters of the current or last run.
+ *
+ * @author Johannes
+ *
+ */
+public class KiteCaseMetrics implements KiteCaseMetricsMXBean {
+
+	/**
+	 * Case 1: the opposite vertex is the first vertex of the quadrangle, nothing is inserted
+	 */
+	private volatile int case1Count = 0;
+	/**
+	 * Case 2: the opposite vertex is directly covered by a neighbor, a shift vertex is inserted
+	 */
+	private volatile int case2Count = 0;
+	/**
+	 * Case 3: the opposite vertex is not directly covered by a neighbor, an edge of the quadrangle is split
+	 */
+	private volatile int case3Count = 0;
+	private volatile int shiftVerticesInserted = 0;
+	private volatile int edgesSplit = 0;
+	private volatile int dummyEdgesAdded = 0;
+
+	/**
+	 * Sets all counters to 0, called at the beginning of each run
+	 */
+	void reset() {
+		case1Count = 0;
+		case2Count = 0;
+		case3Count = 0;
+		shiftVerticesInserted = 0;
+		edgesSplit = 0;
+		dummyEdgesAdded = 0;
+	}
+
+	void countCase1() {
+		++case1Count;
+	}
+
+	void countCase2() {
+		++case2Count;
+	}
+
+	void countCase3() {
+		++case3Count;
+	}
+
+	void countShiftVertexInserted() {
+		++shiftVerticesInserted;
+	}
+
+	void countEdgeSplit() {
+		++edgesSplit;
+	}
+
+	void countDummyEdgesAdded(int numberOfDummyEdges) {
+		dummyEdgesAdded += numberOfDummyEdges;
+	}
+
+	@Override
+	public int getCase1Count() {
+		return case1Count;
+	}
+
+	@Override
+	public int getCase2Count() {
+		return case2Count;
+	}
+
+	@Override
+	public int getCase3Count() {
+		return case3Count;
+	}
+
+	@Override
+	public int getShiftVerticesInserted() {
+		return shiftVerticesInserted;
+	}
+
+	@Override
+	public int getEdgesSplit() {
+		return edgesSplit;
+	}
+
+	/**
+	 * Dummy edges dividing an empty quadrangle and the edges to the shift vertices
+	 */
+	@Override
+	public int getDummyEdgesAdded() {
+		return dummyEdgesAdded;
+	}
+
+	public boolean allCasesAppear() {
+		return case1Count > 0 && case2Count > 0 && case3Count > 0;
+	}
+
+	/**
+	 * Makes these counters readable via JMX (e.g. in JConsole) in the platform MBean server.
+	 *
+	 * @param name
+	 * 		distinguishes this run from other runs, it becomes the key "name" of the object name
+	 * @return
+	 * 		object name under which this is registered, pass it to
+	 * 		{@link javax.management.MBeanServer#unregisterMBean(ObjectName)} when the run is no longer of interest
+	 * @throws JMException
+	 * 		if the name is malformed or already registered
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+		ObjectName objectName = new ObjectName("de.uniwue.informatik:type=KiteCaseMetrics,name="
+				+ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+
+	@Override
+	public String toString() {
+		return "case 1: "+case1Count+", case 2: "+case2Count+", case 3: "+case3Count
+				+", shift vertices inserted: "+shiftVerticesInserted+", edges split: "+edgesSplit
+				+", dummy edges added: "+dummyEdgesAdded;
+	}
+}
@@ -0,0 +1,22 @@
+package de.uniwue.informatik.algorithms.layout;
+
+/**
+ * JMX view of {@link KiteCaseMetrics}
+ *
+ * @author Johannes
+ *
+ */
+public interface KiteCaseMetricsMXBean {
+
+	int getCase1Count();
+
+	int getCase2Count();
+
+	int getCase3Count();
+
+	int getShiftVerticesInserted();
+
+	int getEdgesSplit();
+
+	int getDummyEdgesAdded();
+}
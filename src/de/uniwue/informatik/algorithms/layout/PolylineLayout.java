@@ -0,0 +1,174 @@
+package de.uniwue.informatik.algorithms.layout;
+
+import java.awt.Dimension;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.javatuples.Triplet;
+
+import de.uniwue.informatik.util.DrawingVerifier;
+import edu.uci.ics.jung.algorithms.layout.AbstractLayout;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * Grid layout in which each edge is a polyline.
+ * Unlike in {@link PseudoComplexLayout} bend points are no vertices of the graph, but each edge carries an array of
+ * the coordinates of its bends. Crossings are not stored at all, they can be computed via
+ * {@link PolylineLayout#computeCrossings()}.
+ * <p>
+ * The bends of an edge are ordered from the first to the second endpoint of that edge
+ * (as given by {@link Graph#getEndpoints(Object)}).
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class PolylineLayout<V, E> extends AbstractGridLayout<V, E> {
+
+	private static final int[] NO_BENDS = new int[0];
+
+	/**
+	 * Coordinates of the bends of each edge with at least one bend: x_0, y_0, x_1, y_1, ...
+	 */
+	private Map<E, int[]> bends = new HashMap<>();
+
+	public PolylineLayout(Graph<V, E> graph) {
+		super(graph);
+	}
+
+	@Override
+	public void initialize() {
+		//locations and bends are set from outside
+	}
+
+	@Override
+	public void reset() {
+		bends.clear();
+	}
+
+	/**
+	 * @param edge
+	 * @param bendCoordinates
+	 * 		x_0, y_0, x_1, y_1, ... ordered from the first to the second endpoint of the edge.
+	 * 		The array is stored and not copied.
+	 */
+	public void setBends(E edge, int[] bendCoordinates) {
+		if (bendCoordinates == null || bendCoordinates.length == 0) {
+			bends.remove(edge);
+			return;
+		}
+		if (bendCoordinates.length % 2 != 0) {
+			throw new IllegalArgumentException("Bend coordinates must be pairs of x- and y-coordinates, but "
+					+ bendCoordinates.length+" values were passed for edge "+edge+".");
+		}
+		bends.put(edge, bendCoordinates);
+	}
+
+	/**
+	 * @param edge
+	 * @return
+	 * 		x_0, y_0, x_1, y_1, ... of the bends of that edge (must not be modified)
+	 */
+	public int[] getBends(E edge) {
+		int[] bendCoordinates = bends.get(edge);
+		return bendCoordinates == null ? NO_BENDS : bendCoordinates;
+	}
+
+	public int getNumberOfBends(E edge) {
+		return getBends(edge).length / 2;
+	}
+
+	public int getTotalNumberOfBends() {
+		int numberOfBends = 0;
+		for (int[] bendCoordinates : bends.values()) {
+			numberOfBends += bendCoordinates.length / 2;
+		}
+		return numberOfBends;
+	}
+
+	/**
+	 * @param edge
+	 * @return
+	 * 		x_0, y_0, x_1, y_1, ... of all points of that edge: first endpoint, bends, second endpoint
+	 */
+	public int[] getPolyline(E edge) {
+		Pair<V> endpoints = graph.getEndpoints(edge);
+		int[] bendCoordinates = getBends(edge);
+		int[] polyline = new int[bendCoordinates.length + 4];
+		polyline[0] = getX(endpoints.getFirst());
+		polyline[1] = getY(endpoints.getFirst());
+		System.arraycopy(bendCoordinates, 0, polyline, 2, bendCoordinates.length);
+		polyline[polyline.length - 2] = getX(endpoints.getSecond());
+		polyline[polyline.length - 1] = getY(endpoints.getSecond());
+		return polyline;
+	}
+
+	/**
+	 * Computes all points where two distinct edges cross (a common point of two of their segments).
+	 * Common endpoints of both edges (vertices) are not counted, but a common bend (e.g. a crossing point that is
+	 * a bend of both edges) is. Each point is reported once per pair of edges.
+	 * The crossings are found by the sweep of {@link DrawingVerifier} (see there for details, e.g. on overlapping
+	 * edges).
+	 *
+	 * @return
+	 * 		edge, other edge, crossing point
+	 */
+	public List<Triplet<E, E, Point2D.Double>> computeCrossings() {
+		List<Triplet<E, E, Point2D.Double>> crossings = new ArrayList<>();
+		for (DrawingVerifier.Crossing<E> crossing : DrawingVerifier.forPolylineLayout(this).getCrossings()) {
+			crossings.add(new Triplet<>(crossing.getEdge(), crossing.getOtherEdge(), crossing.getPoint()));
+		}
+		return crossings;
+	}
+
+	/**
+	 * The graph of a polyline layout is in general not planar, so it is copied as plain
+	 * {@link UndirectedSparseGraph} (keeping the order of the endpoints of each edge).
+	 * The bends are not part of the returned layout, get them from this layout.
+	 */
+	@Override
+	public AbstractLayout<V, E> transformToFloatingPointLayout(Dimension size) {
+		UndirectedSparseGraph<V, E> newGraph = new UndirectedSparseGraph<>();
+		for (V v : graph.getVertices()) {
+			if (visibilityVertices.getUnchecked(v)) {
+				newGraph.addVertex(v);
+			}
+		}
+		for (E e : graph.getEdges()) {
+			Pair<V> endpoints = graph.getEndpoints(e);
+			if (visibilityEdges.getUnchecked(e) && newGraph.containsVertex(endpoints.getFirst())
+					&& newGraph.containsVertex(endpoints.getSecond())) {
+				newGraph.addEdge(e, endpoints.getFirst(), endpoints.getSecond());
+			}
+		}
+
+		AbstractLayout<V,E> transformedLayout = new AbstractLayout<V, E>(newGraph) {
+
+			@Override
+			public void initialize() {
+				//do nothing
+			}
+
+			@Override
+			public void reset() {
+				//do nothing
+			}
+		};
+
+		for (V v : newGraph.getVertices()) {
+			transformedLayout.setLocation(v, this.apply(v).transform2Point2D());
+		}
+
+		if (size != null) {
+			transformedLayout.setSize(size);
+		}
+
+		return transformedLayout;
+	}
+}
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import org.javatuples.Triplet;
@@ -77,6 +78,15 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
      */
     protected Map<E, Pair<Face<V, E>>> incidentFaces;
     protected Face<V,E> outerFace;
+    /**
+     * If not null, it is informed after each successful insertion or removal of an edge.
+     * It is not copied by the copy-constructor.
+     */
+    private EmbeddingValidator<V, E> validator = null;
+    /**
+     * Increased at each successful insertion or removal of a vertex.
+     */
+    private int vertexModificationCount = 0;
 
 	/**
      * Creates an instance.
@@ -126,6 +136,145 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
     	}
     }
 
+	/**
+	 * Bulk construction of an embedded graph from a complete rotation system.
+	 * <p>
+	 * Instead of inserting the edges one after another via
+	 * {@link EmbeddedUndirectedGraph#addEdge(Object, Object, int, Object, int)}
+	 * (where every insertion splits a face), all adjacency lists are taken as they are and all faces are traced
+	 * once afterwards. This takes time linear in the size of the graph.
+	 * <p>
+	 * The orderings must be consistent, i.e., each edge must appear exactly once in the list of each of its
+	 * two endpoints. The quasi-direction of an edge (see {@link EmbeddedUndirectedGraph#edges}) is from the vertex
+	 * where it is encountered first (in iteration order of the passed map) to the other endpoint.
+	 * All edges must be in a single component (isolated vertices are allowed).
+	 * The face with the most edges becomes the outer face; it can be changed by
+	 * {@link EmbeddedUndirectedGraph#setOuterFace(Face)} afterwards.
+	 *
+	 * @param rotationSystem
+	 * 		maps each vertex to its incident (neighbor, edge)-pairs in embedding order
+	 * @return
+	 * 		new embedded graph
+	 * @throws IllegalArgumentException
+	 * 		if the passed rotation system is not consistent or its edges are not in a single component
+	 */
+	public static <V, E> EmbeddedUndirectedGraph<V, E> fromRotationSystem(
+			Map<V, ? extends List<org.javatuples.Pair<V, E>>> rotationSystem) {
+		EmbeddedUndirectedGraph<V, E> graph = new EmbeddedUndirectedGraph<>();
+
+		//adjacency lists and quasi-directions of the edges
+		//for each edge: index in the list of its first endpoint, index in the list of its second endpoint
+		Map<E, int[]> indicesAtEndpoints = new HashMap<>();
+		for (Map.Entry<V, ? extends List<org.javatuples.Pair<V, E>>> entry : rotationSystem.entrySet()) {
+			V v = entry.getKey();
+			if (v == null) {
+				throw new IllegalArgumentException("vertex may not be null");
+			}
+			ArrayList<org.javatuples.Pair<V, E>> adjacencyList = new ArrayList<>(entry.getValue());
+			graph.vertices.put(v, adjacencyList);
+			for (int i = 0; i < adjacencyList.size(); ++i) {
+				V w = adjacencyList.get(i).getValue0();
+				E e = adjacencyList.get(i).getValue1();
+				if (v.equals(w)) {
+					throw new IllegalArgumentException("Self-loop "+e+" at vertex "+v+" is not supported.");
+				}
+				int[] indices = indicesAtEndpoints.get(e);
+				if (indices == null) {
+					graph.edges.put(e, new Pair<V>(v, w));
+					indicesAtEndpoints.put(e, new int[] {i, -1});
+				}
+				else if (indices[1] == -1 && graph.edges.get(e).getFirst().equals(w)
+						&& graph.edges.get(e).getSecond().equals(v)) {
+					indices[1] = i;
+				}
+				else {
+					throw new IllegalArgumentException("Edge "+e+" appears inconsistently in the rotation system "
+							+ "(again at vertex "+v+" towards "+w+").");
+				}
+			}
+		}
+		for (Map.Entry<E, int[]> entry : indicesAtEndpoints.entrySet()) {
+			if (entry.getValue()[1] == -1) {
+				throw new IllegalArgumentException("Edge "+entry.getKey()+" appears only at one of its endpoints "
+						+ "in the rotation system.");
+			}
+		}
+
+		//trace all faces. A face is traversed such that it lies on the left side. Coming from u to v, the traversal
+		//continues with the predecessor of u in the embedding list of v.
+		Map<E, Face<V, E>[]> facesOfEdges = new HashMap<>();
+		Face<V, E> largestFace = null;
+		for (E startEdge : graph.edges.keySet()) {
+			for (EdgeSide startSide : EdgeSide.values()) {
+				Face<V, E>[] facesOfStartEdge = facesOfEdges.get(startEdge);
+				if (facesOfStartEdge != null && facesOfStartEdge[startSide.ordinal()] != null) {
+					continue;
+				}
+				Face<V, E> face = new Face<>();
+				E e = startEdge;
+				EdgeSide side = startSide;
+				do {
+					Pair<V> endpoints = graph.edges.get(e);
+					face.add(new Triplet<>(e, side, endpoints));
+					Face<V, E>[] facesOfE = facesOfEdges.get(e);
+					if (facesOfE == null) {
+						@SuppressWarnings({"unchecked", "rawtypes"})
+						Face<V, E>[] newArray = new Face[2];
+						facesOfE = newArray;
+						facesOfEdges.put(e, facesOfE);
+					}
+					facesOfE[side.ordinal()] = face;
+
+					V head = side == EdgeSide.LEFT ? endpoints.getSecond() : endpoints.getFirst();
+					int indexAtHead = indicesAtEndpoints.get(e)[side == EdgeSide.LEFT ? 1 : 0];
+					ArrayList<org.javatuples.Pair<V, E>> adjacencyListOfHead = graph.vertices.get(head);
+					e = adjacencyListOfHead.get((indexAtHead - 1 + adjacencyListOfHead.size()) % adjacencyListOfHead.size())
+							.getValue1();
+					side = graph.edges.get(e).getFirst().equals(head) ? EdgeSide.LEFT : EdgeSide.RIGHT;
+				} while (!e.equals(startEdge) || side != startSide);
+
+				if (largestFace == null || face.size() > largestFace.size()) {
+					largestFace = face;
+				}
+			}
+		}
+		for (Map.Entry<E, Face<V, E>[]> entry : facesOfEdges.entrySet()) {
+			graph.incidentFaces.put(entry.getKey(), new Pair<>(entry.getValue()[0], entry.getValue()[1]));
+		}
+		if (largestFace != null) {
+			graph.outerFace = largestFace;
+		}
+
+		//all edges must be in one component
+		if (!graph.edges.isEmpty() && countComponentsWithEdges(graph) > 1) {
+			throw new IllegalArgumentException("The edges of the rotation system are not in a single component.");
+		}
+
+		return graph;
+	}
+
+	private static <V, E> int countComponentsWithEdges(EmbeddedUndirectedGraph<V, E> graph) {
+		HashSet<V> visited = new HashSet<>();
+		LinkedList<V> stack = new LinkedList<>();
+		int components = 0;
+		for (V start : graph.vertices.keySet()) {
+			if (graph.vertices.get(start).isEmpty() || !visited.add(start)) {
+				continue;
+			}
+			++components;
+			stack.push(start);
+			while (!stack.isEmpty()) {
+				V v = stack.pop();
+				for (org.javatuples.Pair<V, E> neighbor : graph.vertices.get(v)) {
+					if (visited.add(neighbor.getValue0())) {
+						stack.push(neighbor.getValue0());
+					}
+				}
+			}
+		}
+		return components;
+	}
+
     /**
      * This appends that edge to the end of the ordered edge-lists of both endpoints.
      * Order of the incident edges (clock-wise or counter-clock-wise) around a vertex is relevant for an embedding
@@ -188,6 +337,7 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
     		incidentFaces.put(edge, new Pair<>(outerFace, outerFace));
     		vertices.get(v1).add(new org.javatuples.Pair<>(v2, edge));
     		vertices.get(v2).add(new org.javatuples.Pair<>(v1, edge));
+    		notifyValidator();
     		return true;
         }
         
@@ -241,6 +391,7 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
 	        vertices.get(v2).add(embeddingOrderIndexAtEndPoint2, new org.javatuples.Pair<>(v1, edge));
         }
         
+        notifyValidator();
         return true;
     }
 
@@ -533,12 +684,22 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
         }
         if (!containsVertex(vertex)) {
             vertices.put(vertex, new ArrayList<org.javatuples.Pair<V,E>>());
+            ++vertexModificationCount;
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * @return
+     * 		number of successful insertions and removals of vertices so far (not counting the vertices of the
+     * 		copy-constructor); if it did not change, the vertex set did not change
+     */
+    public int getVertexModificationCount() {
+    	return vertexModificationCount;
+    }
+
     public boolean removeVertex(V vertex)
     {
         if (!containsVertex(vertex))
@@ -551,6 +712,7 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
         }
         
         vertices.remove(vertex);
+        ++vertexModificationCount;
         return true;
     }
 
@@ -579,6 +741,7 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
         
         edges.remove(edge);
         
+        notifyValidator();
         return true;
     }
     
@@ -592,6 +755,25 @@ public class EmbeddedUndirectedGraph<V, E> extends AbstractTypedGraph<V, E>
     	}
     }
 
+    private void notifyValidator() {
+    	if (validator != null) {
+    		validator.mutationPerformed(this);
+    	}
+    }
+
+    public EmbeddingValidator<V, E> getValidator() {
+		return validator;
+	}
+
+    /**
+     * @param validator
+     * 		validator that checks this graph after insertions and removals of edges (depending on its mode)
+     * 		or null for no validation
+     */
+	public void setValidator(EmbeddingValidator<V, E> validator) {
+		this.validator = validator;
+	}
+
     public Face<V, E> getOuterFace() {
 		return outerFace;
 	}
@@ -0,0 +1,396 @@
+package de.uniwue.informatik.graph.embedding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.javatuples.Triplet;
+
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * Checks the consistency of an {@link EmbeddedUndirectedGraph} in time linear in its size.
+ * It replaces assertions that are too expensive for large inputs (e.g. computing all bicomponents) and can be
+ * switched on per run.
+ * <p>
+ * Checked are:
+ * <ul>
+ * <li>each edge appears exactly once in the embedding list of each of its two endpoints,</li>
+ * <li>each side of each edge lies in exactly one face, that face is the one registered as its incident face, and
+ * the faces are the ones defined by the rotation system (coming from u to v a face continues with the edge
+ * preceding u in the embedding list of v),</li>
+ * <li>the outer face is one of the faces,</li>
+ * <li>Euler's formula (the edges must be in a single component),</li>
+ * <li>optionally biconnectivity (see {@link EmbeddingValidator#validateBiconnected(EmbeddedUndirectedGraph)}),</li>
+ * <li>optionally the NIC-planarity precondition on the crossing vertices
+ * (see {@link EmbeddingValidator#requireNICPlanarity(Collection)}).</li>
+ * </ul>
+ * If it is registered at a graph via {@link EmbeddedUndirectedGraph#setValidator(EmbeddingValidator)}, it is called
+ * after each successful insertion or removal of an edge and validates depending on its {@link Mode}.
+ * A violation is reported as {@link IllegalStateException}.
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class EmbeddingValidator<V, E> {
+
+	public enum Mode {
+		/**
+		 * Never validate after a mutation (explicit calls of validate still work)
+		 */
+		OFF,
+		/**
+		 * Validate after each mutation
+		 */
+		EVERY_MUTATION,
+		/**
+		 * Validate after every k-th mutation where k is the sampling interval
+		 */
+		SAMPLED
+	}
+
+	private Mode mode;
+	private int samplingInterval;
+	private long mutationCounter = 0;
+	/**
+	 * If null, the NIC-planarity precondition is not checked
+	 */
+	private Collection<V> crossingVertices = null;
+
+	/**
+	 * @param mode
+	 * @param samplingInterval
+	 * 		only relevant for {@link Mode#SAMPLED}: validate after each samplingInterval-th mutation
+	 */
+	public EmbeddingValidator(Mode mode, int samplingInterval) {
+		if (mode == null) {
+			throw new IllegalArgumentException("mode may not be null");
+		}
+		if (samplingInterval < 1) {
+			throw new IllegalArgumentException("Sampling interval must be positive, but is "+samplingInterval+".");
+		}
+		this.mode = mode;
+		this.samplingInterval = samplingInterval;
+	}
+
+	public EmbeddingValidator(Mode mode) {
+		this(mode, 1);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public int getSamplingInterval() {
+		return samplingInterval;
+	}
+
+	public long getMutationCount() {
+		return mutationCounter;
+	}
+
+	/**
+	 * Additionally check at every validation that the passed crossing vertices have degree at most 4, that the
+	 * neighbors of each of them are distinct and that each two crossing vertices have at most one neighbor in
+	 * common (NIC = nearly independent crossings).
+	 * A degree below 4 is accepted because crossing vertices are removed edge by edge
+	 * (see {@link de.uniwue.informatik.util.CrossingRemovalFor1PlanarGraphs}).
+	 * Crossing vertices that are no longer in the graph are ignored.
+	 *
+	 * @param crossingVertices
+	 * 		pass null to switch off that check
+	 * @return
+	 * 		this
+	 */
+	public EmbeddingValidator<V, E> requireNICPlanarity(Collection<V> crossingVertices) {
+		this.crossingVertices = crossingVertices;
+		return this;
+	}
+
+	/**
+	 * Is called by the graph after each successful mutation
+	 *
+	 * @param graph
+	 */
+	void mutationPerformed(EmbeddedUndirectedGraph<V, E> graph) {
+		++mutationCounter;
+		if (mode == Mode.EVERY_MUTATION || (mode == Mode.SAMPLED && mutationCounter % samplingInterval == 0)) {
+			validate(graph);
+		}
+	}
+
+	/**
+	 * @param graph
+	 * @throws IllegalStateException
+	 * 		if the graph or its embedding is inconsistent
+	 */
+	public void validate(EmbeddedUndirectedGraph<V, E> graph) {
+		String violation = findViolation(graph, false);
+		if (violation != null) {
+			throw new IllegalStateException(violation);
+		}
+	}
+
+	/**
+	 * Like {@link EmbeddingValidator#validate(EmbeddedUndirectedGraph)} and additionally checks that the graph is
+	 * biconnected
+	 *
+	 * @param graph
+	 * @throws IllegalStateException
+	 * 		if the graph or its embedding is inconsistent or the graph is not biconnected
+	 */
+	public void validateBiconnected(EmbeddedUndirectedGraph<V, E> graph) {
+		String violation = findViolation(graph, true);
+		if (violation != null) {
+			throw new IllegalStateException(violation);
+		}
+	}
+
+	/**
+	 * @param graph
+	 * @param requireBiconnectivity
+	 * @return
+	 * 		description of the first violation found or null if there is none
+	 */
+	public String findViolation(EmbeddedUndirectedGraph<V, E> graph, boolean requireBiconnectivity) {
+		//rotation system: index of each edge in the embedding list of its first and its second endpoint
+		Map<E, int[]> indicesAtEndpoints = new HashMap<>(2 * graph.edges.size());
+		int verticesWithEdges = 0;
+		for (Map.Entry<V, ArrayList<org.javatuples.Pair<V, E>>> entry : graph.vertices.entrySet()) {
+			V v = entry.getKey();
+			ArrayList<org.javatuples.Pair<V, E>> adjacencyList = entry.getValue();
+			if (!adjacencyList.isEmpty()) {
+				++verticesWithEdges;
+			}
+			for (int i = 0; i < adjacencyList.size(); ++i) {
+				V w = adjacencyList.get(i).getValue0();
+				E e = adjacencyList.get(i).getValue1();
+				Pair<V> endpoints = graph.edges.get(e);
+				if (endpoints == null) {
+					return "Edge "+e+" in the embedding list of "+v+" is not in the graph.";
+				}
+				int position;
+				if (endpoints.getFirst().equals(v) && endpoints.getSecond().equals(w)) {
+					position = 0;
+				}
+				else if (endpoints.getSecond().equals(v) && endpoints.getFirst().equals(w)) {
+					position = 1;
+				}
+				else {
+					return "Edge "+e+" with endpoints "+endpoints+" is in the embedding list of "+v+" towards "+w+".";
+				}
+				int[] indices = indicesAtEndpoints.get(e);
+				if (indices == null) {
+					indices = new int[] {-1, -1};
+					indicesAtEndpoints.put(e, indices);
+				}
+				if (indices[position] != -1) {
+					return "Edge "+e+" appears more than once in the embedding list of "+v+".";
+				}
+				indices[position] = i;
+			}
+		}
+		for (E e : graph.edges.keySet()) {
+			int[] indices = indicesAtEndpoints.get(e);
+			if (indices == null || indices[0] == -1 || indices[1] == -1) {
+				return "Edge "+e+" is missing in the embedding list of an endpoint.";
+			}
+		}
+
+		//faces
+		IdentityHashMap<Face<V, E>, Boolean> faces = new IdentityHashMap<>();
+		for (E e : graph.edges.keySet()) {
+			Pair<Face<V, E>> incidentFaces = graph.incidentFaces.get(e);
+			if (incidentFaces == null || incidentFaces.getFirst() == null || incidentFaces.getSecond() == null) {
+				return "Edge "+e+" has no incident faces.";
+			}
+			faces.put(incidentFaces.getFirst(), true);
+			faces.put(incidentFaces.getSecond(), true);
+		}
+		int sidesInFaces = 0;
+		for (Face<V, E> face : faces.keySet()) {
+			if (face.isEmpty()) {
+				return "There is an empty face.";
+			}
+			for (int i = 0; i < face.size(); ++i) {
+				Triplet<E, EdgeSide, Pair<V>> current = face.get(i);
+				E e = current.getValue0();
+				EdgeSide side = current.getValue1();
+				Pair<Face<V, E>> incidentFaces = graph.incidentFaces.get(e);
+				if (incidentFaces == null) {
+					return "Face "+face+" contains edge "+e+" that is not in the graph.";
+				}
+				if ((side == EdgeSide.LEFT ? incidentFaces.getFirst() : incidentFaces.getSecond()) != face) {
+					return "Face "+face+" contains the "+side+" side of edge "+e+", but that is not its incident face there.";
+				}
+				//the next edge must be the one preceding the current one at its head in the rotation system
+				Pair<V> endpoints = graph.edges.get(e);
+				V head = side == EdgeSide.LEFT ? endpoints.getSecond() : endpoints.getFirst();
+				ArrayList<org.javatuples.Pair<V, E>> adjacencyListOfHead = graph.vertices.get(head);
+				int indexAtHead = indicesAtEndpoints.get(e)[side == EdgeSide.LEFT ? 1 : 0];
+				E expectedNext = adjacencyListOfHead.get((indexAtHead - 1 + adjacencyListOfHead.size())
+						% adjacencyListOfHead.size()).getValue1();
+				EdgeSide expectedSide = graph.edges.get(expectedNext).getFirst().equals(head) ? EdgeSide.LEFT : EdgeSide.RIGHT;
+				Triplet<E, EdgeSide, Pair<V>> next = face.get((i + 1) % face.size());
+				if (!next.getValue0().equals(expectedNext) || next.getValue1() != expectedSide) {
+					return "Face "+face+" continues after edge "+e+" at vertex "+head+" with edge "+next.getValue0()
+							+", but the rotation system demands edge "+expectedNext+".";
+				}
+				++sidesInFaces;
+			}
+		}
+		if (sidesInFaces != 2 * graph.edges.size()) {
+			return "The faces contain "+sidesInFaces+" edge sides, but there are "+2 * graph.edges.size()+".";
+		}
+		if (!graph.edges.isEmpty() && !faces.containsKey(graph.outerFace)) {
+			return "The outer face "+graph.outerFace+" is not a face of the graph.";
+		}
+
+		//Euler's formula (for one component with edges plus isolated vertices)
+		if (!graph.edges.isEmpty() && verticesWithEdges - graph.edges.size() + faces.size() != 2) {
+			return "Euler's formula is violated: "+verticesWithEdges+" non-isolated vertices, "+graph.edges.size()
+					+" edges and "+faces.size()+" faces.";
+		}
+
+		if (requireBiconnectivity) {
+			String violation = findBiconnectivityViolation(graph);
+			if (violation != null) {
+				return violation;
+			}
+		}
+		if (crossingVertices != null) {
+			String violation = findNICViolation(graph);
+			if (violation != null) {
+				return violation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Iterative depth-first search computing lowpoints
+	 */
+	private String findBiconnectivityViolation(EmbeddedUndirectedGraph<V, E> graph) {
+		int n = graph.vertices.size();
+		if (n < 3) {
+			return "Graph has only "+n+" vertices and is therefore not biconnected.";
+		}
+		Map<V, Integer> number = new HashMap<>(2 * n);
+		Map<V, Integer> lowpoint = new HashMap<>(2 * n);
+		Map<V, Integer> nextIndex = new HashMap<>(2 * n);
+		ArrayList<V> stack = new ArrayList<>();
+		ArrayList<V> parents = new ArrayList<>();
+		V root = graph.vertices.keySet().iterator().next();
+		int childrenOfRoot = 0;
+		number.put(root, 0);
+		lowpoint.put(root, 0);
+		nextIndex.put(root, 0);
+		stack.add(root);
+		parents.add(null);
+		while (!stack.isEmpty()) {
+			V v = stack.get(stack.size() - 1);
+			V parent = parents.get(parents.size() - 1);
+			ArrayList<org.javatuples.Pair<V, E>> adjacencyList = graph.vertices.get(v);
+			int index = nextIndex.get(v);
+			if (index < adjacencyList.size()) {
+				nextIndex.put(v, index + 1);
+				V w = adjacencyList.get(index).getValue0();
+				if (!number.containsKey(w)) {
+					number.put(w, number.size());
+					lowpoint.put(w, number.get(w));
+					nextIndex.put(w, 0);
+					stack.add(w);
+					parents.add(v);
+					if (v == root) {
+						++childrenOfRoot;
+					}
+				}
+				else if (!w.equals(parent)) {
+					lowpoint.put(v, Math.min(lowpoint.get(v), number.get(w)));
+				}
+			}
+			else {
+				stack.remove(stack.size() - 1);
+				parents.remove(parents.size() - 1);
+				if (parent != null) {
+					lowpoint.put(parent, Math.min(lowpoint.get(parent), lowpoint.get(v)));
+					if (parent != root && lowpoint.get(v) >= number.get(parent)) {
+						return "Graph is not biconnected: "+parent+" is a cut vertex.";
+					}
+				}
+			}
+		}
+		if (number.size() < n) {
+			return "Graph is not biconnected: it is not connected.";
+		}
+		if (childrenOfRoot > 1) {
+			return "Graph is not biconnected: "+root+" is a cut vertex.";
+		}
+		return null;
+	}
+
+	/**
+	 * Two kites share more than one vertex iff they share a pair of vertices. So each of the 6 pairs of the at most 4
+	 * vertices of each kite is bucketed once, which takes linear time.
+	 */
+	private String findNICViolation(EmbeddedUndirectedGraph<V, E> graph) {
+		Map<UnorderedPair<V>, V> pair2crossing = new HashMap<>();
+		for (V crossingVertex : crossingVertices) {
+			if (!graph.containsVertex(crossingVertex)) {
+				continue;
+			}
+			ArrayList<org.javatuples.Pair<V, E>> adjacencyList = graph.vertices.get(crossingVertex);
+			if (adjacencyList.size() > 4) {
+				return "Crossing vertex "+crossingVertex+" has degree "+adjacencyList.size()+" instead of 4.";
+			}
+			for (int i = 0; i < adjacencyList.size(); ++i) {
+				V v = adjacencyList.get(i).getValue0();
+				for (int j = 0; j < i; ++j) {
+					V w = adjacencyList.get(j).getValue0();
+					if (v.equals(w)) {
+						return "Crossing vertex "+crossingVertex+" is adjacent to "+v+" twice.";
+					}
+					V otherCrossingVertex = pair2crossing.put(new UnorderedPair<>(v, w), crossingVertex);
+					if (otherCrossingVertex != null) {
+						return "The kites of the crossing vertices "+crossingVertex+" and "+otherCrossingVertex
+								+" share more than one vertex (not NIC-planar).";
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private static class UnorderedPair<V> {
+		private final V first;
+		private final V second;
+
+		private UnorderedPair(V first, V second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public int hashCode() {
+			return first.hashCode() + second.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof UnorderedPair)) {
+				return false;
+			}
+			UnorderedPair<?> other = (UnorderedPair<?>) o;
+			return (first.equals(other.first) && second.equals(other.second))
+					|| (first.equals(other.second) && second.equals(other.first));
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package de.uniwue.informatik.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import de.uniwue.informatik.algorithms.conflicts.ShardedConflictSweep;
+
+/**
+ * Worker process of a {@link ShardedConflictSweep}: computes shards of the job in the work directory given as
+ * first argument until none is left.
+ * Start as many workers as wanted (also on other machines sharing the work directory) after the job has been
+ * created (e.g. by {@link StackedTrianglesMain#findIndependentSetSharded(StackedTrianglesMain.Quadrants, boolean,
+ * int, boolean, File, int, long)}).
+ *
+ * @author Johannes
+ *
+ */
+public class ConflictShardWorkerMain {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: ConflictShardWorkerMain <work directory>");
+		}
+		ShardedConflictSweep sweep = ShardedConflictSweep.open(new File(args[0]));
+		int numberOfShardsComputed = sweep.work();
+		System.out.println(new Date()+": Computed "+numberOfShardsComputed+" of "+sweep.getNumberOfShards()
+				+" shards of "+args[0]);
+	}
+}
@@ -25,6 +25,7 @@ import org.javatuples.Pair;
 import com.google.common.base.Function;
 
 import de.uniwue.informatik.algorithms.layout.HarelSardas;
+import de.uniwue.informatik.algorithms.layout.PolylineLayout;
 import de.uniwue.informatik.algorithms.layout.VData;
 import de.uniwue.informatik.algorithms.layout.VData.VType;
 import edu.uci.ics.jung.algorithms.layout.AbstractLayout;
@@ -38,10 +39,16 @@ import edu.uci.ics.jung.visualization.decorators.AbstractVertexShapeTransformer;
 import edu.uci.ics.jung.visualization.decorators.EdgeShape;
 import edu.uci.ics.jung.visualization.renderers.Renderer.VertexLabel.Position;
 import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.graph.embedding.EmbeddingValidator;
 import de.uniwue.informatik.util.CrossingRemovalFor1PlanarGraphs;
 import de.uniwue.informatik.util.DefaultVisualizationModelWithoutReiterating;
+import de.uniwue.informatik.util.DrawingVerifier;
 import de.uniwue.informatik.util.DummyEdgeInsertion;
+import de.uniwue.informatik.util.GraphElementFactory;
+import de.uniwue.informatik.util.GridPickSupport;
 import de.uniwue.informatik.util.IpeFileWriter;
+import de.uniwue.informatik.util.PhaseRecorder;
+import de.uniwue.informatik.util.PolylineEdgeShape;
 
 public class DrawGraphs {
 	
@@ -49,6 +56,7 @@ public class DrawGraphs {
 	private static Dimension drawingArea = new Dimension(40, 40);
 	private static Dimension drawingPaneSize = new Dimension(1400, 800);
 	
+	private static GraphElementFactory<VData<String>, String> elementFactory;
 	private static Collection<String> dummyEdges;
 	private static Collection<VData<String>> dummyVertices;
 	private static Collection<edu.uci.ics.jung.graph.util.Pair<edu.uci.ics.jung.graph.util.Pair<VData<String>>>> removedEdges;
@@ -56,8 +64,19 @@ public class DrawGraphs {
 	private static boolean edgesAreReinsertedAsRACInNICPlanarCase = false;
 	private static boolean gridRefined = false;
 	private static int gridRefinementFactor = 2;
+	/**
+	 * If true, the crossing edges are re-inserted as edges with bends in a {@link PolylineLayout}
+	 * instead of splitting them via bend and crossing vertices
+	 */
+	private static boolean drawCrossingEdgesAsPolylines = false;
+	private static PolylineLayout<VData<String>, String> polylineLayout;
+	/**
+	 * Consistency checks of the embedding during the run, see {@link EmbeddingValidator}
+	 */
+	private static EmbeddingValidator.Mode validationMode = EmbeddingValidator.Mode.OFF;
+	private static int validationSamplingInterval = 100;
 	
-	public static boolean allCasesAppear = false;
+	private static boolean allCasesAppear = false;
 
 	public static void main(String[] args) throws IOException {
 		/*
@@ -71,6 +90,8 @@ public class DrawGraphs {
 			for (int i=0; i<2;i++) {
 				graphData = getNICPlanarGraphFromSketch2();
 				embeddedGraph = graphData.getValue0();
+				embeddedGraph.setValidator(new EmbeddingValidator<VData<String>, String>(validationMode, 
+						validationSamplingInterval).requireNICPlanarity(graphData.getValue1()));
 				allCasesAppear = false;
 				System.out.println("-------------------------------");
 				if (i == 0) {
@@ -83,13 +104,17 @@ public class DrawGraphs {
 				}
 				try {
 					//adjust graph
-					dummyEdges = DummyEdgeInsertion.insertEmptyKites(embeddedGraph, graphData.getValue1()); //dummyKiteEdges
-					dummyVertices = new ArrayList<>(); //DummyEdgeInsertion.starTriangulateGraph(embeddedGraph);
+					//new factory for each try, so its side tables are dropped together with the previous try
+					elementFactory = GraphElementFactory.createDefault();
+					dummyEdges = DummyEdgeInsertion.insertEmptyKites(embeddedGraph, graphData.getValue1(), elementFactory); //dummyKiteEdges
+					dummyVertices = new ArrayList<>(); //DummyEdgeInsertion.starTriangulateGraph(embeddedGraph, elementFactory);
 					removedEdges = CrossingRemovalFor1PlanarGraphs.removeCrossings(embeddedGraph, graphData.getValue1());
 					//TODO: make biconnected
 					
 					//draw it
-					hs = new HarelSardas<>(embeddedGraph, removedEdges);
+					hs = new HarelSardas<>(embeddedGraph, removedEdges, elementFactory);
+					allCasesAppear = hs.getKiteCaseMetrics().allCasesAppear();
+					System.out.println(hs.getKiteCaseMetrics());
 					for (String dummyEdge : new ArrayList<>(dummyEdges)) { //replace replaced dummy edges by their replacement
 						if (hs.originalEdgesReplacedByASplitEdge.containsKey(dummyEdge)) {
 							dummyEdges.remove(dummyEdge);
@@ -311,6 +336,13 @@ public class DrawGraphs {
 		return graph;
 	}
 	
+	private static void printVerification(DrawingVerifier<VData<String>, String> verifier) {
+		System.out.println("Crossings: "+verifier.getCrossings().size()
+				+", not at right angles: "+verifier.getCrossingsNotAtRightAngles().size()
+				+", max bends per edge: "+verifier.getMaxNumberOfBendsPerEdge()
+				+", NIC-planar: "+verifier.isNICPlanar());
+	}
+	
 	public static void visualizeDrawing(Layout<VData<String>, String> layout) {
 		//Visualize created drawings
 		//first layout
@@ -318,6 +350,7 @@ public class DrawGraphs {
 				new DefaultVisualizationModelWithoutReiterating<>(layout, drawingArea), drawingPaneSize);
 		vv1.scaleToLayout(new LayoutScalingControl());
 		vv1.getRenderContext().setEdgeShapeTransformer(new EdgeShape<VData<String>,String>(layout.getGraph()).new Line());
+		vv1.setPickSupport(new GridPickSupport<>(vv1, hs));
 		vv1.getRenderContext().setVertexShapeTransformer(new AbstractVertexShapeTransformer<VData<String>>() {
 			@Override
 			public Shape apply(VData<String> input) {
@@ -355,9 +388,11 @@ public class DrawGraphs {
 	    		else if (edgesAreReinsertedAsRACInNICPlanarCase) {
 	    			if (!gridRefined) {
 	    				//refine grid
+	    				PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.GRID_REFINEMENT);
 	    				for (VData<String> v : hs.getGraph().getVertices()) {
 	    					hs.setLocation(v, hs.getX(v) * gridRefinementFactor, hs.getY(v) * gridRefinementFactor);
 	    				}
+	    				phase.end(hs.getGraph());
 	    				gridRefined = true;
 		    			AbstractLayout<VData<String>, String> layoutInThisStep = hs.transformToFloatingPointLayout(drawingArea);
 		    			vv1.setModel(new DefaultVisualizationModelWithoutReiterating<>(layoutInThisStep, drawingArea));
@@ -365,7 +400,22 @@ public class DrawGraphs {
 		    					new EdgeShape<VData<String>,String>(layoutInThisStep.getGraph()).new Line());
 						vv1.repaint();
 	    				IpeFileWriter.writeFile("target/drawings", "drawingBeforeEdgeInsertion", 
-	    						(AbstractLayout<VData<String>, String>) layoutInThisStep, null, true);
+	    						(AbstractLayout<VData<String>, String>) layoutInThisStep, null, true, hs);
+	    			}
+	    			else if (drawCrossingEdgesAsPolylines) {
+	    				polylineLayout = hs.createPolylineLayout(removedEdges);
+	    				edgesAreReinsertedAsRACInNICPlanarCase = false;
+	    				//dummy objects are not part of the polyline layout
+	    				dummyObjectsRemoved = true;
+		    			AbstractLayout<VData<String>, String> layoutInThisStep = 
+		    					polylineLayout.transformToFloatingPointLayout(drawingArea);
+		    			vv1.setModel(new DefaultVisualizationModelWithoutReiterating<>(layoutInThisStep, drawingArea));
+		    			vv1.getRenderContext().setEdgeShapeTransformer(new PolylineEdgeShape<VData<String>, String>(
+		    					polylineLayout, layoutInThisStep, vv1.getRenderContext()));
+						vv1.repaint();
+	    				IpeFileWriter.writeFile("target/drawings", "drawingAfterEdgeInsertion", 
+	    						layoutInThisStep, null, true, polylineLayout);
+	    				printVerification(DrawingVerifier.forPolylineLayout(polylineLayout));
 	    			}
 	    			else {
 	    				hs.reinsertCrossingEdgesInNICplanarCase(removedEdges);
@@ -376,16 +426,18 @@ public class DrawGraphs {
 		    					new EdgeShape<VData<String>,String>(layoutInThisStep.getGraph()).new Line());
 						vv1.repaint();
 	    				IpeFileWriter.writeFile("target/drawings", "drawingAfterEdgeInsertion", 
-	    						(AbstractLayout<VData<String>, String>) layoutInThisStep, null, true);
+	    						(AbstractLayout<VData<String>, String>) layoutInThisStep, null, true, hs);
 	    			}
 	    		}
 	    		else if (!dummyObjectsRemoved) {
+	    			PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.DUMMY_REMOVAL);
 	    			for (String edge : dummyEdges) {
 	    				hs.getGraph().removeEdge(edge);
 	    			}
 	    			for (VData<String> vertex : dummyVertices) {
 	    				hs.getGraph().removeVertex(vertex);
 	    			}
+	    			phase.end(hs.getGraph());
 	    			AbstractLayout<VData<String>, String> layoutInThisStep = hs.transformToFloatingPointLayout(drawingArea);
 	    			vv1.setModel(new DefaultVisualizationModelWithoutReiterating<>(layoutInThisStep, drawingArea));
 	    			vv1.getRenderContext().setEdgeShapeTransformer(
@@ -400,7 +452,8 @@ public class DrawGraphs {
 	    				}
 	    			}
     				IpeFileWriter.writeFile("target/drawings", "drawingAfterDummyRemoval", 
-    						(AbstractLayout<VData<String>, String>) layoutInThisStep, doNotDraw, true);
+    						(AbstractLayout<VData<String>, String>) layoutInThisStep, doNotDraw, true, hs);
+    				printVerification(DrawingVerifier.forGridLayout(hs, doNotDraw));
 	    		}
 			}
 	    });
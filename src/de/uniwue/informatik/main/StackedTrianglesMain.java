@@ -1,31 +1,43 @@
 package de.uniwue.informatik.main;
 
+import de.uniwue.informatik.algorithms.conflicts.CompactConflictGraph;
+import de.uniwue.informatik.algorithms.conflicts.ConflictGraph;
+import de.uniwue.informatik.algorithms.conflicts.GridSymmetry;
+import de.uniwue.informatik.algorithms.conflicts.IncrementalConflictGraphBuilder;
+import de.uniwue.informatik.algorithms.conflicts.MappedConflictGraph;
+import de.uniwue.informatik.algorithms.conflicts.MaximumIndependentSetSolver;
+import de.uniwue.informatik.algorithms.conflicts.MinimumDegreeGreedy;
+import de.uniwue.informatik.algorithms.conflicts.PointSegmentTable;
+import de.uniwue.informatik.algorithms.conflicts.ShardedConflictSweep;
+import de.uniwue.informatik.algorithms.conflicts.SymmetricConflictGraphBuilder;
 import de.uniwue.informatik.algorithms.layout.GridPoint;
 import de.uniwue.informatik.algorithms.layout.PseudoComplexLayout;
 import de.uniwue.informatik.algorithms.layout.VData;
 import de.uniwue.informatik.algorithms.layout.VData.VType;
-import edu.uci.ics.jung.graph.Graph;
-import edu.uci.ics.jung.graph.UndirectedGraph;
 import edu.uci.ics.jung.graph.UndirectedSparseGraph;
 import de.uniwue.informatik.util.ExtendedEuclideanAlgorithm;
+import de.uniwue.informatik.util.SweepResultWriter;
+import de.uniwue.informatik.util.SweepScheduler;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import agape.algos.MIS;
-
-import org.apache.commons.collections15.Factory;
 import org.apache.commons.collections15.map.HashedMap;
 
+import com.google.common.base.Function;
+
 /**
  * 
  * @author Johannes
@@ -33,8 +45,6 @@ import org.apache.commons.collections15.map.HashedMap;
  */
 public class StackedTrianglesMain {
 	
-	private static double COMPARISON_TOLERANCE = 0.001;
-	
 	public static void main(String[] args) throws IOException {
 //		findIndependentSetOnSpecialLines(Quadrants.NORTH_EAST, true);
 		
@@ -49,22 +59,57 @@ public class StackedTrianglesMain {
 	}
 	
 	public static PseudoComplexLayout<String, String> drawStackedTriangleMultiGraph(int n) {
-		int xMin = 0;
-		int xMax = 2;
-		int yMin = -1;
-		int yMax = 1;
-		
-
-		Set<GridPoint> maximalIndependentSet = null;
-		
-		while (maximalIndependentSet == null || maximalIndependentSet.size() < n) {
-			UndirectedGraph<GridPoint, String> conflictGraph = computeConflictGraph(xMin, xMax, yMin, yMax, true);
-			maximalIndependentSet = getGreedyMaximalIndependentSet(conflictGraph);
-			
-			xMax += 2;
-			yMin -= 1;
-			yMax += 1;
+		return drawStackedTriangleMultiGraph(n, false);
+	}
+	
+	/**
+	 * The crossing points are a greedy maximal independent set of size at least n in the conflict graph of the grid
+	 * [0, 2 + 2k] x [-1 - k, 1 + k] for some step k.
+	 * 
+	 * @param searchGridSize
+	 * 		if false, k = 0, 1, 2, ... is tried until the independent set is large enough.
+	 * 		if true, k is increased by a quarter (k = 0, 1, 2, 3, 4, 6, 8, 11, ...) until the independent set is large
+	 * 		enough and then k is binary searched between the last two tries (logarithmically many conflict graphs
+	 * 		instead of linearly many). The factor is small since the larger grids dominate the running time.
+	 * 		The size of the greedy independent set is not monotone in k, so this may find a larger k than trying
+	 * 		all steps (but the independent set is large enough for the k found).
+	 */
+	public static PseudoComplexLayout<String, String> drawStackedTriangleMultiGraph(int n, boolean searchGridSize) {
+		//the grids of increasing steps contain each other, so one builder can be reused while k increases
+		IncrementalConflictGraphBuilder conflictGraphBuilder = new IncrementalConflictGraphBuilder(true, true, true);
+		int step = 0;
+		Set<GridPoint> maximalIndependentSet = getGreedyMaximalIndependentSetOfStep(conflictGraphBuilder, step);
+		
+		if (!searchGridSize) {
+			while (maximalIndependentSet.size() < n) {
+				++step;
+				maximalIndependentSet = getGreedyMaximalIndependentSetOfStep(conflictGraphBuilder, step);
+			}
 		}
+		else {
+			int tooSmallStep = -1;
+			while (maximalIndependentSet.size() < n) {
+				tooSmallStep = step;
+				step = step + step / 4 + 1;
+				maximalIndependentSet = getGreedyMaximalIndependentSetOfStep(conflictGraphBuilder, step);
+			}
+			while (step - tooSmallStep > 1) {
+				int middleStep = tooSmallStep + (step - tooSmallStep) / 2;
+				//smaller grid than the last one -> new builder
+				Set<GridPoint> independentSet = getGreedyMaximalIndependentSetOfStep(
+						new IncrementalConflictGraphBuilder(true, true, true), middleStep);
+				if (independentSet.size() >= n) {
+					step = middleStep;
+					maximalIndependentSet = independentSet;
+				}
+				else {
+					tooSmallStep = middleStep;
+				}
+			}
+		}
+		//right end of the grid of the next step (as if the grid had been grown once more)
+		int xMax = 2 + 2 * (step + 1);
+		
 		System.out.println("Found fitting independent set, it is:");
 		System.out.println(maximalIndependentSet);
 		LinkedList<GridPoint> crossingPoints = new LinkedList<>(maximalIndependentSet);
@@ -190,64 +235,37 @@ public class StackedTrianglesMain {
 		return gridLayout;
 	}
 	
+	private static Set<GridPoint> getGreedyMaximalIndependentSetOfStep(
+			IncrementalConflictGraphBuilder conflictGraphBuilder, int step) {
+		CompactConflictGraph conflictGraph = computeConflictGraph(conflictGraphBuilder, 0, 2 + 2 * step, -1 - step, 
+				1 + step);
+		return getGreedyMaximalIndependentSet(conflictGraph);
+	}
+	
 	/**
 	 * Find Greedy Maximal Independent Set
 	 * @param lengthenMainSegment 
 	 */
 	public static void findMaximalIndependentSetInConflictGraph(Quadrants gridRelativeToBasePoint, 
 			boolean lengthenMainSegment) throws IOException {
+		findMaximalIndependentSetInConflictGraph(gridRelativeToBasePoint, lengthenMainSegment, 1);
+	}
+	
+	/**
+	 * Find Greedy Maximal Independent Set
+	 * @param lengthenMainSegment 
+	 * @param numberOfThreads
+	 * 		if greater than 1, that many sizes are computed concurrently (see {@link SweepScheduler}), 
+	 * 		otherwise one after the other (growing the conflict graph incrementally)
+	 */
+	public static void findMaximalIndependentSetInConflictGraph(Quadrants gridRelativeToBasePoint, 
+			boolean lengthenMainSegment, int numberOfThreads) throws IOException {
 				
 		String csvFileName = gridRelativeToBasePoint+"-maximal_independent_sets_in_conflict_graph.csv";
-		
-		File csvFile = new File(csvFileName);
-		if (!csvFile.exists()) {
-			csvFile.createNewFile();
-		}
-		
-		FileWriter csvFileWriter = new FileWriter(csvFileName, false);
-		csvFileWriter.append("n;SizeOfGreedyMaximalIS;GreedyMaximalIS");
-		csvFileWriter.close();
-
-		
-		for (int i = 1; i <= 1000; ++i) {
-		
-			int n = i; //number of neighbors of the central vertex
-			int c = 1; //some constant
-			int xMin;
-			int xMax;
-			int yMin;
-			int yMax;
-			
-			if (gridRelativeToBasePoint == Quadrants.ALL_DIRECTIONS || gridRelativeToBasePoint == Quadrants.NORTH) {
-				xMin = (-n * c) / 2;
-				xMax = (n * c - 1) / 2;
-			}
-			else{
-				xMin = 0;
-				xMax = n * c - 1;
-			}
-			if (gridRelativeToBasePoint == Quadrants.ALL_DIRECTIONS || gridRelativeToBasePoint == Quadrants.EAST) {
-				yMin = (-n * c) / 2;
-				yMax = (n * c - 1) / 2;
-			}
-			else {
-				yMin = 0;
-				yMax = n * c - 1;
-			}
-			
-			System.out.println(new Date()+": Construct conflict graph for grid with size "+(1 + xMax - xMin)+" x "+(1 + yMax - yMin));
-			
-			UndirectedGraph<GridPoint, String> conflictGraph = computeConflictGraph(xMin, xMax, yMin, yMax, lengthenMainSegment);
-			
-			Set<GridPoint> maximalIndependentSet = getGreedyMaximalIndependentSet(conflictGraph);
-			
-			System.out.println(new Date()+": Found greedy maximal Independent Set of conflict graph. It has size "+maximalIndependentSet.size()+" and is:");
-			System.out.println(maximalIndependentSet);
-			
-			csvFileWriter = new FileWriter(csvFileName, true);
-			csvFileWriter.append(System.lineSeparator() + (xMax-xMin+1) + ";" + maximalIndependentSet.size() + ";" + maximalIndependentSet);
-			csvFileWriter.close();
-		}
+		//continues an interrupted sweep with the first size not written yet
+		SweepResultWriter resultWriter = new SweepResultWriter(csvFileName, "n;SizeOfGreedyMaximalIS;GreedyMaximalIS");
+		sweepIndependentSets(gridRelativeToBasePoint, lengthenMainSegment, false, numberOfThreads, resultWriter);
+		resultWriter.close();
 	}
 	
 	
@@ -257,58 +275,176 @@ public class StackedTrianglesMain {
 	 */
 	public static void findMaximumIndependentSetInConflictGraph(Quadrants gridRelativeToBasePoint, 
 			boolean lengthenMainSegment) throws IOException {
+		findMaximumIndependentSetInConflictGraph(gridRelativeToBasePoint, lengthenMainSegment, 1);
+	}
+	
+	/**
+	 * Find Maximum Independent Set
+	 * @param lengthenMainSegment 
+	 * @param numberOfThreads
+	 * 		if greater than 1, that many sizes are computed concurrently (see {@link SweepScheduler}), 
+	 * 		otherwise one after the other (growing the conflict graph incrementally)
+	 */
+	public static void findMaximumIndependentSetInConflictGraph(Quadrants gridRelativeToBasePoint, 
+			boolean lengthenMainSegment, int numberOfThreads) throws IOException {
 		
 		String csvFileName = gridRelativeToBasePoint+"-maximum_independent_sets_in_conflict_graph.csv";
-		
-		File csvFile = new File(csvFileName);
-		if (!csvFile.exists()) {
-			csvFile.createNewFile();
-		}
-		
-		FileWriter csvFileWriter = new FileWriter(csvFileName, false);
-		csvFileWriter.append("n;SizeOfMaximumIS;MaximumIS");
-		csvFileWriter.close();
+		//continues an interrupted sweep with the first size not written yet
+		SweepResultWriter resultWriter = new SweepResultWriter(csvFileName, "n;SizeOfMaximumIS;MaximumIS");
+		sweepIndependentSets(gridRelativeToBasePoint, lengthenMainSegment, true, numberOfThreads, resultWriter);
+		resultWriter.close();
+	}
+	
+	/**
+	 * Find Greedy Maximal or Maximum Independent Set of the conflict graph of the grid of size n x n, whose
+	 * conflicts are computed in shards by this process and by the worker processes started with
+	 * {@link ConflictShardWorkerMain} on workDirectory (see {@link ShardedConflictSweep}).
+	 * An interrupted run continues with the shards not done yet.
+	 * The conflict graph is written to memory-mapped files in workDirectory (see {@link MappedConflictGraph}).
+	 * @param staleClaimMillis
+	 * 		shards whose claim has not been refreshed for this time are given back (their worker is assumed to have
+	 * 		died); at least 3 * {@link ShardedConflictSweep#HEARTBEAT_MILLIS}
+	 */
+	public static Set<GridPoint> findIndependentSetSharded(Quadrants gridRelativeToBasePoint,
+			boolean lengthenMainSegment, int n, boolean maximum, File workDirectory, int numberOfShards,
+			long staleClaimMillis) throws IOException {
+		int[] grid = getGrid(gridRelativeToBasePoint, n);
+		int xMin = grid[0];
+		int xMax = grid[1];
+		int yMin = grid[2];
+		int yMax = grid[3];
+		ShardedConflictSweep sweep = ShardedConflictSweep.create(workDirectory, xMin, xMax, yMin, yMax,
+				Math.max(xMax-yMin+1, yMax-yMin+1), lengthenMainSegment, numberOfShards);
 
-		
-		for (int i = 1; i <= 1000; ++i) {
-		
-			int n = i; //number of neighbors of the central vertex
-			int c = 1; //some constant
-			int xMin;
-			int xMax;
-			int yMin;
-			int yMax;
-			
-			if (gridRelativeToBasePoint == Quadrants.ALL_DIRECTIONS || gridRelativeToBasePoint == Quadrants.NORTH) {
-				xMin = (-n * c) / 2;
-				xMax = (n * c - 1) / 2;
+		System.out.println(new Date()+": Construct conflict graph for grid with size "+(1 + xMax - xMin)+" x "
+				+(1 + yMax - yMin)+" in "+numberOfShards+" shards in "+workDirectory);
+		sweep.work();
+		while (!sweep.isComplete()) {
+			//wait for the other workers
+			if (sweep.releaseStaleClaims(staleClaimMillis) > 0) {
+				sweep.work();
 			}
-			else{
-				xMin = 0;
-				xMax = n * c - 1;
+			try {
+				Thread.sleep(1000);
 			}
-			if (gridRelativeToBasePoint == Quadrants.ALL_DIRECTIONS || gridRelativeToBasePoint == Quadrants.EAST) {
-				yMin = (-n * c) / 2;
-				yMax = (n * c - 1) / 2;
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Waiting for the shards was interrupted.");
 			}
-			else {
-				yMin = 0;
-				yMax = n * c - 1;
+		}
+		//the conflict graph is only mapped, not loaded into the heap
+		Set<GridPoint> independentSet;
+		try (MappedConflictGraph conflictGraph = MappedConflictGraph.write(new File(workDirectory, "conflict-graph"), 
+				sweep)) {
+			System.out.println("Conflict graph has "+conflictGraph.getVertexCount()+" vertices and "+conflictGraph.getEdgeCount()+" edges");
+			independentSet = maximum ? getMaximumIndependentSet(conflictGraph, true)
+					: getGreedyMaximalIndependentSet(conflictGraph);
+		}
+		System.out.println(new Date()+": Found "+(maximum ? "Maximum" : "greedy maximal")+" Independent Set of conflict graph. It has size "+independentSet.size()+" and is:");
+		System.out.println(independentSet);
+		return independentSet;
+	}
+
+	/**
+	 * Computes the greedy maximal or the maximum independent sets of the conflict graphs of the grids of size
+	 * i x i for i = 1, ..., 1000 and writes them to resultWriter.
+	 * With several threads, the sizes whose conflict graphs do not fit into 3/4 of the maximum heap are skipped.
+	 */
+	private static void sweepIndependentSets(final Quadrants gridRelativeToBasePoint, final boolean lengthenMainSegment, 
+			final boolean maximum, int numberOfThreads, SweepResultWriter resultWriter) throws IOException {
+		
+		if (numberOfThreads > 1) {
+			//each size builds its conflict graph from scratch; the sizes are the parallel tasks
+			SweepScheduler scheduler = new SweepScheduler(numberOfThreads, Runtime.getRuntime().maxMemory() / 4 * 3);
+			scheduler.run(1, 1000, new Function<Integer, Long>() {
+				@Override
+				public Long apply(Integer n) {
+					//neighborhood bitsets (twice for the complement graph of the exact solver)
+					long numberOfGridPoints = (long) n * n;
+					return (maximum ? 2 : 1) * numberOfGridPoints * ((numberOfGridPoints + 63) / 64) * 8;
+				}
+			}, new SweepScheduler.SizeComputation() {
+				@Override
+				public Set<GridPoint> compute(int n, PrintStream log) {
+					return computeIndependentSet(new IncrementalConflictGraphBuilder(lengthenMainSegment, false, true), 
+							getGrid(gridRelativeToBasePoint, n), maximum, false, log);
+				}
+			}, resultWriter);
+			return;
+		}
+
+		IncrementalConflictGraphBuilder conflictGraphBuilder = 
+				new IncrementalConflictGraphBuilder(lengthenMainSegment, true, true);
+		
+		for (int i = 1; i <= 1000; ++i) {
+			if (resultWriter.isDone(i)) { //the grid has size i x i
+				continue;
 			}
+			int[] grid = getGrid(gridRelativeToBasePoint, i);
+			Set<GridPoint> independentSet = computeIndependentSet(conflictGraphBuilder, grid, maximum, true, System.out);
+			resultWriter.write(grid[1]-grid[0]+1, independentSet);
+		}
+	}
+	
+	/**
+	 * @param n
+	 * 		number of neighbors of the central vertex
+	 * @return
+	 * 		{xMin, xMax, yMin, yMax} of the grid of size n x n
+	 */
+	private static int[] getGrid(Quadrants gridRelativeToBasePoint, int n) {
+		int c = 1; //some constant
+		int xMin;
+		int xMax;
+		int yMin;
+		int yMax;
+		
+		if (gridRelativeToBasePoint == Quadrants.ALL_DIRECTIONS || gridRelativeToBasePoint == Quadrants.NORTH) {
+			xMin = (-n * c) / 2;
+			xMax = (n * c - 1) / 2;
+		}
+		else{
+			xMin = 0;
+			xMax = n * c - 1;
+		}
+		if (gridRelativeToBasePoint == Quadrants.ALL_DIRECTIONS || gridRelativeToBasePoint == Quadrants.EAST) {
+			yMin = (-n * c) / 2;
+			yMax = (n * c - 1) / 2;
+		}
+		else {
+			yMin = 0;
+			yMax = n * c - 1;
+		}
+		return new int[] {xMin, xMax, yMin, yMax};
+	}
+	
+	/**
+	 * @param log
+	 * 		receives the progress output
+	 */
+	private static Set<GridPoint> computeIndependentSet(IncrementalConflictGraphBuilder conflictGraphBuilder, 
+			int[] grid, boolean maximum, boolean inParallel, PrintStream log) {
+		int xMin = grid[0];
+		int xMax = grid[1];
+		int yMin = grid[2];
+		int yMax = grid[3];
+		
+		log.println(new Date()+": Construct conflict graph for grid with size "+(1 + xMax - xMin)+" x "+(1 + yMax - yMin));
+		
+		CompactConflictGraph conflictGraph = computeConflictGraph(conflictGraphBuilder, xMin, xMax, yMin, yMax, log);
+		
+		if (!maximum) {
+			Set<GridPoint> maximalIndependentSet = getGreedyMaximalIndependentSet(conflictGraph);
 			
-			System.out.println(new Date()+": Construct conflict graph for grid with size "+(1 + xMax - xMin)+" x "+(1 + yMax - yMin));
-			
-			UndirectedGraph<GridPoint, String> conflictGraph = computeConflictGraph(xMin, xMax, yMin, yMax, lengthenMainSegment);
-			
-			Set<GridPoint> maximumIndependentSet = getMaximumIndependentSet(conflictGraph);
-			
-			System.out.println(new Date()+": Found Maximum Independent Set of conflict graph. It has size "+maximumIndependentSet.size()+" and is:");
-			System.out.println(maximumIndependentSet);
-			
-			csvFileWriter = new FileWriter(csvFileName, true);
-			csvFileWriter.append(System.lineSeparator() + (xMax-xMin+1) + ";" + maximumIndependentSet.size() + ";" + maximumIndependentSet);
-			csvFileWriter.close();
+			log.println(new Date()+": Found greedy maximal Independent Set of conflict graph. It has size "+maximalIndependentSet.size()+" and is:");
+			log.println(maximalIndependentSet);
+			return maximalIndependentSet;
 		}
+		Set<GridPoint> maximumIndependentSet = getMaximumIndependentSet(conflictGraph, inParallel);
+		
+		log.println(new Date()+": Found Maximum Independent Set of conflict graph. It has size "+maximumIndependentSet.size()+" and is:");
+		log.println(maximumIndependentSet);
+		return maximumIndependentSet;
 	}
 	
 	/**
@@ -321,19 +457,16 @@ public class StackedTrianglesMain {
 			boolean lengthenMainSegment) throws IOException {
 		
 		String csvFileName = gridRelativeToBasePoint+"-maximum_independent_sets_on_special_lines.csv";
-		
-		File csvFile = new File(csvFileName);
-		if (!csvFile.exists()) {
-			csvFile.createNewFile();
-		}
-		
-		FileWriter csvFileWriter = new FileWriter(csvFileName, false);
-		csvFileWriter.append("n;SizeOfMaximumIS;MaximumIS");
-		csvFileWriter.close();
+		SweepResultWriter resultWriter = new SweepResultWriter(csvFileName, "n;SizeOfMaximumIS;MaximumIS");
 		
 		Set<GridPoint> maximumIndependentSet = null;
 		
 		int n = 1; //basic size of grid
+		if (resultWriter.getLastN() > 0) {
+			//continue an interrupted sweep after the last size written
+			maximumIndependentSet = new LinkedHashSet<>(resultWriter.getLastIndependentSet());
+			n = resultWriter.getLastN() + 1;
+		}
 		
 		for (int i = 1; i <= 1000; ++i) { //i number of vertices in independent set
 			
@@ -362,358 +495,119 @@ public class StackedTrianglesMain {
 					yMax = n * c - 1;
 				}
 				
-				System.out.println(new Date()+": Construct conflict graph for grid with size "+(1 + xMax - xMin)+" x "+(1 + yMax - yMin));
+				List<GridPoint> lineDirections = getSternBrocotDirections(i);
 				
-				UndirectedGraph<GridPoint, String> conflictGraph = computeConflictGraph(xMin, xMax, yMin, yMax, lengthenMainSegment);
+				System.out.println(new Date()+": Construct conflict graph for the grid points on "+lineDirections.size()
+						+" lines in grid with size "+(1 + xMax - xMin)+" x "+(1 + yMax - yMin));
 				
-				LinkedList<GridPoint> validGridPointBases = new LinkedList<>();
-				validGridPointBases.add(new GridPoint(0, 1));
-				validGridPointBases.add(new GridPoint(1, 0));
+				//only the grid points on the lines are enumerated and tested for conflicts
+				PointSegmentTable pointSegmentTable = PointSegmentTable.onHalfLines(xMin, xMax, yMin, yMax, 
+						lineDirections, Math.max(xMax-yMin+1, yMax-yMin+1), lengthenMainSegment);
+				CompactConflictGraph conflictGraph = new SymmetricConflictGraphBuilder(pointSegmentTable).buildCompactGraph(true);
 				
-				while(validGridPointBases.size() < i) {
-					Iterator<GridPoint> iter = new ArrayList<GridPoint>(validGridPointBases).iterator();
-					GridPoint prev = null;
-					GridPoint curr = iter.next();
-					for (int j = 1; iter.hasNext(); ++j) {
-						prev = curr;
-						curr = iter.next();
-						GridPoint newPoint = new GridPoint(prev.getX() + curr.getX(), prev.getY() + curr.getY());
-						validGridPointBases.add(j, newPoint);
-						++j;
-					}
-				}
+				System.out.println("Conflict graph has "+conflictGraph.getVertexCount()+" vertices and "+conflictGraph.getEdgeCount()+" edges");
+				printDegrees(conflictGraph, System.out);
 				
-				//Remove vertices that are no multiples of the points in validGridPointBases
-				int removeCounter = 0;
-				for (GridPoint vertex : new ArrayList<>(conflictGraph.getVertices())) {
-					int gcd = ExtendedEuclideanAlgorithm.gcd(vertex.getX(), vertex.getY());
-					GridPoint pointReduced = new GridPoint(vertex.getX() / gcd, vertex.getY() / gcd);
-					if (!validGridPointBases.contains(pointReduced)){
-						++removeCounter;
-						conflictGraph.removeVertex(vertex);
-					}
-				}
-				
-				System.out.println(new Date()+": Removed "+removeCounter+" vertices from conflict graph");
-				System.out.println("Conflict graph has now "+conflictGraph.getVertexCount()+" vertices and "+conflictGraph.getEdgeCount()+" edges");
-				int degreeSum = 0;
-				int minDegree = Integer.MAX_VALUE;
-				int maxDegree = 0;
-				for (GridPoint v : conflictGraph.getVertices()) {
-					int degreeOfV = conflictGraph.degree(v);
-					degreeSum += degreeOfV;
-					minDegree = Math.min(minDegree, degreeOfV);
-					maxDegree = Math.max(maxDegree, degreeOfV);
-				}
-				double avgDegree = (double)degreeSum / (double)conflictGraph.getVertexCount();
-				System.out.println("Average degree of conflict graph is "+avgDegree+", min is "+minDegree+", max is "+maxDegree);
-				
-				maximumIndependentSet = getMaximumIndependentSet(conflictGraph);
+				maximumIndependentSet = getMaximumIndependentSet(conflictGraph, true);
 				
 				System.out.println(new Date()+": Found maximum Independent Set of conflict graph. It has size "+maximumIndependentSet.size()+" and is:");
 				System.out.println(maximumIndependentSet);
 				
-				csvFileWriter = new FileWriter(csvFileName, true);
-				csvFileWriter.append(System.lineSeparator() + (xMax-xMin+1) + ";" + maximumIndependentSet.size() + ";" + maximumIndependentSet);
-				csvFileWriter.close();
+				resultWriter.write(xMax-xMin+1, maximumIndependentSet);
 				
 				++n;
 			}
 		}
+		resultWriter.close();
 	}
 
-	private static Set<GridPoint> getGreedyMaximalIndependentSet(UndirectedGraph<GridPoint, String> graph) {
-		MIS<GridPoint, String> mis = new MIS<GridPoint, String>(new Factory<Graph<GridPoint, String>>() {
-			@Override
-			public Graph<GridPoint, String> create() {
-				return new UndirectedSparseGraph<>();
-			}
-		}, new Factory<GridPoint>() {
-			@Override
-			public GridPoint create() {
-				return new GridPoint(0, 0);
-			}
-		}, new Factory<String>() {
-			@Override
-			public String create() {
-				return "";
-			}
-		});
-		Set<GridPoint> maximalIndependentSet = mis.maximalIndependentSetGreedy(graph);
-		return maximalIndependentSet;
-	}
-	
-	private static Set<GridPoint> getMaximumIndependentSet(UndirectedGraph<GridPoint, String> graph) {
-		MIS<GridPoint, String> mis = new MIS<GridPoint, String>(new Factory<Graph<GridPoint, String>>() {
-			@Override
-			public Graph<GridPoint, String> create() {
-				return new UndirectedSparseGraph<>();
-			}
-		}, new Factory<GridPoint>() {
-			@Override
-			public GridPoint create() {
-				return new GridPoint(0, 0);
-			}
-		}, new Factory<String>() {
-			@Override
-			public String create() {
-				return "";
-			}
-		});
-		Set<GridPoint> maximumIndependentSet = mis.maximumIndependentSetMoonMoser(graph);
-		return maximumIndependentSet;
-	}
-
-	private static UndirectedGraph<GridPoint, String> computeConflictGraph(int xMin, int xMax, int yMin, int yMax, 
-			boolean lengthenMainSegment) {
-		//construct conflict graph
-		UndirectedGraph<GridPoint, String> conflictGraph = new UndirectedSparseGraph<>();
-		
-		for (int x = xMin; x <= xMax; ++x) {
-			for (int y = yMin; y <= yMax; ++y) {
-				if (x != 0 || y != 0) {
-					conflictGraph.addVertex(new GridPoint(x, y));
-				}
-			}
-		}
-		
-		//find all conflicting pairs of grid points
-		int counterConflicts = 0;
-		int counterNoConflicts = 0;
-		for (int x0 = xMin; x0 <= xMax; ++x0) {
-			for (int y0 = yMin; y0 <= yMax; ++y0) {
-				if (x0 != 0 || y0 != 0) {
-					GridPoint gridPoint0 = new GridPoint(x0, y0);
-					for (int x1 = xMin; x1 <= xMax; ++x1) {
-						for (int y1 = yMin; y1 <= yMax; ++y1) {
-							if (x0 < x1 || (x0 == x1 && y0 < y1)) {
-								if (x1 != 0 || y1 != 0) {
-									GridPoint gridPoint1 = new GridPoint(x1, y1);
-									if (hasConflict(gridPoint0, gridPoint1, Math.max(xMax-yMin+1, yMax-yMin+1), lengthenMainSegment)) {
-										conflictGraph.addEdge("("+x0+","+y0+") conflicts ("+x1+","+y1+")", 
-												gridPoint0, gridPoint1);
-										++counterConflicts;
-//										System.out.println("("+x0+", "+y0+") - ("+x1+", "+y1+") CONFLICT");
-									}
-									else {
-										++counterNoConflicts;
-//										System.out.println("("+x0+", "+y0+") - ("+x1+", "+y1+") no conflict");
-									}
-								}
-							}
-						}
-					}
+	/**
+	 * Directions of the lines of the special construction scheme: starting with (0, 1) and (1, 0), the mediants 
+	 * of all neighboring directions are inserted (a level of the Stern-Brocot tree at a time) until there are at 
+	 * least minimumNumber directions.
+	 * The directions are reduced and ordered by decreasing slope.
+	 */
+	private static List<GridPoint> getSternBrocotDirections(int minimumNumber) {
+		List<GridPoint> directions = new ArrayList<>();
+		directions.add(new GridPoint(0, 1));
+		directions.add(new GridPoint(1, 0));
+		while (directions.size() < minimumNumber) {
+			List<GridPoint> nextLevel = new ArrayList<>(2 * directions.size() - 1);
+			GridPoint prev = null;
+			for (GridPoint curr : directions) {
+				if (prev != null) {
+					nextLevel.add(new GridPoint(prev.getX() + curr.getX(), prev.getY() + curr.getY()));
 				}
+				nextLevel.add(curr);
+				prev = curr;
 			}
+			directions = nextLevel;
 		}
-		System.out.println(new Date()+": Found "+counterConflicts+" times a conflict and "+counterNoConflicts+" times no conflict");
-		System.out.println("Conflict graph has "+conflictGraph.getVertexCount()+" vertices and "+conflictGraph.getEdgeCount()+" edges");
-		int degreeSum = 0;
-		int minDegree = Integer.MAX_VALUE;
-		int maxDegree = 0;
-		for (GridPoint v : conflictGraph.getVertices()) {
-			int degreeOfV = conflictGraph.degree(v);
-			degreeSum += degreeOfV;
-			minDegree = Math.min(minDegree, degreeOfV);
-			maxDegree = Math.max(maxDegree, degreeOfV);
-		}
-		double avgDegree = (double)degreeSum / (double)conflictGraph.getVertexCount();
-		System.out.println("Average degree of conflict graph is "+avgDegree+", min is "+minDegree+", max is "+maxDegree);
-		return conflictGraph;
+		return directions;
 	}
-	
-	/**
-	 * 
-	 * @param gridPoint0
-	 * @param gridPoint1
-	 * @param gridLength
-	 * @param lengthenMainSegment
-	 * 		if false, then main segment is made as short as possible that means the top point is moved as close as possible to the
-	 * 		passed central point (the crossing point).
-	 * 		if true, then main segment is made long enough so that every other segment passing/touching the half line defined by 
-	 * 		the passed point will cause a conflict
-	 * @return
-	 */
-	private static boolean hasConflict(GridPoint gridPoint0, GridPoint gridPoint1, int gridLength, boolean lengthenMainSegment) {
-		int x0 = gridPoint0.getX();
-		int y0 = gridPoint0.getY();
-		int x1 = gridPoint1.getX();
-		int y1 = gridPoint1.getY();
 
-		int gcdX = ExtendedEuclideanAlgorithm.gcd(x0, x1);
-		int gcdY = ExtendedEuclideanAlgorithm.gcd(y0, y1);
-		
-		//Check 1: gridPoint0 and gridPoint1 on the same half-line from the origin (multiples of each other)
-		if (Math.signum(x0) == Math.signum(x1) && Math.signum(y0) == Math.signum(y1) 
-				&& (gcdX == 0 || gcdY == 0 || (Math.abs(x0) / gcdX == Math.abs(y0) / gcdY && Math.abs(x1) / gcdX == Math.abs(y1) / gcdY))) {
-			return true;
-		}
-		
-		/*
-		 * relative to the point (x, y) [crossing point / mid-point] 
-		 * we can assign 3 other grid points belonging to that (x, y).
-		 * It is:
-		 *  - (xTop, yTop) [top (bend) point]
-		 *  - (xLeft, yLeft) [left (bend) point]
-		 *  - (xRight, yRight) [right (bend) point]
-		 */
-		int gcd0 = ExtendedEuclideanAlgorithm.gcd(x0, y0);
-		int gcd1 = ExtendedEuclideanAlgorithm.gcd(x1, y1);
-		
-		int x0Top = lengthenMainSegment ? x0 + (int) ((double) x0 / (double)(Math.abs(x0) + Math.abs(y0)) * 4.0 * (double) gridLength) 
-				: x0 + x0 / gcd0;
-		int y0Top = lengthenMainSegment ? y0 + (int) ((double) y0 / (double)(Math.abs(x0) + Math.abs(y0)) * 4.0 * (double) gridLength) 
-				: y0 + y0 / gcd0;
-		int x0Left = x0 - y0 / gcd0;
-		int y0Left = y0 + x0 / gcd0;
-		int x0Right = x0 + y0 / gcd0;
-		int y0Right = y0 - x0 / gcd0;
-
-		int x1Top = lengthenMainSegment ? x1 + (int) ((double) x1 / (double)(Math.abs(x1) + Math.abs(y1)) * 4.0 * (double) gridLength) 
-				: x1 + x1 / gcd1;
-		int y1Top = lengthenMainSegment ? y1 + (int) ((double) y1 / (double)(Math.abs(x1) + Math.abs(y1)) * 4.0 * (double) gridLength) 
-				: y1 + y1 / gcd1;
-		int x1Left = x1 - y1 / gcd1;
-		int y1Left = y1 + x1 / gcd1;
-		int x1Right = x1 + y1 / gcd1;
-		int y1Right = y1 - x1 / gcd1;
-		
-		//Check 2: Primary line segment (origin to top point) of gp0 touches secondary line segment (left to right) of gp1
-		if (touches(0, 0, x0Top, y0Top, x1Left, y1Left, x1Right, y1Right)) {
-			return true;
+	private static Set<GridPoint> getGreedyMaximalIndependentSet(ConflictGraph graph) {
+		Set<GridPoint> maximalIndependentSet = new LinkedHashSet<>();
+		for (int v : MinimumDegreeGreedy.findIndependentSet(graph)) {
+			maximalIndependentSet.add(graph.getGridPoint(v));
 		}
-		
-		//Check 3: Primary line segment (origin to top point) of gp1 touches secondary line segment (left to right) of gp0
-		if (touches(x0Left, y0Left, x0Right, y0Right, 0, 0, x1Top, y1Top)) {
-			return true;
-		}
-		
-		//Check 4: Both secondary line segments touch each other
-		if (touches(x0Left, y0Left, x0Right, y0Right, x1Left, y1Left, x1Right, y1Right)) {
-			return true;
+		return maximalIndependentSet;
+	}
+	
+	private static Set<GridPoint> getMaximumIndependentSet(ConflictGraph graph, boolean inParallel) {
+		MaximumIndependentSetSolver solver = new MaximumIndependentSetSolver(graph);
+		solver.setInParallel(inParallel);
+		//symmetries of the grid that map the vertices onto themselves
+		solver.setAutomorphisms(GridSymmetry.getAutomorphisms(graph));
+		Set<GridPoint> maximumIndependentSet = new LinkedHashSet<>();
+		for (int v : solver.solve()) {
+			maximumIndependentSet.add(graph.getGridPoint(v));
 		}
-		
-		return false;
+		return maximumIndependentSet;
 	}
 
-	/*
-	 * with type double
+	/**
+	 * Construct conflict graph of the grid [xMin, xMax] x [yMin, yMax], which must contain the grid of the 
+	 * previous call with the same conflictGraphBuilder.
+	 * The returned graph must not be modified.
 	 */
-	
-	private static boolean touches(double xLine0Point0, double yLine0Point0, double xLine0Point1, double yLine0Point1, 
-			double xLine1Point0, double yLine1Point0, double xLine1Point1, double yLine1Point1) {
-		//Uses Cramer's rule to find the intersection point of the 2 lines defined by those 4 points
-		//see: https://de.wikipedia.org/wiki/Schnittpunkt
-		//Note: Parallelness is currently not checked
-		double xIntersection = ((xLine1Point1 - xLine1Point0) * (xLine0Point1 * yLine0Point0 - xLine0Point0 * yLine0Point1) 
-				- (xLine0Point1 - xLine0Point0) * (xLine1Point1 * yLine1Point0 - xLine1Point0 * yLine1Point1))
-				/ ((yLine1Point1 - yLine1Point0) * (xLine0Point1 - xLine0Point0) 
-						- (yLine0Point1 - yLine0Point0) * (xLine1Point1 - xLine1Point0));
-		double yIntersection = ((yLine0Point0 - yLine0Point1) * (xLine1Point1 * yLine1Point0 - xLine1Point0 * yLine1Point1) 
-				- (yLine1Point0 - yLine1Point1) * (xLine0Point1 * yLine0Point0 - xLine0Point0 * yLine0Point1))
-				/ ((yLine1Point1 - yLine1Point0) * (xLine0Point1 - xLine0Point0) 
-						- (yLine0Point1 - yLine0Point0) * (xLine1Point1 - xLine1Point0));
-		
-		//it touches only if the intersection point is in between the bounding points of the line segments
-		if (isSmallerOrEqual(Math.min(xLine0Point0, xLine0Point1), xIntersection) 
-				&& isSmallerOrEqual(xIntersection, Math.max(xLine0Point0, xLine0Point1))
-				&& isSmallerOrEqual(Math.min(yLine0Point0, yLine0Point1), yIntersection) 
-				&& isSmallerOrEqual(yIntersection, Math.max(yLine0Point0, yLine0Point1))
-				&& isSmallerOrEqual(Math.min(xLine1Point0, xLine1Point1), xIntersection) 
-				&& isSmallerOrEqual(xIntersection, Math.max(xLine1Point0, xLine1Point1))
-				&& isSmallerOrEqual(Math.min(yLine1Point0, yLine1Point1), yIntersection)
-				&& isSmallerOrEqual(yIntersection, Math.max(yLine1Point0, yLine1Point1))) {
-			return true;
-		}
-		return false;
+	private static CompactConflictGraph computeConflictGraph(IncrementalConflictGraphBuilder conflictGraphBuilder, 
+			int xMin, int xMax, int yMin, int yMax) {
+		return computeConflictGraph(conflictGraphBuilder, xMin, xMax, yMin, yMax, System.out);
 	}
-	
 
-	private static boolean isSmallerOrEqual(double x0, double x1) {
-		if (equals(x0, x1)) {
-			return true;
-		}
-		if (x0 < x1) {
-			return true;
-		}
-		return false;
+	/**
+	 * Same as {@link StackedTrianglesMain#computeConflictGraph(IncrementalConflictGraphBuilder, int, int, int, int)}
+	 * with the progress output going to log
+	 */
+	private static CompactConflictGraph computeConflictGraph(IncrementalConflictGraphBuilder conflictGraphBuilder, 
+			int xMin, int xMax, int yMin, int yMax, PrintStream log) {
+		CompactConflictGraph conflictGraph = conflictGraphBuilder.grow(xMin, xMax, yMin, yMax, 
+				Math.max(xMax-yMin+1, yMax-yMin+1));
+		
+		long counterConflicts = conflictGraph.getEdgeCount();
+		long numberOfGridPoints = conflictGraphBuilder.getTable().size();
+		long counterNoConflicts = numberOfGridPoints * (numberOfGridPoints - 1) / 2 - counterConflicts;
+		log.println(new Date()+": Found "+counterConflicts+" times a conflict and "+counterNoConflicts+" times no conflict");
+		log.println("Conflict graph has "+conflictGraph.getVertexCount()+" vertices and "+conflictGraph.getEdgeCount()+" edges");
+		printDegrees(conflictGraph, log);
+		return conflictGraph;
 	}
 	
-	private static boolean equals(double x0, double x1) {
-		if (Math.abs(x0-x1) <= COMPARISON_TOLERANCE) {
-			return true;
+	private static void printDegrees(CompactConflictGraph conflictGraph, PrintStream log) {
+		long degreeSum = 0;
+		int minDegree = Integer.MAX_VALUE;
+		int maxDegree = 0;
+		for (int v = 0; v < conflictGraph.getNumberOfIndices(); ++v) {
+			if (conflictGraph.isVertex(v)) {
+				int degreeOfV = conflictGraph.degree(v);
+				degreeSum += degreeOfV;
+				minDegree = Math.min(minDegree, degreeOfV);
+				maxDegree = Math.max(maxDegree, degreeOfV);
+			}
 		}
-		return false;
+		double avgDegree = (double)degreeSum / (double)conflictGraph.getVertexCount();
+		log.println("Average degree of conflict graph is "+avgDegree+", min is "+minDegree+", max is "+maxDegree);
 	}
-	
-	/*
-	 * with type BigDecimal
-	 */
-	
-//	private static boolean touches(double xLine0Point0Double, double yLine0Point0Double, double xLine0Point1Double, double yLine0Point1Double, 
-//			double xLine1Point0Double, double yLine1Point0Double, double xLine1Point1Double, double yLine1Point1Double) {
-//		BigDecimal xLine0Point0 = new BigDecimal(xLine0Point0Double);
-//		BigDecimal yLine0Point0 = new BigDecimal(yLine0Point0Double);
-//		BigDecimal xLine0Point1 = new BigDecimal(xLine0Point1Double);
-//		BigDecimal yLine0Point1 = new BigDecimal(yLine0Point1Double);
-//		BigDecimal xLine1Point0 = new BigDecimal(xLine1Point0Double);
-//		BigDecimal yLine1Point0 = new BigDecimal(yLine1Point0Double);
-//		BigDecimal xLine1Point1 = new BigDecimal(xLine1Point1Double);
-//		BigDecimal yLine1Point1 = new BigDecimal(yLine1Point1Double);
-//		//Uses Cramer's rule to find the intersection point of the 2 lines defined by those 4 points
-//		//see: https://de.wikipedia.org/wiki/Schnittpunkt
-//		//Note: Parallelness is currently not checked
-//		if (((yLine1Point1.subtract(yLine1Point0)).multiply((xLine0Point1.subtract(xLine0Point0)))
-//				.subtract((yLine0Point1.subtract(yLine0Point0)).multiply((xLine1Point1.subtract(xLine1Point0)))))
-//				.compareTo(new BigDecimal(0)) == 0 ||
-//				((yLine1Point1.subtract(yLine1Point0)).multiply((xLine0Point1.subtract(xLine0Point0)))
-//				.subtract((yLine0Point1.subtract(yLine0Point0)).multiply((xLine1Point1.subtract(xLine1Point0)))))
-//				.compareTo(new BigDecimal(0)) == 0) {
-//				/*
-//				 * if one divisor equals 0, then the two lines are parallel. 
-//				 * Assume here that the segments are not on the same line -> no conflict
-//				 */
-//			return false;
-//		}
-//		BigDecimal xIntersection = ((xLine1Point1.subtract(xLine1Point0)).multiply((xLine0Point1.multiply(yLine0Point0).subtract(xLine0Point0.multiply(yLine0Point1)))) 
-//					.subtract((xLine0Point1.subtract(xLine0Point0)).multiply((xLine1Point1.multiply(yLine1Point0).subtract(xLine1Point0.multiply(yLine1Point1))))))
-//					.divide(((yLine1Point1.subtract(yLine1Point0)).multiply((xLine0Point1.subtract(xLine0Point0))) 
-//					.subtract((yLine0Point1.subtract(yLine0Point0)).multiply((xLine1Point1.subtract(xLine1Point0))))), 20, RoundingMode.HALF_EVEN);
-//		BigDecimal yIntersection = ((yLine0Point0.subtract(yLine0Point1)).multiply((xLine1Point1.multiply(yLine1Point0).subtract(xLine1Point0.multiply(yLine1Point1)))) 
-//					.subtract((yLine1Point0.subtract(yLine1Point1)).multiply((xLine0Point1.multiply(yLine0Point0).subtract(xLine0Point0.multiply(yLine0Point1))))))
-//					.divide(((yLine1Point1.subtract(yLine1Point0)).multiply((xLine0Point1.subtract(xLine0Point0))) 
-//					.subtract((yLine0Point1.subtract(yLine0Point0)).multiply((xLine1Point1.subtract(xLine1Point0))))), 20, RoundingMode.HALF_EVEN);
-//		
-//		//it touches only if the intersection point is in between the bounding points of the line segments
-//		if (isSmallerOrEqual(xLine0Point0.min(xLine0Point1), xIntersection) 
-//				&& isSmallerOrEqual(xIntersection, xLine0Point0.max(xLine0Point1))
-//				&& isSmallerOrEqual(yLine0Point0.min(yLine0Point1), yIntersection) 
-//				&& isSmallerOrEqual(yIntersection, yLine0Point0.max(yLine0Point1))
-//				&& isSmallerOrEqual(xLine1Point0.min(xLine1Point1), xIntersection) 
-//				&& isSmallerOrEqual(xIntersection, xLine1Point0.max(xLine1Point1))
-//				&& isSmallerOrEqual(yLine1Point0.min(yLine1Point1), yIntersection)
-//				&& isSmallerOrEqual(yIntersection, yLine1Point0.max(yLine1Point1))) {
-//			return true;
-//		}
-//		return false;
-//	}
-//	
-//
-//	private static boolean isSmallerOrEqual(BigDecimal x0, BigDecimal x1) {
-//		if (equals(x0, x1)) {
-//			return true;
-//		}
-//		if (x0.compareTo(x1) < 0) {
-//			return true;
-//		}
-//		return false;
-//	}
-//	
-//	private static boolean equals(BigDecimal x0, BigDecimal x1) {
-//		if (x0.subtract(x1).abs().compareTo(new BigDecimal(COMPARISON_TOLERANCE)) <= 0) {
-//			return true;
-//		}
-//		return false;
-//	}
-	
+
 }
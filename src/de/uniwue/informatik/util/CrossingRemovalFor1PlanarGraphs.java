@@ -21,6 +21,7 @@ public class CrossingRemovalFor1PlanarGraphs {
 	 */
 	public static Collection<Pair<Pair<VData<String>>>> removeCrossings(EmbeddedUndirectedGraph<VData<String>, String> embedded1planarGraph, 
 			Collection<VData<String>> crossingVertices) {
+		PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.CROSSING_REMOVAL);
 		LinkedHashSet<Pair<Pair<VData<String>>>> removedEdges = new LinkedHashSet<>();
 		for (VData<String> crossingVertex : crossingVertices) {
 			assert embedded1planarGraph.degree(crossingVertex) == 4 : "Vertex >"+crossingVertex+"< is no valid crossing vertex because"
@@ -35,6 +36,7 @@ public class CrossingRemovalFor1PlanarGraphs {
 			//remove vertex with incident edges
 			embedded1planarGraph.removeVertex(crossingVertex);
 		}
+		phase.end(embedded1planarGraph);
 		return removedEdges;
 	}
 }
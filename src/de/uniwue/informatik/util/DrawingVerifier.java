@@ -0,0 +1,786 @@
+package de.uniwue.informatik.util;
+
+import java.awt.geom.Point2D;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import de.uniwue.informatik.algorithms.layout.GridLayout;
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+import de.uniwue.informatik.algorithms.layout.PolylineLayout;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * Checks a finished drawing on the integer grid: finds all crossings of edges, whether they are at right angles
+ * and the number of bends of each edge.
+ * <p>
+ * Each edge of the drawing is a polyline. It is either taken directly from a {@link PolylineLayout} or
+ * assembled from a {@link GridLayout} in which bends and crossings are dummy vertices
+ * (as after {@link de.uniwue.informatik.algorithms.layout.HarelSardas#reinsertCrossingEdgesInNICplanarCase}).
+ * <p>
+ * The crossings are found by a Bentley-Ottmann sweep over all segments in O((n + k) log n) time
+ * (n segments, k intersection points). All predicates are exact: event points are rational numbers,
+ * computed in long arithmetic (and via {@link BigInteger} where products may not fit into a long).
+ * The absolute values of all coordinates must not exceed {@link DrawingVerifier#MAX_ABS_COORDINATE} = 2^29,
+ * which is far beyond the grids of the drawing algorithms (linear in the number of vertices).
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class DrawingVerifier<V, E> {
+
+	/**
+	 * With this bound the differences of coordinates have at most 30 bits, so sums of two products of such
+	 * differences (slopes, orientations, the determinants of intersection points) fit into a long.
+	 * The coordinates of intersection points have up to three times as many bits; they switch to
+	 * {@link BigInteger} where they do not fit into a long.
+	 */
+	public static final int MAX_ABS_COORDINATE = 1 << 29;
+
+	/**
+	 * Point where (at least) two edges cross.
+	 * A common endpoint of two edges is no crossing; an edge passing through an endpoint of another edge is.
+	 */
+	public static class Crossing<E> {
+		private E edge;
+		private E otherEdge;
+		private Point2D.Double point;
+		private boolean rightAngle;
+
+		private Crossing(E edge, E otherEdge, Point2D.Double point, boolean rightAngle) {
+			this.edge = edge;
+			this.otherEdge = otherEdge;
+			this.point = point;
+			this.rightAngle = rightAngle;
+		}
+
+		public E getEdge() {
+			return edge;
+		}
+
+		public E getOtherEdge() {
+			return otherEdge;
+		}
+
+		public Point2D.Double getPoint() {
+			return point;
+		}
+
+		/**
+		 * @return
+		 * 		true if each segment of the one edge containing the crossing point is orthogonal to each segment of
+		 * 		the other edge containing the crossing point
+		 */
+		public boolean isRightAngle() {
+			return rightAngle;
+		}
+
+		@Override
+		public String toString() {
+			return "Crossing["+edge+" x "+otherEdge+" at ("+point.x+","+point.y+")"+(rightAngle ? "" : ", not RAC")+"]";
+		}
+	}
+
+	private ArrayList<E> edges = new ArrayList<>();
+	private ArrayList<Pair<V>> endpoints = new ArrayList<>();
+	private ArrayList<int[]> polylines = new ArrayList<>();
+
+	private List<Crossing<E>> crossings;
+	private Map<E, Integer> numberOfBends;
+
+	private DrawingVerifier() {
+	}
+
+	/**
+	 * @param layout
+	 * @return
+	 * 		verifier for the edges of the passed layout, each drawn as polyline through its bends
+	 */
+	public static <V, E> DrawingVerifier<V, E> forPolylineLayout(PolylineLayout<V, E> layout) {
+		DrawingVerifier<V, E> verifier = new DrawingVerifier<>();
+		for (E e : layout.getGraph().getEdges()) {
+			verifier.addEdge(e, layout.getGraph().getEndpoints(e), layout.getPolyline(e));
+		}
+		return verifier;
+	}
+
+	/**
+	 * The edges of the drawing are the paths between the regular vertices (vertices not in
+	 * bendAndCrossingVertices) in the graph of the layout.
+	 * A path passes a dummy vertex of degree 2 (bend) and continues straight through a dummy vertex of degree 4
+	 * (crossing), i.e., at the incident edge opposite in the circular order of the drawing.
+	 * Each path is represented by its edge (part) incident to its first endpoint.
+	 * Isolated dummy vertices are ignored.
+	 *
+	 * @param layout
+	 * @param bendAndCrossingVertices
+	 * 		dummy vertices of the drawing, may be null if there are none
+	 * @return
+	 */
+	public static <V, E> DrawingVerifier<V, E> forGridLayout(GridLayout<V, E> layout,
+			Collection<V> bendAndCrossingVertices) {
+		DrawingVerifier<V, E> verifier = new DrawingVerifier<>();
+		Graph<V, E> graph = layout.getGraph();
+		Set<V> dummies = bendAndCrossingVertices == null ? Collections.<V>emptySet()
+				: new HashSet<>(bendAndCrossingVertices);
+		for (V dummy : dummies) {
+			if (graph.containsVertex(dummy) && graph.degree(dummy) != 0 && graph.degree(dummy) != 2 
+					&& graph.degree(dummy) != 4) {
+				throw new IllegalArgumentException("Dummy vertex "+dummy+" has degree "+graph.degree(dummy)
+						+", but bends must have degree 2 and crossings degree 4.");
+			}
+		}
+		Set<E> edgePartsDone = new HashSet<>();
+		for (V start : graph.getVertices()) {
+			if (dummies.contains(start)) {
+				continue;
+			}
+			for (E firstPart : graph.getIncidentEdges(start)) {
+				if (edgePartsDone.contains(firstPart)) {
+					continue;
+				}
+				int[] polyline = new int[] {layout.apply(start).getX(), layout.apply(start).getY()};
+				E current = firstPart;
+				V next = graph.getOpposite(start, firstPart);
+				edgePartsDone.add(firstPart);
+				while (dummies.contains(next)) {
+					polyline = append(polyline, layout.apply(next));
+					E following = null;
+					if (graph.degree(next) == 2) {
+						for (E incidentEdge : graph.getIncidentEdges(next)) {
+							if (!incidentEdge.equals(current)) {
+								following = incidentEdge;
+							}
+						}
+					}
+					else {
+						following = getOppositeEdge(layout, next, current);
+					}
+					if (!edgePartsDone.add(following)) {
+						throw new IllegalArgumentException("Edge parts through dummy vertex "+next+" form a cycle.");
+					}
+					next = graph.getOpposite(next, following);
+					current = following;
+				}
+				polyline = append(polyline, layout.apply(next));
+				verifier.addEdge(firstPart, new Pair<V>(start, next), polyline);
+			}
+		}
+		return verifier;
+	}
+
+	private static int[] append(int[] polyline, GridPoint p) {
+		int[] extended = Arrays.copyOf(polyline, polyline.length + 2);
+		extended[polyline.length] = p.getX();
+		extended[polyline.length + 1] = p.getY();
+		return extended;
+	}
+
+	/**
+	 * @return
+	 * 		the edge at crossingVertex (degree 4) that is opposite to edge in the circular order of the edges
+	 * 		around crossingVertex in the drawing
+	 */
+	private static <V, E> E getOppositeEdge(GridLayout<V, E> layout, V crossingVertex, E edge) {
+		final GridPoint center = layout.apply(crossingVertex);
+		final Graph<V, E> graph = layout.getGraph();
+		final Map<E, GridPoint> otherEnd = new HashMap<>();
+		for (E incidentEdge : graph.getIncidentEdges(crossingVertex)) {
+			otherEnd.put(incidentEdge, layout.apply(graph.getOpposite(crossingVertex, incidentEdge)));
+		}
+		ArrayList<E> circularOrder = new ArrayList<>(otherEnd.keySet());
+		Collections.sort(circularOrder, new Comparator<E>() {
+			@Override
+			public int compare(E e0, E e1) {
+				long x0 = otherEnd.get(e0).getX() - center.getX(), y0 = otherEnd.get(e0).getY() - center.getY();
+				long x1 = otherEnd.get(e1).getX() - center.getX(), y1 = otherEnd.get(e1).getY() - center.getY();
+				int halfPlane0 = y0 > 0 || (y0 == 0 && x0 > 0) ? 0 : 1;
+				int halfPlane1 = y1 > 0 || (y1 == 0 && x1 > 0) ? 0 : 1;
+				if (halfPlane0 != halfPlane1) {
+					return Integer.compare(halfPlane0, halfPlane1);
+				}
+				return -Long.signum(x0 * y1 - y0 * x1);
+			}
+		});
+		return circularOrder.get((circularOrder.indexOf(edge) + 2) % 4);
+	}
+
+	private void addEdge(E edge, Pair<V> endpointsOfEdge, int[] polyline) {
+		for (int coordinate : polyline) {
+			if (Math.abs(coordinate) > MAX_ABS_COORDINATE) {
+				throw new IllegalArgumentException("Coordinate "+coordinate+" of edge "+edge+" exceeds the maximum "
+						+ "absolute value "+MAX_ABS_COORDINATE+".");
+			}
+		}
+		edges.add(edge);
+		endpoints.add(endpointsOfEdge);
+		polylines.add(polyline);
+	}
+
+	/*
+	 * Results
+	 */
+
+	/**
+	 * @return
+	 * 		all crossings, each pair of edges crossing at one point once
+	 */
+	public List<Crossing<E>> getCrossings() {
+		verify();
+		return Collections.unmodifiableList(crossings);
+	}
+
+	public List<Crossing<E>> getCrossingsNotAtRightAngles() {
+		List<Crossing<E>> notRightAngles = new ArrayList<>();
+		for (Crossing<E> crossing : getCrossings()) {
+			if (!crossing.isRightAngle()) {
+				notRightAngles.add(crossing);
+			}
+		}
+		return notRightAngles;
+	}
+
+	/**
+	 * @return
+	 * 		number of points where the polyline of the edge changes its direction
+	 */
+	public int getNumberOfBends(E edge) {
+		verify();
+		Integer bends = numberOfBends.get(edge);
+		if (bends == null) {
+			throw new IllegalArgumentException("Edge "+edge+" is not part of the verified drawing.");
+		}
+		return bends;
+	}
+
+	public int getMaxNumberOfBendsPerEdge() {
+		verify();
+		int max = 0;
+		for (int bends : numberOfBends.values()) {
+			max = Math.max(max, bends);
+		}
+		return max;
+	}
+
+	public boolean isRAC() {
+		return getCrossingsNotAtRightAngles().isEmpty();
+	}
+
+	/**
+	 * @return
+	 * 		true if each edge is crossed at most once
+	 */
+	public boolean isOnePlanar() {
+		Set<E> crossedEdges = new HashSet<>();
+		for (Crossing<E> crossing : getCrossings()) {
+			if (!crossedEdges.add(crossing.getEdge()) || !crossedEdges.add(crossing.getOtherEdge())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return
+	 * 		true if the drawing is 1-planar and the endpoints of two distinct crossings (their kites) share at most
+	 * 		one vertex
+	 */
+	public boolean isNICPlanar() {
+		if (!isOnePlanar()) {
+			return false;
+		}
+		Map<E, Pair<V>> endpointsOfEdge = new HashMap<>();
+		for (int i = 0; i < edges.size(); i++) {
+			endpointsOfEdge.put(edges.get(i), endpoints.get(i));
+		}
+		Map<V, List<Integer>> crossingsAtVertex = new HashMap<>();
+		List<Crossing<E>> allCrossings = getCrossings();
+		for (int i = 0; i < allCrossings.size(); i++) {
+			Set<V> kite = new HashSet<>();
+			kite.addAll(endpointsOfEdge.get(allCrossings.get(i).getEdge()));
+			kite.addAll(endpointsOfEdge.get(allCrossings.get(i).getOtherEdge()));
+			Set<Integer> otherCrossingsSharingAVertex = new HashSet<>();
+			for (V v : kite) {
+				List<Integer> crossingsAtV = crossingsAtVertex.get(v);
+				if (crossingsAtV == null) {
+					crossingsAtV = new ArrayList<>();
+					crossingsAtVertex.put(v, crossingsAtV);
+				}
+				for (int other : crossingsAtV) {
+					if (!otherCrossingsSharingAVertex.add(other)) {
+						return false;
+					}
+				}
+				crossingsAtV.add(i);
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Computation
+	 */
+
+	private void verify() {
+		if (crossings != null) {
+			return;
+		}
+		numberOfBends = new LinkedHashMap<>();
+		for (int i = 0; i < edges.size(); i++) {
+			numberOfBends.put(edges.get(i), countBends(polylines.get(i)));
+		}
+		crossings = new Sweep().run();
+	}
+
+	private static int countBends(int[] polyline) {
+		int bends = 0;
+		long lastDx = 0, lastDy = 0;
+		for (int i = 0; i + 3 < polyline.length; i += 2) {
+			long dx = polyline[i+2] - polyline[i];
+			long dy = polyline[i+3] - polyline[i+1];
+			if (dx == 0 && dy == 0) {
+				continue;
+			}
+			if ((lastDx != 0 || lastDy != 0) && (lastDx * dy - lastDy * dx != 0 || lastDx * dx + lastDy * dy < 0)) {
+				++bends;
+			}
+			lastDx = dx;
+			lastDy = dy;
+		}
+		return bends;
+	}
+
+	/**
+	 * Segment of the polyline of an edge. The left endpoint (x1, y1) is lexicographically smaller than (x2, y2).
+	 */
+	private static class Segment {
+		private int id;
+		private int edgeIndex;
+		private long x1, y1, x2, y2;
+		private long dx, dy;
+		/**
+		 * Is the left/right endpoint an endpoint of the whole edge (a vertex)?
+		 */
+		private boolean leftIsVertex, rightIsVertex;
+		private boolean probe;
+	}
+
+	/**
+	 * Rational point (xNum / den, yNum / den), den > 0.
+	 * The numbers are longs, only if they do not fit into longs (intersection points on very large grids) they are
+	 * {@link BigInteger}s.
+	 */
+	private static class EventPoint implements Comparable<EventPoint> {
+		/**
+		 * Only valid if not {@link EventPoint#big}
+		 */
+		private long xNum, yNum, den;
+		private boolean big;
+		/**
+		 * Only set if {@link EventPoint#big}
+		 */
+		private BigInteger bigXNum, bigYNum, bigDen;
+		private List<Segment> starting = new ArrayList<>(2);
+		private List<Segment> ending = new ArrayList<>(2);
+
+		private EventPoint(long xNum, long yNum, long den) {
+			if (den < 0) {
+				xNum = -xNum;
+				yNum = -yNum;
+				den = -den;
+			}
+			if (den != 1) {
+				long gcd = gcd(gcd(Math.abs(xNum), Math.abs(yNum)), den);
+				if (gcd > 1) {
+					xNum /= gcd;
+					yNum /= gcd;
+					den /= gcd;
+				}
+			}
+			this.xNum = xNum;
+			this.yNum = yNum;
+			this.den = den;
+		}
+
+		private EventPoint(BigInteger xNum, BigInteger yNum, BigInteger den) {
+			if (den.signum() < 0) {
+				xNum = xNum.negate();
+				yNum = yNum.negate();
+				den = den.negate();
+			}
+			BigInteger gcd = xNum.gcd(yNum).gcd(den);
+			if (gcd.compareTo(BigInteger.ONE) > 0) {
+				xNum = xNum.divide(gcd);
+				yNum = yNum.divide(gcd);
+				den = den.divide(gcd);
+			}
+			if (xNum.bitLength() < 64 && yNum.bitLength() < 64 && den.bitLength() < 64) {
+				this.xNum = xNum.longValue();
+				this.yNum = yNum.longValue();
+				this.den = den.longValue();
+			}
+			else {
+				this.big = true;
+				this.bigXNum = xNum;
+				this.bigYNum = yNum;
+				this.bigDen = den;
+			}
+		}
+
+		/**
+		 * Points with integer coordinates are never {@link EventPoint#big} (they are bounded by
+		 * {@link DrawingVerifier#MAX_ABS_COORDINATE})
+		 */
+		private boolean isInteger() {
+			return !big && den == 1;
+		}
+
+		private BigInteger getBigXNum() {
+			return big ? bigXNum : BigInteger.valueOf(xNum);
+		}
+
+		private BigInteger getBigYNum() {
+			return big ? bigYNum : BigInteger.valueOf(yNum);
+		}
+
+		private BigInteger getBigDen() {
+			return big ? bigDen : BigInteger.valueOf(den);
+		}
+
+		@Override
+		public int compareTo(EventPoint o) {
+			if (!big && !o.big) {
+				int compareX = SegmentIntersection.compareProducts(xNum, o.den, o.xNum, den);
+				return compareX != 0 ? compareX : SegmentIntersection.compareProducts(yNum, o.den, o.yNum, den);
+			}
+			int compareX = getBigXNum().multiply(o.getBigDen()).compareTo(o.getBigXNum().multiply(getBigDen()));
+			return compareX != 0 ? compareX
+					: getBigYNum().multiply(o.getBigDen()).compareTo(o.getBigYNum().multiply(getBigDen()));
+		}
+
+		private Point2D.Double toPoint2D() {
+			if (!big) {
+				return new Point2D.Double((double) xNum / den, (double) yNum / den);
+			}
+			BigDecimal den = new BigDecimal(bigDen);
+			return new Point2D.Double(new BigDecimal(bigXNum).divide(den, MathContext.DECIMAL64).doubleValue(),
+					new BigDecimal(bigYNum).divide(den, MathContext.DECIMAL64).doubleValue());
+		}
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * Bentley-Ottmann sweep from left to right (ties by y from bottom to top).
+	 * The status structure orders the segments intersecting the sweep line at the current event point p
+	 * by their y-coordinate at x(p); a vertical segment lies at y(p).
+	 * Segments with the same y-coordinate y* are ordered by slope: ascending if y* is already passed
+	 * (y* < y(p) or y* = y(p) after handling p), descending otherwise.
+	 */
+	private class Sweep {
+		private TreeMap<EventPoint, EventPoint> events = new TreeMap<>();
+		private TreeSet<Segment> status;
+		private EventPoint current;
+		private boolean afterCurrent;
+		private Segment probe = new Segment();
+		private List<Crossing<E>> result = new ArrayList<>();
+
+		private List<Crossing<E>> run() {
+			probe.probe = true;
+			probe.id = -1;
+			status = new TreeSet<>(new Comparator<Segment>() {
+				@Override
+				public int compare(Segment a, Segment b) {
+					return compareInStatus(a, b);
+				}
+			});
+			int segmentId = 0;
+			for (int edgeIndex = 0; edgeIndex < polylines.size(); edgeIndex++) {
+				int[] polyline = polylines.get(edgeIndex);
+				for (int i = 0; i + 3 < polyline.length; i += 2) {
+					if (polyline[i] == polyline[i+2] && polyline[i+1] == polyline[i+3]) {
+						continue;
+					}
+					Segment s = new Segment();
+					s.id = segmentId++;
+					s.edgeIndex = edgeIndex;
+					boolean reversed = polyline[i] > polyline[i+2] || (polyline[i] == polyline[i+2] && polyline[i+1] > polyline[i+3]);
+					int left = reversed ? i + 2 : i;
+					int right = reversed ? i : i + 2;
+					s.x1 = polyline[left];
+					s.y1 = polyline[left+1];
+					s.x2 = polyline[right];
+					s.y2 = polyline[right+1];
+					s.dx = s.x2 - s.x1;
+					s.dy = s.y2 - s.y1;
+					s.leftIsVertex = isEndpoint(polyline, s.x1, s.y1);
+					s.rightIsVertex = isEndpoint(polyline, s.x2, s.y2);
+					getEvent(new EventPoint(s.x1, s.y1, 1)).starting.add(s);
+					getEvent(new EventPoint(s.x2, s.y2, 1)).ending.add(s);
+				}
+			}
+			while (!events.isEmpty()) {
+				handleEvent(events.pollFirstEntry().getKey());
+			}
+			return result;
+		}
+
+		private boolean isEndpoint(int[] polyline, long x, long y) {
+			return (polyline[0] == x && polyline[1] == y)
+					|| (polyline[polyline.length - 2] == x && polyline[polyline.length - 1] == y);
+		}
+
+		private EventPoint getEvent(EventPoint p) {
+			EventPoint existing = events.get(p);
+			if (existing == null) {
+				events.put(p, p);
+				existing = p;
+			}
+			return existing;
+		}
+
+		private void handleEvent(EventPoint p) {
+			current = p;
+			afterCurrent = false;
+			//all segments in the status containing p (including those ending in p) are consecutive
+			List<Segment> containing = new ArrayList<>();
+			Segment s = status.ceiling(probe);
+			while (s != null && compareToCurrent(s) == 0) {
+				containing.add(s);
+				s = status.higher(s);
+			}
+			List<Segment> atP = new ArrayList<>(containing);
+			atP.addAll(p.starting);
+			reportCrossings(p, atP);
+
+			status.removeAll(containing);
+			afterCurrent = true;
+			List<Segment> inserted = new ArrayList<>(p.starting);
+			for (Segment c : containing) {
+				if (!p.ending.contains(c)) {
+					inserted.add(c);
+				}
+			}
+			status.addAll(inserted);
+			if (inserted.isEmpty()) {
+				Segment below = status.lower(probe);
+				Segment above = status.ceiling(probe);
+				findNewEvent(below, above);
+			}
+			else {
+				Segment lowest = Collections.min(inserted, status.comparator());
+				Segment highest = Collections.max(inserted, status.comparator());
+				findNewEvent(status.lower(lowest), lowest);
+				findNewEvent(highest, status.higher(highest));
+			}
+		}
+
+		private void reportCrossings(EventPoint p, List<Segment> atP) {
+			if (atP.size() < 2) {
+				return;
+			}
+			Map<Integer, List<Segment>> segmentsOfEdge = new LinkedHashMap<>();
+			for (Segment s : atP) {
+				List<Segment> segments = segmentsOfEdge.get(s.edgeIndex);
+				if (segments == null) {
+					segments = new ArrayList<>(2);
+					segmentsOfEdge.put(s.edgeIndex, segments);
+				}
+				segments.add(s);
+			}
+			List<Integer> edgeIndices = new ArrayList<>(segmentsOfEdge.keySet());
+			for (int i = 0; i < edgeIndices.size(); i++) {
+				List<Segment> segmentsI = segmentsOfEdge.get(edgeIndices.get(i));
+				for (int j = i + 1; j < edgeIndices.size(); j++) {
+					List<Segment> segmentsJ = segmentsOfEdge.get(edgeIndices.get(j));
+					if (isVertexAt(segmentsI, p) && isVertexAt(segmentsJ, p)) {
+						//common endpoint
+						continue;
+					}
+					boolean rightAngle = true;
+					boolean onlyInnerPointOfOverlap = true;
+					for (Segment a : segmentsI) {
+						for (Segment b : segmentsJ) {
+							rightAngle &= a.dx * b.dx + a.dy * b.dy == 0;
+							onlyInnerPointOfOverlap &= a.dx * b.dy - a.dy * b.dx == 0 && !isEndpoint(a, p) && !isEndpoint(b, p);
+						}
+					}
+					if (onlyInnerPointOfOverlap) {
+						//overlapping edges are reported where the overlap starts or ends, not in between
+						continue;
+					}
+					int first = Math.min(edgeIndices.get(i), edgeIndices.get(j));
+					int second = Math.max(edgeIndices.get(i), edgeIndices.get(j));
+					result.add(new Crossing<E>(edges.get(first), edges.get(second), p.toPoint2D(), rightAngle));
+				}
+			}
+		}
+
+		private boolean isEndpoint(Segment s, EventPoint p) {
+			return p.isInteger() && ((s.x1 == p.xNum && s.y1 == p.yNum) || (s.x2 == p.xNum && s.y2 == p.yNum));
+		}
+
+		private boolean isVertexAt(List<Segment> segments, EventPoint p) {
+			if (!p.isInteger()) {
+				return false;
+			}
+			for (Segment s : segments) {
+				if ((s.leftIsVertex && s.x1 == p.xNum && s.y1 == p.yNum)
+						|| (s.rightIsVertex && s.x2 == p.xNum && s.y2 == p.yNum)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Adds the leftmost common point of a and b right of the current event point as event (if there is one)
+		 */
+		private void findNewEvent(Segment a, Segment b) {
+			if (a == null || b == null) {
+				return;
+			}
+			long denominator = a.dx * b.dy - a.dy * b.dx;
+			long qpx = b.x1 - a.x1, qpy = b.y1 - a.y1;
+			EventPoint intersection;
+			if (denominator == 0) {
+				if (qpx * a.dy - qpy * a.dx != 0) {
+					//parallel
+					return;
+				}
+				//collinear: the common part starts at the larger left endpoint, which already is an event
+				return;
+			}
+			long t = qpx * b.dy - qpy * b.dx;
+			long u = qpx * a.dy - qpy * a.dx;
+			if (denominator < 0) {
+				denominator = -denominator;
+				t = -t;
+				u = -u;
+			}
+			if (t < 0 || t > denominator || u < 0 || u > denominator) {
+				return;
+			}
+			try {
+				intersection = new EventPoint(Math.addExact(Math.multiplyExact(a.x1, denominator), Math.multiplyExact(a.dx, t)),
+						Math.addExact(Math.multiplyExact(a.y1, denominator), Math.multiplyExact(a.dy, t)), denominator);
+			}
+			catch (ArithmeticException e) {
+				BigInteger den = BigInteger.valueOf(denominator);
+				BigInteger bigT = BigInteger.valueOf(t);
+				intersection = new EventPoint(
+						BigInteger.valueOf(a.x1).multiply(den).add(BigInteger.valueOf(a.dx).multiply(bigT)),
+						BigInteger.valueOf(a.y1).multiply(den).add(BigInteger.valueOf(a.dy).multiply(bigT)), den);
+			}
+			if (intersection.compareTo(current) > 0) {
+				getEvent(intersection);
+			}
+		}
+
+		/**
+		 * @return
+		 * 		sign of (y-coordinate of s at x(current)) - y(current); 0 for vertical segments and the probe
+		 */
+		private int compareToCurrent(Segment s) {
+			if (s.probe || s.dx == 0) {
+				return 0;
+			}
+			if (current.isInteger()) {
+				//y1 + (x - x1) * dy / dx - y compared to 0, multiplied by dx > 0
+				return Long.signum((s.y1 - current.yNum) * s.dx + (current.xNum - s.x1) * s.dy);
+			}
+			BigInteger den = current.getBigDen();
+			BigInteger value = BigInteger.valueOf(s.y1).multiply(den).subtract(current.getBigYNum())
+					.multiply(BigInteger.valueOf(s.dx)).add(current.getBigXNum()
+					.subtract(BigInteger.valueOf(s.x1).multiply(den)).multiply(BigInteger.valueOf(s.dy)));
+			return value.signum();
+		}
+
+		/**
+		 * @return
+		 * 		sign of (y-coordinate of a at x(current)) - (y-coordinate of b at x(current))
+		 */
+		private int compareYAtCurrent(Segment a, Segment b) {
+			if (a.probe || a.dx == 0) {
+				return -compareToCurrent(b);
+			}
+			if (b.probe || b.dx == 0) {
+				return compareToCurrent(a);
+			}
+			/*
+			 * y_a = (y1a * dxa * den + (xNum - x1a * den) * dya) / (dxa * den), same for b.
+			 * Compare the numerators multiplied with dxb resp. dxa (both positive).
+			 */
+			if (current.isInteger()) {
+				long numeratorA = a.y1 * a.dx + (current.xNum - a.x1) * a.dy;
+				long numeratorB = b.y1 * b.dx + (current.xNum - b.x1) * b.dy;
+				return SegmentIntersection.compareProducts(numeratorA, b.dx, numeratorB, a.dx);
+			}
+			BigInteger den = current.getBigDen();
+			BigInteger xNum = current.getBigXNum();
+			BigInteger numeratorA = BigInteger.valueOf(a.y1 * a.dx).multiply(den)
+					.add(xNum.subtract(BigInteger.valueOf(a.x1).multiply(den)).multiply(BigInteger.valueOf(a.dy)));
+			BigInteger numeratorB = BigInteger.valueOf(b.y1 * b.dx).multiply(den)
+					.add(xNum.subtract(BigInteger.valueOf(b.x1).multiply(den)).multiply(BigInteger.valueOf(b.dy)));
+			return numeratorA.multiply(BigInteger.valueOf(b.dx)).compareTo(numeratorB.multiply(BigInteger.valueOf(a.dx)));
+		}
+
+		private int compareInStatus(Segment a, Segment b) {
+			if (a == b) {
+				return 0;
+			}
+			int compareY = compareYAtCurrent(a, b);
+			if (compareY != 0) {
+				return compareY;
+			}
+			//the probe lies before all segments through the current event point
+			if (a.probe) {
+				return -1;
+			}
+			if (b.probe) {
+				return 1;
+			}
+			int compareSlopes = compareSlopes(a, b);
+			if (compareSlopes == 0) {
+				//collinear
+				return Integer.compare(a.id, b.id);
+			}
+			int positionOfCommonPoint = a.dx != 0 ? compareToCurrent(a) : compareToCurrent(b);
+			boolean commonPointPassed = positionOfCommonPoint < 0 || (positionOfCommonPoint == 0 && afterCurrent);
+			return commonPointPassed ? compareSlopes : -compareSlopes;
+		}
+
+		/**
+		 * Vertical segments have the largest slope
+		 */
+		private int compareSlopes(Segment a, Segment b) {
+			if (a.dx == 0 || b.dx == 0) {
+				return Boolean.compare(a.dx == 0, b.dx == 0);
+			}
+			return Long.compare(a.dy * b.dx, b.dy * a.dx);
+		}
+	}
+}
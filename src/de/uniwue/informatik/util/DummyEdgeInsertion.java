@@ -8,11 +8,10 @@ import java.util.LinkedHashSet;
 import org.javatuples.Pair;
 import org.javatuples.Triplet;
 
-import de.uniwue.informatik.algorithms.layout.VData;
-import de.uniwue.informatik.algorithms.layout.VData.VType;
 import de.uniwue.informatik.graph.embedding.EdgeSide;
 import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
 import de.uniwue.informatik.graph.embedding.Face;
+import de.uniwue.informatik.util.GraphElementFactory.Origin;
 
 public class DummyEdgeInsertion {
 	
@@ -34,44 +33,45 @@ public class DummyEdgeInsertion {
 	 * @param crossingVertices
 	 * 		Set of crossing vertices. These must be vertices of the passed graph. Only crossings of two edges are allowed, so
 	 * 		each crossing vertex must have exactly four incident edges. Moreover in that case they must satisfy the NIC-condition.
+	 * @param elementFactory
+	 * 		creates the dummy edges and the dummy vertices and edges for splitting
 	 * @return
 	 * 		Inserted dummy edges, but not the split edges (original edges that were split by an dummy vertex)
 	 */
-	public static Collection<String> insertEmptyKites(EmbeddedUndirectedGraph<VData<String>, String> embeddedNICPlanarGraph, 
-			Collection<VData<String>> crossingVertices) {
+	public static <V, E> Collection<E> insertEmptyKites(EmbeddedUndirectedGraph<V, E> embeddedNICPlanarGraph, 
+			Collection<V> crossingVertices, GraphElementFactory<V, E> elementFactory) {
+		PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.KITE_INSERTION);
 
-		LinkedHashSet<String> insertedDummyEdges = new LinkedHashSet<>();
+		LinkedHashSet<E> insertedDummyEdges = new LinkedHashSet<>();
 		
-		for (VData<String> crossingVertex : crossingVertices) {
+		for (V crossingVertex : crossingVertices) {
 			assert embeddedNICPlanarGraph.degree(crossingVertex) == 4 : "Crossing vertices must have degree 4. "
 					+ "(but "+crossingVertex+" has degree "+embeddedNICPlanarGraph.degree(crossingVertex)+")";
 			
 			
-			VData[] v = new VData[4];
-			v[0] = embeddedNICPlanarGraph.getNeighborsInEmbeddingOrder(crossingVertex).get(0).getValue0();
-			v[1] = embeddedNICPlanarGraph.getNeighborsInEmbeddingOrder(crossingVertex).get(1).getValue0();
-			v[2] = embeddedNICPlanarGraph.getNeighborsInEmbeddingOrder(crossingVertex).get(2).getValue0();
-			v[3] = embeddedNICPlanarGraph.getNeighborsInEmbeddingOrder(crossingVertex).get(3).getValue0();
+			ArrayList<V> v = new ArrayList<>(4);
+			for (Pair<V, E> neighbor : embeddedNICPlanarGraph.getNeighborsInEmbeddingOrder(crossingVertex)) {
+				v.add(neighbor.getValue0());
+			}
 			for (int i = 0; i < 4; ++i) {
-				int j = (i+1)%4;
+				V vI = v.get(i);
+				V vJ = v.get((i+1)%4);
 				
 				boolean insertDummyKiteEdge = true;
-				if (embeddedNICPlanarGraph.isNeighbor(v[i], v[j])) {
+				if (embeddedNICPlanarGraph.isNeighbor(vI, vJ)) {
 					//edge is already there
-					if ((embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(v[j], v[i]) + 1) % embeddedNICPlanarGraph.degree(v[i]) 
-							== embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, v[i])
-							&& embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(v[i], v[j])
-							== (embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, v[j]) + 1) 
-							% embeddedNICPlanarGraph.degree(v[j])) {
+					if ((embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(vJ, vI) + 1) % embeddedNICPlanarGraph.degree(vI) 
+							== embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, vI)
+							&& embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(vI, vJ)
+							== (embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, vJ) + 1) 
+							% embeddedNICPlanarGraph.degree(vJ)) {
 						//case 1: it is on the correct spot (direct neighbor to the crossing edges)
 						insertDummyKiteEdge = false;
 					}
 					else {
 						//case 2: it is on the wrong spot -> split the original one and insert the dummy one later, too
-						String edgeToBeSplit = embeddedNICPlanarGraph.findEdge(v[i], v[j]);
-						VData<String> dummySplitVertex = new VData<String>(VType.BEND_POINT);
-						EmbeddedGraphOperations.splitEdgeViaAVertex(embeddedNICPlanarGraph, edgeToBeSplit, dummySplitVertex, 
-								edgeToBeSplit+"-part_0", edgeToBeSplit+"-part_1");
+						E edgeToBeSplit = embeddedNICPlanarGraph.findEdge(vI, vJ);
+						EmbeddedGraphOperations.splitEdgeViaANewVertex(embeddedNICPlanarGraph, edgeToBeSplit, elementFactory);
 					}
 				}
 				//else no edge -> just insert it
@@ -79,22 +79,23 @@ public class DummyEdgeInsertion {
 				
 				if (insertDummyKiteEdge) {
 					//insert edge
-					String dummyEdge = "kite-dummy-edge-"+v[i]+"-"+v[j];
-					embeddedNICPlanarGraph.addEdge(dummyEdge, v[i], embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, v[i]),
-							v[j], embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, v[j]) + 1);
+					E dummyEdge = elementFactory.newEdge(Origin.KITE_DUMMY_EDGE);
+					embeddedNICPlanarGraph.addEdge(dummyEdge, vI, embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, vI),
+							vJ, embeddedNICPlanarGraph.getVertexIndexInEmbeddingList(crossingVertex, vJ) + 1);
 					insertedDummyEdges.add(dummyEdge);
 					
 					//if the crossing was on the outer face one of the two new faces is the new outer face
 					//an face of the empty kite must not be the outer face. If so -> neighbor will be the outer face
 					if (embeddedNICPlanarGraph.getOuterFace().containsVertex(crossingVertex)) {
-						Face<VData<String>, String> oldOuterFace = embeddedNICPlanarGraph.getOuterFace();
-						Face<VData<String>, String> newOuterFace = embeddedNICPlanarGraph.getLeftIncidentFace(dummyEdge).equals(oldOuterFace) ?
+						Face<V, E> oldOuterFace = embeddedNICPlanarGraph.getOuterFace();
+						Face<V, E> newOuterFace = embeddedNICPlanarGraph.getLeftIncidentFace(dummyEdge).equals(oldOuterFace) ?
 								embeddedNICPlanarGraph.getRightIncidentFace(dummyEdge) : embeddedNICPlanarGraph.getLeftIncidentFace(dummyEdge);
 						embeddedNICPlanarGraph.setOuterFace(newOuterFace);
 					}
 				}
 			}
 		}
+		phase.end(embeddedNICPlanarGraph);
 		return insertedDummyEdges;
 	}
 	
@@ -110,24 +111,25 @@ public class DummyEdgeInsertion {
 	 * 
 	 * @param embeddedGraph
 	 * 		Embedded graph in which to insert these stars.
+	 * @param elementFactory
+	 * 		creates the dummy vertices and dummy edges
 	 * @return
 	 * 		Collection of dummy vertices that were added (the edges adjacent to them are exactly the dummy edges)
 	 */
-	public static Collection<VData<String>> starTriangulateGraph(EmbeddedUndirectedGraph<VData<String>, String> embeddedGraph) {
-		ArrayList<Pair<Pair<VData<String>, VData<String>>, Pair<String, String>>> dummyEdgesToBeAddedPlusSurroundingEdges = 
+	public static <V, E> Collection<V> starTriangulateGraph(EmbeddedUndirectedGraph<V, E> embeddedGraph, 
+			GraphElementFactory<V, E> elementFactory) {
+		ArrayList<Pair<Pair<V, V>, Pair<E, E>>> dummyEdgesToBeAddedPlusSurroundingEdges = 
 				new ArrayList<>(2 * embeddedGraph.getEdges().size());
-		HashSet<VData<String>> dummyVertices = new LinkedHashSet<>();
+		HashSet<V> dummyVertices = new LinkedHashSet<>();
 		
 		//find at first edges to be added
-		int dummyVertexCounter = 0;
-		int dummyEdgeCounter = 0;
-		for (Face<VData<String>, String> face : embeddedGraph.getFaces()) {
+		for (Face<V, E> face : embeddedGraph.getFaces()) {
 			if (face.size() > 3) {
-				VData<String> centralDummyVertex = new VData<String>("dummy_v_"+(dummyVertexCounter++));
+				V centralDummyVertex = elementFactory.newVertex(Origin.STAR_CENTER_VERTEX);
 				dummyVertices.add(centralDummyVertex);
-				String prevEdge = face.get(face.size() - 1).getValue0();
-				for (Triplet<String, EdgeSide, edu.uci.ics.jung.graph.util.Pair<VData<String>>> edgeData : face) {
-					VData<String> targetVertex = edgeData.getValue1() == 
+				E prevEdge = face.get(face.size() - 1).getValue0();
+				for (Triplet<E, EdgeSide, edu.uci.ics.jung.graph.util.Pair<V>> edgeData : face) {
+					V targetVertex = edgeData.getValue1() == 
 							EdgeSide.LEFT ? edgeData.getValue2().getFirst() : edgeData.getValue2().getSecond();
 					dummyEdgesToBeAddedPlusSurroundingEdges.add(
 							new Pair<>(new Pair<>(centralDummyVertex, targetVertex), new Pair<>(prevEdge, edgeData.getValue0())));
@@ -137,27 +139,25 @@ public class DummyEdgeInsertion {
 		}
 		
 		//add vertices
-		for (VData<String> dummyVertex : dummyVertices) {
+		for (V dummyVertex : dummyVertices) {
 			embeddedGraph.addVertex(dummyVertex);
 		}
 		
 		//add edges
-		for (Pair<Pair<VData<String>, VData<String>>, Pair<String, String>> edgeData : dummyEdgesToBeAddedPlusSurroundingEdges) {
-			VData<String> centralDummyVertex = edgeData.getValue0().getValue0();
-			VData<String> targetVertex = edgeData.getValue0().getValue1();
+		for (Pair<Pair<V, V>, Pair<E, E>> edgeData : dummyEdgesToBeAddedPlusSurroundingEdges) {
+			V centralDummyVertex = edgeData.getValue0().getValue0();
+			V targetVertex = edgeData.getValue0().getValue1();
 			int indexAtCentralDummyVertex = embeddedGraph.degree(centralDummyVertex);
 			int indexAtTargetVertex = (embeddedGraph.getVertexIndexInEmbeddingList(embeddedGraph.getOpposite(
 					targetVertex, edgeData.getValue1().getValue1()), targetVertex) + 1) % embeddedGraph.degree(targetVertex);
 			if (embeddedGraph.isNeighbor(centralDummyVertex, targetVertex)) {
 				//avoid multiple edges by splitting the existing edge and then inserting that new one
-				String edgeToBeSplit = embeddedGraph.findEdge(centralDummyVertex, targetVertex);
-				VData<String> splittingDummyVertex = new VData<String>(VType.BEND_POINT);
-				dummyVertices.add(splittingDummyVertex);
-				EmbeddedGraphOperations.splitEdgeViaAVertex(embeddedGraph, edgeToBeSplit, splittingDummyVertex, 
-						"firstPartOf_"+edgeToBeSplit, "secondPartOf_"+edgeToBeSplit);		
+				E edgeToBeSplit = embeddedGraph.findEdge(centralDummyVertex, targetVertex);
+				dummyVertices.add(EmbeddedGraphOperations.splitEdgeViaANewVertex(embeddedGraph, edgeToBeSplit, elementFactory)
+						.getValue1());
 			}
 			//now add the new one
-			embeddedGraph.addEdge("dummy_e_"+(dummyEdgeCounter++), centralDummyVertex, indexAtCentralDummyVertex, targetVertex, indexAtTargetVertex);
+			embeddedGraph.addEdge(elementFactory.newEdge(Origin.STAR_DUMMY_EDGE), centralDummyVertex, indexAtCentralDummyVertex, targetVertex, indexAtTargetVertex);
 		}
 		
 		return dummyVertices;
@@ -0,0 +1,509 @@
+package de.uniwue.informatik.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.javatuples.Pair;
+
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.algorithms.layout.VData.VType;
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.graph.embedding.Face;
+
+/**
+ * Generators for embedded graphs of arbitrary size (in addition to the hand-made sketches in
+ * {@link de.uniwue.informatik.main.DrawGraphs}).
+ * All graphs are built in linear time as a rotation system via
+ * {@link EmbeddedUndirectedGraph#fromRotationSystem(Map)} instead of inserting the edges one after another.
+ * The regular vertices are named "v0", "v1", ..., the edges "e0", "e1", ...
+ * The random generators are deterministic for a fixed seed.
+ *
+ * @author Johannes
+ *
+ */
+public class EmbeddedGraphGenerator {
+
+	/**
+	 * Cycle v0, v1, ..., v(n-1). Edge ei connects v(i-1) and vi, e0 connects v(n-1) and v0.
+	 */
+	public static EmbeddedUndirectedGraph<VData<String>, String> getCycle(int numberOfVertices) {
+		if (numberOfVertices < 3) {
+			throw new IllegalArgumentException("A cycle needs at least 3 vertices, but "+numberOfVertices
+					+" were requested.");
+		}
+		List<VData<String>> vertex = createVertices(numberOfVertices);
+		Map<VData<String>, List<Pair<VData<String>, String>>> rotationSystem = new LinkedHashMap<>();
+		for (int i = 0; i < numberOfVertices; ++i) {
+			int next = (i + 1) % numberOfVertices;
+			int prev = (i - 1 + numberOfVertices) % numberOfVertices;
+			rotationSystem.put(vertex.get(i), rotation(vertex.get(next), "e"+next, vertex.get(prev), "e"+i));
+		}
+		return EmbeddedUndirectedGraph.fromRotationSystem(rotationSystem);
+	}
+
+	/**
+	 * Wheel with the hub v0 and the rim v1, ..., vk (k = numberOfRimVertices).
+	 * Edge ei (i = 1, ..., k) connects the hub and vi, edge e(k+i) connects vi and v(i+1) (and v1 for i = k).
+	 * The outer face is the rim.
+	 */
+	public static EmbeddedUndirectedGraph<VData<String>, String> getWheel(int numberOfRimVertices) {
+		int k = numberOfRimVertices;
+		if (k < 3) {
+			throw new IllegalArgumentException("A wheel needs at least 3 rim vertices, but "+k+" were requested.");
+		}
+		List<VData<String>> vertex = createVertices(k + 1);
+		Map<VData<String>, List<Pair<VData<String>, String>>> rotationSystem = new LinkedHashMap<>();
+		List<Pair<VData<String>, String>> hubNeighbors = new ArrayList<>(k);
+		for (int i = 1; i <= k; ++i) {
+			hubNeighbors.add(new Pair<>(vertex.get(i), "e"+i));
+		}
+		rotationSystem.put(vertex.get(0), hubNeighbors);
+		for (int i = 1; i <= k; ++i) {
+			int next = i % k + 1;
+			int prev = (i + k - 2) % k + 1;
+			rotationSystem.put(vertex.get(i), rotation(vertex.get(next), "e"+(k + i), vertex.get(0), "e"+i,
+					vertex.get(prev), "e"+(k + prev)));
+		}
+		EmbeddedUndirectedGraph<VData<String>, String> graph = EmbeddedUndirectedGraph.fromRotationSystem(rotationSystem);
+		setOuterFace(graph, "e"+(k + 1), vertex.get(0), false);
+		return graph;
+	}
+
+	/**
+	 * Nested triangles a_i b_i c_i (i = 0, ..., k-1 from outside to inside) where a_i, b_i, c_i are adjacent to
+	 * a_(i+1), b_(i+1), c_(i+1), respectively.
+	 * a_i is named "v(3i)", b_i "v(3i+1)" and c_i "v(3i+2)".
+	 * The outer face is the outermost triangle.
+	 *
+	 * @param triangulated
+	 * 		if true, the quadrangles between two consecutive triangles are divided by the edges a_i b_(i+1),
+	 * 		b_i c_(i+1) and c_i a_(i+1), so the graph is maximal planar
+	 */
+	public static EmbeddedUndirectedGraph<VData<String>, String> getNestedTriangles(int numberOfTriangles,
+			boolean triangulated) {
+		int k = numberOfTriangles;
+		if (k < 1) {
+			throw new IllegalArgumentException("Number of triangles must be positive, but is "+k+".");
+		}
+		List<VData<String>> vertex = createVertices(3 * k);
+		//edge ids: triangle side j of ring i (from corner j to corner j+1), the edge from corner j of ring i to
+		//corner j of ring i+1 and the diagonal from corner j of ring i to corner j+1 of ring i+1
+		int edgesPerRing = triangulated ? 9 : 6;
+		Map<VData<String>, List<Pair<VData<String>, String>>> rotationSystem = new LinkedHashMap<>();
+		for (int i = 0; i < k; ++i) {
+			for (int j = 0; j < 3; ++j) {
+				int next = (j + 1) % 3;
+				int prev = (j + 2) % 3;
+				//counterclockwise with corner 0 on top, corner 1 on the bottom left and corner 2 on the bottom right
+				List<Pair<VData<String>, String>> neighbors = new ArrayList<>(6);
+				if (i > 0) {
+					neighbors.add(new Pair<>(vertex.get(3 * (i - 1) + j), "e"+(edgesPerRing * (i - 1) + 3 + j)));
+				}
+				neighbors.add(new Pair<>(vertex.get(3 * i + next), "e"+(edgesPerRing * i + j)));
+				if (i < k - 1) {
+					if (triangulated) {
+						neighbors.add(new Pair<>(vertex.get(3 * (i + 1) + next), "e"+(edgesPerRing * i + 6 + j)));
+					}
+					neighbors.add(new Pair<>(vertex.get(3 * (i + 1) + j), "e"+(edgesPerRing * i + 3 + j)));
+				}
+				neighbors.add(new Pair<>(vertex.get(3 * i + prev), "e"+(edgesPerRing * i + prev)));
+				if (triangulated && i > 0) {
+					neighbors.add(new Pair<>(vertex.get(3 * (i - 1) + prev), "e"+(edgesPerRing * (i - 1) + 6 + prev)));
+				}
+				rotationSystem.put(vertex.get(3 * i + j), neighbors);
+			}
+		}
+		EmbeddedUndirectedGraph<VData<String>, String> graph = EmbeddedUndirectedGraph.fromRotationSystem(rotationSystem);
+		setOuterFace(graph, "e0", vertex.get(2), true);
+		return graph;
+	}
+
+	/**
+	 * Random maximal planar graph (triangulation) with numberOfVertices vertices.
+	 * Starting with the outer triangle v0 v1 v2, each further vertex is inserted into a uniformly chosen inner
+	 * face. Afterwards, as many random inner edges as there are edges are tried to be flipped (an edge is not
+	 * flipped if that would create a multi-edge), which balances the degrees of the early vertices.
+	 * The outer face is v0 v1 v2.
+	 */
+	public static EmbeddedUndirectedGraph<VData<String>, String> getRandomMaximalPlanarGraph(int numberOfVertices,
+			long seed) {
+		Triangulation triangulation = new Triangulation(numberOfVertices, new Random(seed));
+		List<VData<String>> vertex = createVertices(numberOfVertices);
+		return triangulation.toEmbeddedGraph(vertex, null).getValue0();
+	}
+
+	/**
+	 * Random NIC-planar graph in its planarized form: each crossing is a crossing vertex of degree 4
+	 * (of {@link VType#CROSSING_POINT}) as expected by {@link DummyEdgeInsertion#insertEmptyKites} and
+	 * {@link CrossingRemovalFor1PlanarGraphs#removeCrossings}.
+	 * <p>
+	 * It is created from a random maximal planar graph (see
+	 * {@link EmbeddedGraphGenerator#getRandomMaximalPlanarGraph(int, long)}) with numberOfVertices regular
+	 * vertices: in random order, an inner edge uv with the incident faces uvx and vuy becomes the crossing of
+	 * uv and xy if
+	 * <ul>
+	 *   <li> x and y are not adjacent,
+	 *   <li> the kite u, x, v, y shares at most one vertex with each kite chosen before (NIC-planarity),
+	 *   <li> no edge of the kite is on the outer face and
+	 *   <li> a random number in [0, 1) is less than crossingDensity.
+	 * </ul>
+	 * So crossingDensity = 1 gives a maximal set of crossings (for this order) and 0 a maximal planar graph.
+	 * The kites are the empty kites of the crossings.
+	 *
+	 * @return
+	 * 		value0 = embedded graph, value1 = crossing vertices in that graph
+	 */
+	public static Pair<EmbeddedUndirectedGraph<VData<String>, String>, LinkedHashSet<VData<String>>>
+			getRandomNICPlanarGraph(int numberOfVertices, double crossingDensity, long seed) {
+		if (crossingDensity < 0 || crossingDensity > 1) {
+			throw new IllegalArgumentException("Crossing density must be in [0, 1], but is "+crossingDensity+".");
+		}
+		Random random = new Random(seed);
+		Triangulation triangulation = new Triangulation(numberOfVertices, random);
+		boolean[] crossed = triangulation.chooseNICPlanarCrossings(crossingDensity, random);
+		List<VData<String>> vertex = createVertices(numberOfVertices);
+		return triangulation.toEmbeddedGraph(vertex, crossed);
+	}
+
+	private static List<VData<String>> createVertices(int numberOfVertices) {
+		List<VData<String>> vertex = new ArrayList<>(numberOfVertices);
+		for (int i = 0; i < numberOfVertices; ++i) {
+			vertex.add(new VData<String>("v"+i));
+		}
+		return vertex;
+	}
+
+	private static List<Pair<VData<String>, String>> rotation(Object... neighborsAndEdges) {
+		List<Pair<VData<String>, String>> neighbors = new ArrayList<>(neighborsAndEdges.length / 2);
+		for (int i = 0; i < neighborsAndEdges.length; i += 2) {
+			@SuppressWarnings("unchecked")
+			VData<String> neighbor = (VData<String>) neighborsAndEdges[i];
+			neighbors.add(new Pair<>(neighbor, (String) neighborsAndEdges[i + 1]));
+		}
+		return neighbors;
+	}
+
+	private static <V, E> void insertAfter(List<Pair<V, E>> neighbors, V neighbor, Pair<V, E> inserted) {
+		for (int i = 0; i < neighbors.size(); ++i) {
+			if (neighbors.get(i).getValue0().equals(neighbor)) {
+				neighbors.add(i + 1, inserted);
+				return;
+			}
+		}
+		throw new IllegalStateException(neighbor+" is no neighbor.");
+	}
+
+	/**
+	 * Sets the face at edge that contains (if containsVertex) or does not contain vertex as outer face
+	 */
+	private static <V, E> void setOuterFace(EmbeddedUndirectedGraph<V, E> graph, E edge, V vertex,
+			boolean containsVertex) {
+		Face<V, E> leftFace = graph.getLeftIncidentFace(edge);
+		graph.setOuterFace(leftFace.containsVertex(vertex) == containsVertex ? leftFace
+				: graph.getRightIncidentFace(edge));
+	}
+
+	/**
+	 * Triangulation as doubly connected edge list.
+	 * The half-edges of edge e are 2e and 2e+1 (so the twin of h is h^1).
+	 * Each face is traversed along next; the outer face has the id {@link Triangulation#OUTER_FACE}.
+	 */
+	private static class Triangulation {
+
+		private static final int OUTER_FACE = -1;
+
+		private final int numberOfVertices;
+		private final int numberOfEdges;
+		private final int[] origin;
+		private final int[] next;
+		private final int[] face;
+		/**
+		 * One half-edge of each inner face
+		 */
+		private final int[] faceEdge;
+		/**
+		 * One outgoing half-edge of each vertex
+		 */
+		private final int[] vertexEdge;
+		/**
+		 * Keys of all edges (see {@link Triangulation#key(int, int)})
+		 */
+		private final Set<Long> edges;
+		private int edgeCount = 0;
+		private int faceCount = 0;
+
+		private Triangulation(int numberOfVertices, Random random) {
+			if (numberOfVertices < 3) {
+				throw new IllegalArgumentException("A triangulation needs at least 3 vertices, but "+numberOfVertices
+						+" were requested.");
+			}
+			this.numberOfVertices = numberOfVertices;
+			this.numberOfEdges = 3 * numberOfVertices - 6;
+			origin = new int[2 * numberOfEdges];
+			next = new int[2 * numberOfEdges];
+			face = new int[2 * numberOfEdges];
+			faceEdge = new int[2 * numberOfVertices - 5];
+			vertexEdge = new int[numberOfVertices];
+			edges = new HashSet<>(2 * numberOfEdges);
+
+			//outer triangle: inner face 0 -> 1 -> 2, outer face 1 -> 0 -> 2
+			int e01 = addEdge(0, 1);
+			int e12 = addEdge(1, 2);
+			int e20 = addEdge(2, 0);
+			setFace(addFace(), 2 * e01, 2 * e12, 2 * e20);
+			setFace(OUTER_FACE, 2 * e01 + 1, 2 * e20 + 1, 2 * e12 + 1);
+
+			for (int v = 3; v < numberOfVertices; ++v) {
+				insertVertex(v, random.nextInt(faceCount));
+			}
+			for (int i = 0; i < numberOfEdges; ++i) {
+				flip(random.nextInt(numberOfEdges));
+			}
+		}
+
+		private static long key(int u, int v) {
+			return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+		}
+
+		private int destination(int halfEdge) {
+			return origin[halfEdge ^ 1];
+		}
+
+		private int addEdge(int u, int v) {
+			int e = edgeCount++;
+			origin[2 * e] = u;
+			origin[2 * e + 1] = v;
+			vertexEdge[u] = 2 * e;
+			vertexEdge[v] = 2 * e + 1;
+			edges.add(key(u, v));
+			return e;
+		}
+
+		private int addFace() {
+			return faceCount++;
+		}
+
+		private void setFace(int f, int h0, int h1, int h2) {
+			next[h0] = h1;
+			next[h1] = h2;
+			next[h2] = h0;
+			face[h0] = f;
+			face[h1] = f;
+			face[h2] = f;
+			if (f != OUTER_FACE) {
+				faceEdge[f] = h0;
+			}
+		}
+
+		/**
+		 * Splits face f = x y z into x y v, y z v and z x v
+		 */
+		private void insertVertex(int v, int f) {
+			int xy = faceEdge[f];
+			int yz = next[xy];
+			int zx = next[yz];
+			int x = origin[xy];
+			int y = origin[yz];
+			int z = origin[zx];
+			//half-edges 2e from x, y, z to v
+			int xv = 2 * addEdge(x, v);
+			int yv = 2 * addEdge(y, v);
+			int zv = 2 * addEdge(z, v);
+			setFace(f, xy, yv, xv ^ 1);
+			setFace(addFace(), yz, zv, yv ^ 1);
+			setFace(addFace(), zx, xv, zv ^ 1);
+		}
+
+		/**
+		 * Replaces the inner edge uv with the incident faces uvx and vuy by xy, unless x and y are adjacent
+		 */
+		private void flip(int e) {
+			int uv = 2 * e;
+			int vu = uv ^ 1;
+			if (face[uv] == OUTER_FACE || face[vu] == OUTER_FACE) {
+				return;
+			}
+			int vx = next[uv];
+			int xu = next[vx];
+			int uy = next[vu];
+			int yv = next[uy];
+			int u = origin[uv];
+			int v = origin[vu];
+			int x = origin[xu];
+			int y = origin[yv];
+			if (edges.contains(key(x, y))) {
+				return;
+			}
+			edges.remove(key(u, v));
+			edges.add(key(x, y));
+			//uv becomes yx, vu becomes xy
+			origin[uv] = y;
+			origin[vu] = x;
+			if (vertexEdge[u] == uv) {
+				vertexEdge[u] = uy;
+			}
+			if (vertexEdge[v] == vu) {
+				vertexEdge[v] = vx;
+			}
+			setFace(face[uv], uv, xu, uy);
+			setFace(face[vu], vu, yv, vx);
+		}
+
+		/**
+		 * @return
+		 * 		for each edge if it becomes a crossing (see
+		 * 		{@link EmbeddedGraphGenerator#getRandomNICPlanarGraph(int, double, long)})
+		 */
+		private boolean[] chooseNICPlanarCrossings(double crossingDensity, Random random) {
+			boolean[] crossed = new boolean[numberOfEdges];
+			//kites (numbered in the order they are chosen) containing each vertex
+			int[][] kitesOfVertex = new int[numberOfVertices][];
+			int[] numberOfKitesOfVertex = new int[numberOfVertices];
+			int kiteCount = 0;
+
+			int[] order = new int[numberOfEdges];
+			for (int i = 0; i < numberOfEdges; ++i) {
+				order[i] = i;
+			}
+			for (int i = numberOfEdges - 1; i > 0; --i) {
+				int j = random.nextInt(i + 1);
+				int tmp = order[i];
+				order[i] = order[j];
+				order[j] = tmp;
+			}
+			for (int e : order) {
+				int uv = 2 * e;
+				int vu = uv ^ 1;
+				int vx = next[uv];
+				int xu = next[vx];
+				int uy = next[vu];
+				int yv = next[uy];
+				if (face[uv] == OUTER_FACE || face[vu] == OUTER_FACE || face[vx ^ 1] == OUTER_FACE
+						|| face[xu ^ 1] == OUTER_FACE || face[uy ^ 1] == OUTER_FACE || face[yv ^ 1] == OUTER_FACE) {
+					continue;
+				}
+				int[] kite = {origin[uv], origin[xu], origin[vu], origin[yv]}; //u, x, v, y
+				if (edges.contains(key(kite[1], kite[3])) || sharesTwoVerticesWithAKite(kite, kitesOfVertex,
+						numberOfKitesOfVertex)) {
+					continue;
+				}
+				if (random.nextDouble() >= crossingDensity) {
+					continue;
+				}
+				crossed[e] = true;
+				for (int w : kite) {
+					if (kitesOfVertex[w] == null) {
+						kitesOfVertex[w] = new int[2];
+					}
+					else if (numberOfKitesOfVertex[w] == kitesOfVertex[w].length) {
+						kitesOfVertex[w] = Arrays.copyOf(kitesOfVertex[w], 2 * kitesOfVertex[w].length);
+					}
+					kitesOfVertex[w][numberOfKitesOfVertex[w]++] = kiteCount;
+				}
+				++kiteCount;
+			}
+			return crossed;
+		}
+
+		private static boolean sharesTwoVerticesWithAKite(int[] kite, int[][] kitesOfVertex,
+				int[] numberOfKitesOfVertex) {
+			Set<Integer> kitesSeen = new HashSet<>();
+			for (int w : kite) {
+				for (int i = 0; i < numberOfKitesOfVertex[w]; ++i) {
+					if (!kitesSeen.add(kitesOfVertex[w][i])) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @param crossed
+		 * 		edges that are replaced by a crossing vertex adjacent to the four vertices of the kite
+		 * 		(null for none)
+		 * @return
+		 * 		value0 = embedded graph, value1 = crossing vertices in that graph
+		 */
+		private Pair<EmbeddedUndirectedGraph<VData<String>, String>, LinkedHashSet<VData<String>>> toEmbeddedGraph(
+				List<VData<String>> vertex, boolean[] crossed) {
+			//crossing vertex of each crossed edge and its edges to u, x, v, y (for the half-edge uv)
+			VData<String>[] crossingVertexOfEdge = null;
+			String[][] crossingEdges = null;
+			LinkedHashSet<VData<String>> crossingVertices = new LinkedHashSet<>();
+			int edgeCounter = 0;
+			String[] edgeName = new String[numberOfEdges];
+			for (int e = 0; e < numberOfEdges; ++e) {
+				if (crossed == null || !crossed[e]) {
+					edgeName[e] = "e"+(edgeCounter++);
+				}
+			}
+			if (crossed != null) {
+				@SuppressWarnings({"unchecked", "rawtypes"})
+				VData<String>[] newArray = new VData[numberOfEdges];
+				crossingVertexOfEdge = newArray;
+				crossingEdges = new String[numberOfEdges][];
+				for (int e = 0; e < numberOfEdges; ++e) {
+					if (crossed[e]) {
+						crossingVertexOfEdge[e] = new VData<String>(VType.CROSSING_POINT);
+						crossingVertices.add(crossingVertexOfEdge[e]);
+						crossingEdges[e] = new String[] {"e"+(edgeCounter++), "e"+(edgeCounter++),
+								"e"+(edgeCounter++), "e"+(edgeCounter++)};
+					}
+				}
+			}
+
+			Map<VData<String>, List<Pair<VData<String>, String>>> rotationSystem = new LinkedHashMap<>();
+			for (int v = 0; v < numberOfVertices; ++v) {
+				List<Pair<VData<String>, String>> neighbors = new ArrayList<>();
+				int h = vertexEdge[v];
+				do {
+					int e = h >> 1;
+					if (crossed != null && crossed[e]) {
+						//toward the crossing vertex; the edge to the origin of 2e is the first, of 2e+1 the third
+						neighbors.add(new Pair<>(crossingVertexOfEdge[e], crossingEdges[e][2 * (h & 1)]));
+					}
+					else {
+						neighbors.add(new Pair<>(vertex.get(destination(h)), edgeName[e]));
+					}
+					h = next[h ^ 1];
+				} while (h != vertexEdge[v]);
+				rotationSystem.put(vertex.get(v), neighbors);
+			}
+			if (crossed != null) {
+				for (int e = 0; e < numberOfEdges; ++e) {
+					if (crossed[e]) {
+						//u, x, v, y in the order of the rotation around the other vertices
+						int uv = 2 * e;
+						int x = origin[next[next[uv]]];
+						int y = origin[next[next[uv ^ 1]]];
+						rotationSystem.put(crossingVertexOfEdge[e], rotation(vertex.get(origin[uv]), crossingEdges[e][0],
+								vertex.get(x), crossingEdges[e][1], vertex.get(destination(uv)), crossingEdges[e][2],
+								vertex.get(y), crossingEdges[e][3]));
+					}
+				}
+				//the edges x c and y c lie in the faces uvx and vuy, i.e., after v at x and after u at y
+				for (int e = 0; e < numberOfEdges; ++e) {
+					if (crossed[e]) {
+						int uv = 2 * e;
+						insertAfter(rotationSystem.get(vertex.get(origin[next[next[uv]]])), vertex.get(destination(uv)),
+								new Pair<>(crossingVertexOfEdge[e], crossingEdges[e][1]));
+						insertAfter(rotationSystem.get(vertex.get(origin[next[next[uv ^ 1]]])), vertex.get(origin[uv]),
+								new Pair<>(crossingVertexOfEdge[e], crossingEdges[e][3]));
+					}
+				}
+			}
+			EmbeddedUndirectedGraph<VData<String>, String> graph =
+					EmbeddedUndirectedGraph.fromRotationSystem(rotationSystem);
+			setOuterFace(graph, edgeName[0], vertex.get(2), true);
+			return new Pair<>(graph, crossingVertices);
+		}
+	}
+}
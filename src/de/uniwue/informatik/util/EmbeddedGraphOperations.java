@@ -1,9 +1,28 @@
 package de.uniwue.informatik.util;
 
+import org.javatuples.Triplet;
+
 import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import de.uniwue.informatik.util.GraphElementFactory.Origin;
 
 public class EmbeddedGraphOperations {
 	
+	/**
+	 * Splits the passed edge via a new bend point. The new vertex and the two new edges are created by the passed
+	 * factory, the new edges are registered there as derived from the split edge.
+	 * 
+	 * @return
+	 * 		first part, new vertex, second part (the first part is incident to the first endpoint of the split edge)
+	 */
+	public static <V, E> Triplet<E, V, E> splitEdgeViaANewVertex(EmbeddedUndirectedGraph<V, E> embeddedGraph, 
+			E edgeToBeSplit, GraphElementFactory<V, E> elementFactory) {
+		V newVertex = elementFactory.newVertex(Origin.BEND_POINT);
+		E firstPart = elementFactory.newEdge(Origin.SPLIT_EDGE_PART, edgeToBeSplit);
+		E secondPart = elementFactory.newEdge(Origin.SPLIT_EDGE_PART, edgeToBeSplit);
+		splitEdgeViaAVertex(embeddedGraph, edgeToBeSplit, newVertex, firstPart, secondPart);
+		return new Triplet<>(firstPart, newVertex, secondPart);
+	}
+	
 	public static <V, E> void splitEdgeViaAVertex(EmbeddedUndirectedGraph<V, E> embeddedGraph, E edgeToBeSplit, V viaThatVertex, 
 			E newFirstPartOfSplitEdge, E newSecondPartOfSplitEdge) {
 		if (!embeddedGraph.containsVertex(viaThatVertex)) {
@@ -0,0 +1,229 @@
+package de.uniwue.informatik.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+
+import de.uniwue.informatik.algorithms.layout.VData;
+import de.uniwue.informatik.algorithms.layout.VData.VType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * Creates the vertices and edges that the algorithms insert into a graph (dummy edges, parts of split edges,
+ * bend points, ...).
+ * New edges come from a {@link Supplier}, new vertices from a {@link Function} that gets the {@link Origin} of the
+ * new vertex.
+ * Instead of encoding the origin of an element in its name (which becomes longer with each split), the origin
+ * and the edge an edge part was derived from are kept in side tables of this factory.
+ * <p>
+ * The default factory ({@link GraphElementFactory#createDefault()}) creates edges and vertices with short
+ * ids from a counter.
+ * <p>
+ * A factory belongs to a single run of the pipeline (kite insertion, crossing removal, drawing, re-insertion).
+ * Its side tables keep every element it has created, also after the element was removed from the graph, because
+ * the chain of derivations of a split edge runs through the removed edge
+ * (see {@link GraphElementFactory#getOriginalEdge(Object)}).
+ * Hence, create a new factory for each run and drop it together with the drawing of that run instead of reusing
+ * one factory across runs, otherwise the side tables grow with each run.
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class GraphElementFactory<V, E> {
+
+	public enum Origin {
+		/**
+		 * Edge of an empty kite around a crossing (see {@link DummyEdgeInsertion#insertEmptyKites})
+		 */
+		KITE_DUMMY_EDGE,
+		/**
+		 * Edge of a star in a face (see {@link DummyEdgeInsertion#starTriangulateGraph})
+		 */
+		STAR_DUMMY_EDGE,
+		/**
+		 * Edge dividing an empty quadrangle during the biconnected canonical ordering
+		 */
+		QUADRANGLE_DUMMY_EDGE,
+		/**
+		 * Edge to a shift vertex
+		 */
+		SHIFT_VERTEX_EDGE,
+		/**
+		 * Part of an edge that was split via a new vertex
+		 */
+		SPLIT_EDGE_PART,
+		/**
+		 * Part of a re-inserted crossing edge (between its endpoints, bend point and crossing point)
+		 */
+		CROSSING_EDGE_PART,
+		/**
+		 * Re-inserted crossing edge as a whole (polyline with bends, see
+		 * {@link de.uniwue.informatik.algorithms.layout.PolylineLayout})
+		 */
+		CROSSING_EDGE,
+		/**
+		 * Center of a star in a face
+		 */
+		STAR_CENTER_VERTEX,
+		/**
+		 * Vertex inserted in the biconnected canonical ordering to shift its neighbors apart
+		 */
+		SHIFT_VERTEX,
+		BEND_POINT,
+		CROSSING_POINT
+	}
+
+	private final Supplier<E> edgeSupplier;
+	private final Function<Origin, V> vertexSupplier;
+
+	private final Map<E, Origin> edgeOrigins = new HashMap<>();
+	private final Map<E, E> edgeDerivedFrom = new HashMap<>();
+	private final Map<E, Pair<V>> edgeDerivedFromRemovedEdge = new HashMap<>();
+	private final Map<V, Origin> vertexOrigins = new HashMap<>();
+
+	/**
+	 * @param edgeSupplier
+	 * 		must return a new edge object at each call
+	 * @param vertexSupplier
+	 * 		must return a new vertex object at each call
+	 */
+	public GraphElementFactory(Supplier<E> edgeSupplier, Function<Origin, V> vertexSupplier) {
+		if (edgeSupplier == null || vertexSupplier == null) {
+			throw new IllegalArgumentException("Suppliers of a GraphElementFactory may not be null.");
+		}
+		this.edgeSupplier = edgeSupplier;
+		this.vertexSupplier = vertexSupplier;
+	}
+
+	/**
+	 * @return
+	 * 		factory creating edges "#0", "#1", ... and vertices ({@link VData}) of the type corresponding to their
+	 * 		origin. Regular dummy vertices (shift vertices, star centers) have data "#v0", "#v1", ...
+	 * 		<p>
+	 * 		Note that the graph keeps its vertices and edges in hash maps, so the order in which they are iterated
+	 * 		(and thus e.g. written to a drawing) depends on these names. It differs from the order with the former
+	 * 		descriptive names ("dummyE_btw._...", "firstPartOf_...", ...), but it is still the same in each run.
+	 */
+	public static GraphElementFactory<VData<String>, String> createDefault() {
+		return new GraphElementFactory<VData<String>, String>(new Supplier<String>() {
+			private int counter = 0;
+
+			@Override
+			public String get() {
+				return "#"+(counter++);
+			}
+		}, new Function<Origin, VData<String>>() {
+			private int counter = 0;
+
+			@Override
+			public VData<String> apply(Origin origin) {
+				switch (origin) {
+				case BEND_POINT:
+					return new VData<String>(VType.BEND_POINT);
+				case CROSSING_POINT:
+					return new VData<String>(VType.CROSSING_POINT);
+				default:
+					return new VData<String>("#v"+(counter++));
+				}
+			}
+		});
+	}
+
+	public E newEdge(Origin origin) {
+		E edge = edgeSupplier.get();
+		edgeOrigins.put(edge, origin);
+		return edge;
+	}
+
+	/**
+	 * @param origin
+	 * @param derivedFrom
+	 * 		edge that is (partly) replaced by the new edge, e.g. the edge that was split
+	 * @return
+	 */
+	public E newEdge(Origin origin, E derivedFrom) {
+		E edge = newEdge(origin);
+		if (derivedFrom != null) {
+			edgeDerivedFrom.put(edge, derivedFrom);
+		}
+		return edge;
+	}
+
+	/**
+	 * For edges replacing an edge that is no longer an object of the graph (e.g. the parts of a removed crossing
+	 * edge that is re-inserted)
+	 * 
+	 * @param origin
+	 * @param endpointsOfRemovedEdge
+	 * 		endpoints of the edge that is (partly) replaced by the new edge
+	 * @return
+	 */
+	public E newEdge(Origin origin, Pair<V> endpointsOfRemovedEdge) {
+		E edge = newEdge(origin);
+		if (endpointsOfRemovedEdge != null) {
+			edgeDerivedFromRemovedEdge.put(edge, endpointsOfRemovedEdge);
+		}
+		return edge;
+	}
+
+	public V newVertex(Origin origin) {
+		V vertex = vertexSupplier.apply(origin);
+		vertexOrigins.put(vertex, origin);
+		return vertex;
+	}
+
+	/**
+	 * @param edge
+	 * @return
+	 * 		null if the edge was not created by this factory
+	 */
+	public Origin getOrigin(E edge) {
+		return edgeOrigins.get(edge);
+	}
+
+	/**
+	 * @param vertex
+	 * @return
+	 * 		null if the vertex was not created by this factory
+	 */
+	public Origin getVertexOrigin(V vertex) {
+		return vertexOrigins.get(vertex);
+	}
+
+	/**
+	 * @param edge
+	 * @return
+	 * 		the edge the passed edge was directly derived from or null if there is none
+	 */
+	public E getDerivedFrom(E edge) {
+		return edgeDerivedFrom.get(edge);
+	}
+
+	/**
+	 * @param edge
+	 * @return
+	 * 		endpoints of the removed edge the passed edge (or an edge it was derived from) was created for via
+	 * 		{@link GraphElementFactory#newEdge(Origin, Pair)} or null if there is none
+	 */
+	public Pair<V> getEndpointsOfRemovedEdge(E edge) {
+		return edgeDerivedFromRemovedEdge.get(getOriginalEdge(edge));
+	}
+
+	/**
+	 * @param edge
+	 * @return
+	 * 		the edge at the beginning of the chain of derivations (the passed edge itself if it was not derived)
+	 */
+	public E getOriginalEdge(E edge) {
+		E derivedFrom = edgeDerivedFrom.get(edge);
+		while (derivedFrom != null) {
+			edge = derivedFrom;
+			derivedFrom = edgeDerivedFrom.get(edge);
+		}
+		return edge;
+	}
+}
@@ -0,0 +1,94 @@
+package de.uniwue.informatik.util;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import de.uniwue.informatik.algorithms.layout.AbstractGridLayout;
+import edu.uci.ics.jung.algorithms.layout.Layout;
+import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.VisualizationServer;
+import edu.uci.ics.jung.visualization.picking.ShapePickSupport;
+
+/**
+ * Picking of vertices for a {@link edu.uci.ics.jung.visualization.VisualizationViewer} showing a layout
+ * created from a grid layout (e.g. via {@link AbstractGridLayout#transformToFloatingPointLayout()}).
+ * Instead of testing the shapes of all vertices (as {@link ShapePickSupport} does), only the vertices found by
+ * the spatial index of the grid layout close to the picked point/area are tested.
+ * Edges are picked as in {@link ShapePickSupport}.
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class GridPickSupport<V, E> extends ShapePickSupport<V, E> {
+
+	private AbstractGridLayout<V, E> gridLayout;
+	/**
+	 * Vertex shapes are assumed to fit into a square of this side length (in view coordinates)
+	 */
+	private double maxVertexShapeSize;
+
+	public GridPickSupport(VisualizationServer<V, E> vv, AbstractGridLayout<V, E> gridLayout) {
+		this(vv, gridLayout, 40);
+	}
+
+	public GridPickSupport(VisualizationServer<V, E> vv, AbstractGridLayout<V, E> gridLayout,
+			double maxVertexShapeSize) {
+		super(vv);
+		this.gridLayout = gridLayout;
+		this.maxVertexShapeSize = maxVertexShapeSize;
+	}
+
+	@Override
+	public V getVertex(Layout<V, E> layout, double x, double y) {
+		double radius = maxVertexShapeSize / 2 + pickSize;
+		V closest = null;
+		double minDistance = Double.MAX_VALUE;
+		for (V v : getCandidates(layout, new Rectangle2D.Double(x - radius, y - radius, 2 * radius, 2 * radius))) {
+			Point2D p = vv.getRenderContext().getMultiLayerTransformer().transform(Layer.LAYOUT, layout.apply(v));
+			Shape shape = AffineTransform.getTranslateInstance(p.getX(), p.getY())
+					.createTransformedShape(vv.getRenderContext().getVertexShapeTransformer().apply(v));
+			if (shape.contains(x, y) && p.distance(x, y) < minDistance) {
+				closest = v;
+				minDistance = p.distance(x, y);
+			}
+		}
+		return closest;
+	}
+
+	@Override
+	public Collection<V> getVertices(Layout<V, E> layout, Shape shape) {
+		Collection<V> pickedVertices = new ArrayList<>();
+		for (V v : getCandidates(layout, shape.getBounds2D())) {
+			Point2D p = vv.getRenderContext().getMultiLayerTransformer().transform(Layer.LAYOUT, layout.apply(v));
+			if (shape.contains(p)) {
+				pickedVertices.add(v);
+			}
+		}
+		return pickedVertices;
+	}
+
+	/**
+	 * @param viewArea
+	 * 		area in view coordinates
+	 * @return
+	 * 		vertices of layout within the layout coordinates of viewArea (according to the spatial index)
+	 */
+	private Collection<V> getCandidates(Layout<V, E> layout, Rectangle2D viewArea) {
+		Shape layoutArea = vv.getRenderContext().getMultiLayerTransformer().inverseTransform(viewArea);
+		Rectangle2D bounds = layoutArea.getBounds2D();
+		Collection<V> candidates = new ArrayList<>();
+		for (V v : gridLayout.getSpatialIndex().getVerticesIn((int) Math.floor(bounds.getMinX()),
+				(int) Math.floor(bounds.getMinY()), (int) Math.ceil(bounds.getMaxX()), (int) Math.ceil(bounds.getMaxY()))) {
+			if (layout.getGraph().containsVertex(v)) {
+				candidates.add(v);
+			}
+		}
+		return candidates;
+	}
+}
@@ -5,6 +5,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Collection;
 
+import de.uniwue.informatik.algorithms.layout.AbstractGridLayout;
+import de.uniwue.informatik.algorithms.layout.PolylineLayout;
 import edu.uci.ics.jung.algorithms.layout.AbstractLayout;
 import edu.uci.ics.jung.graph.util.Pair;
 
@@ -42,6 +44,23 @@ public class IpeFileWriter {
 	 */
 	public static <V, E> void writeFile(String pathWithoutFilename, String fileName, AbstractLayout<V, E> layout, 
 			Collection<V> doNotDrawVertex, boolean addGrid){
+		writeFile(pathWithoutFilename, fileName, layout, doNotDrawVertex, addGrid, null);
+	}
+	
+	/** 
+	 * @param pathWithoutFilename
+	 * @param fileName (endingless)
+	 * Ohne .ipe Ending is added automatically
+	 * @param layout
+	 * @param doNotDrawVertex these vertices are not drawn, may be null then every vertex is drawn
+	 * @param gridLayout grid layout (same coordinates) from which layout was created, may be null.
+	 * If it is a {@link PolylineLayout} each edge is drawn as path through its bends, otherwise as straight line.
+	 * The grid covers the vertices of layout and the bends drawn (not the vertices only in gridLayout).
+	 */
+	public static <V, E> void writeFile(String pathWithoutFilename, String fileName, AbstractLayout<V, E> layout, 
+			Collection<V> doNotDrawVertex, boolean addGrid, AbstractGridLayout<V, E> gridLayout){
+		PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.IPE_EXPORT);
+		PolylineLayout<V, E> polylines = gridLayout instanceof PolylineLayout ? (PolylineLayout<V, E>) gridLayout : null;
 		try {
 			String filePath = pathWithoutFilename+File.separator+fileName+".ipe";
 			File targetFile = new File(filePath);
@@ -68,6 +87,17 @@ public class IpeFileWriter {
 					yMin = Math.min(yMin, layout.getY(v));
 					yMax = Math.max(yMax, layout.getY(v));
 				}
+				if (polylines != null) {
+					for (E e : layout.getGraph().getEdges()) {
+						int[] bends = polylines.getBends(e);
+						for (int i = 0; i < bends.length; i += 2) {
+							xMin = Math.min(xMin, bends[i]);
+							xMax = Math.max(xMax, bends[i]);
+							yMin = Math.min(yMin, bends[i+1]);
+							yMax = Math.max(yMax, bends[i+1]);
+						}
+					}
+				}
 				//add grid lines
 				for (int x = (int) Math.floor(xMin); x <= Math.ceil(xMax); x++) {
 					fw.append(drawIpePath(new double[]{x*xSkal, x*xSkal}, 
@@ -89,8 +119,24 @@ public class IpeFileWriter {
 				V v1 = endpoints.getFirst();
 				V v2 = endpoints.getSecond();
 				
-				fw.append(drawIpeEdge(layout.getX(v1)*xSkal, layout.getY(v1)*ySkal,
-						layout.getX(v2)*xSkal, layout.getY(v2)*ySkal));
+				if (polylines != null && polylines.getNumberOfBends(e) > 0) {
+					int[] bends = polylines.getBends(e);
+					double[] x = new double[bends.length / 2 + 2];
+					double[] y = new double[bends.length / 2 + 2];
+					x[0] = layout.getX(v1)*xSkal;
+					y[0] = layout.getY(v1)*ySkal;
+					for (int i = 0; i < bends.length / 2; i++) {
+						x[i+1] = bends[2*i]*xSkal;
+						y[i+1] = bends[2*i+1]*ySkal;
+					}
+					x[x.length-1] = layout.getX(v2)*xSkal;
+					y[y.length-1] = layout.getY(v2)*ySkal;
+					fw.append(drawIpePath(x, y));
+				}
+				else {
+					fw.append(drawIpeEdge(layout.getX(v1)*xSkal, layout.getY(v1)*ySkal,
+							layout.getX(v2)*xSkal, layout.getY(v2)*ySkal));
+				}
 			}
 			
 			fw.append(IpeDraw.getIpeEnd());
@@ -99,6 +145,7 @@ public class IpeFileWriter {
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		phase.end(layout.getGraph());
 	}
 	
 	
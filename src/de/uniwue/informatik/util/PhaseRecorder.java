@@ -0,0 +1,115 @@
+package de.uniwue.informatik.util;
+
+import de.uniwue.informatik.graph.embedding.EmbeddedUndirectedGraph;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Reports the phases of a drawing run as JDK Flight Recorder events ("de.uniwue.informatik.DrawingPhase"), each
+ * with its duration, the number of vertices, edges and faces of the graph at its end and the bytes allocated by the
+ * thread during the phase.
+ * <p>
+ * Usage:
+ * <pre>
+ * PhaseRecorder phase = PhaseRecorder.begin(PhaseRecorder.Phase.KITE_INSERTION);
+ * ...
+ * phase.end(graph);
+ * </pre>
+ * A phase must be ended by the thread that began it.
+ * The instrumentation is always there, and the events are enabled by default in every recording, e.g. one started
+ * via <code>-XX:StartFlightRecording</code> or <code>jcmd &lt;pid&gt; JFR.start</code>.
+ * As long as no recording is running, {@link #begin(Phase)} returns a shared instance doing nothing, so it costs
+ * (almost) nothing.
+ * <p>
+ * The events need the jdk.jfr API of Java 11, whereas the project is compiled for Java 8. So the events are
+ * implemented in the source folder src-jfr, which is only compiled if the build runs on Java 11 or newer
+ * (profile "jfr" of the pom), and loaded via reflection. Without them (built or run on Java 8, or a runtime
+ * image without the module jdk.jfr) nothing is recorded.
+ *
+ * @author Johannes
+ *
+ */
+public class PhaseRecorder {
+
+	public enum Phase {
+		KITE_INSERTION("Kite insertion"),
+		CROSSING_REMOVAL("Crossing removal"),
+		CANONICAL_ORDERING("Canonical ordering"),
+		/**
+		 * A batch of (at most {@link de.uniwue.informatik.algorithms.layout.HarelSardas#STEP_BATCH_SIZE}) steps of
+		 * the shift algorithm
+		 */
+		SHIFT_STEPS("Shift steps"),
+		GRID_REFINEMENT("Grid refinement"),
+		CROSSING_REINSERTION("Crossing reinsertion"),
+		DUMMY_REMOVAL("Dummy removal"),
+		IPE_EXPORT("Ipe export");
+
+		private final String label;
+
+		private Phase(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+	 * Begins a phase as JFR event; returns null if the event is not enabled (no recording running)
+	 */
+	interface Factory {
+		PhaseRecorder begin(Phase phase);
+	}
+
+	/**
+	 * Implemented in the source folder src-jfr (compiled for Java 11 if the build runs on Java 11 or newer)
+	 */
+	private static final String JFR_FACTORY_CLASS_NAME = "de.uniwue.informatik.util.JfrPhaseRecorder$JfrFactory";
+
+	private static final Factory JFR_FACTORY = loadJfrFactory();
+
+	private static final PhaseRecorder DISABLED = new PhaseRecorder();
+
+	PhaseRecorder() {
+
+	}
+
+	private static Factory loadJfrFactory() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (Factory) Class.forName(JFR_FACTORY_CLASS_NAME).getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError e) {
+			//no jdk.jfr API or built without src-jfr
+			return null;
+		}
+	}
+
+	public static PhaseRecorder begin(Phase phase) {
+		if (JFR_FACTORY == null) {
+			return DISABLED;
+		}
+		PhaseRecorder phaseRecorder = JFR_FACTORY.begin(phase);
+		return phaseRecorder != null ? phaseRecorder : DISABLED;
+	}
+
+	/**
+	 * @param graph
+	 * 		may be null, then no sizes are reported
+	 */
+	public void end(Graph<?, ?> graph) {
+		end(graph, 0);
+	}
+
+	/**
+	 * @param graph
+	 * 		may be null, then no sizes are reported
+	 * @param steps
+	 * 		number of steps of the shift algorithm ({@link Phase#SHIFT_STEPS})
+	 */
+	public void end(Graph<?, ?> graph, int steps) {
+		//nothing is recorded
+	}
+}
@@ -0,0 +1,78 @@
+package de.uniwue.informatik.util;
+
+import java.awt.Shape;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Point2D;
+
+import com.google.common.base.Function;
+
+import de.uniwue.informatik.algorithms.layout.PolylineLayout;
+import edu.uci.ics.jung.algorithms.layout.Layout;
+import edu.uci.ics.jung.graph.util.Pair;
+import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.RenderContext;
+
+/**
+ * Edge shape for the {@link edu.uci.ics.jung.visualization.VisualizationViewer} drawing each edge as polyline
+ * through its bends in a {@link PolylineLayout}.
+ * <p>
+ * JUNG expects edge shapes in a normalized frame (first endpoint at (0,0), second endpoint at (1,0)) that is
+ * afterwards translated, rotated and scaled in x-direction to the endpoints.
+ * So the bends are transformed into that frame here.
+ *
+ * @author Johannes
+ *
+ * @param <V>
+ * @param <E>
+ */
+public class PolylineEdgeShape<V, E> implements Function<E, Shape> {
+
+	private PolylineLayout<V, E> polylines;
+	private Layout<V, E> layout;
+	private RenderContext<V, E> renderContext;
+
+	/**
+	 * @param polylines
+	 * 		bends of the edges
+	 * @param layout
+	 * 		layout that is drawn (same coordinates as polylines)
+	 * @param renderContext
+	 * 		render context of the viewer drawing layout
+	 */
+	public PolylineEdgeShape(PolylineLayout<V, E> polylines, Layout<V, E> layout, RenderContext<V, E> renderContext) {
+		this.polylines = polylines;
+		this.layout = layout;
+		this.renderContext = renderContext;
+	}
+
+	@Override
+	public Shape apply(E edge) {
+		GeneralPath path = new GeneralPath();
+		path.moveTo(0.0f, 0.0f);
+		int[] bends = polylines.getBends(edge);
+		if (bends.length > 0) {
+			Pair<V> endpoints = layout.getGraph().getEndpoints(edge);
+			Point2D p1 = renderContext.getMultiLayerTransformer().transform(Layer.LAYOUT,
+					layout.apply(endpoints.getFirst()));
+			Point2D p2 = renderContext.getMultiLayerTransformer().transform(Layer.LAYOUT,
+					layout.apply(endpoints.getSecond()));
+			double dx = p2.getX() - p1.getX();
+			double dy = p2.getY() - p1.getY();
+			double dist = Math.sqrt(dx * dx + dy * dy);
+			if (dist > 0) {
+				double cos = dx / dist;
+				double sin = dy / dist;
+				for (int i = 0; i < bends.length; i += 2) {
+					Point2D b = renderContext.getMultiLayerTransformer().transform(Layer.LAYOUT,
+							new Point2D.Double(bends[i], bends[i+1]));
+					double bx = b.getX() - p1.getX();
+					double by = b.getY() - p1.getY();
+					//rotate back and undo the scaling in x-direction
+					path.lineTo((float) ((cos * bx + sin * by) / dist), (float) (-sin * bx + cos * by));
+				}
+			}
+		}
+		path.lineTo(1.0f, 0.0f);
+		return path;
+	}
+}
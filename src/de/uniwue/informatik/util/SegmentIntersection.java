@@ -0,0 +1,95 @@
+package de.uniwue.informatik.util;
+
+/**
+ * Exact geometric predicates for segments with integer coordinates.
+ * <p>
+ * All predicates are based on the sign of cross products, i.e., there is no division and no rounding.
+ * Coordinates of up to 31 bits give products of up to 64 bits, which are compared in long arithmetic.
+ * Larger products (e.g. on very large grids) are compared via their full 128-bit values
+ * (see {@link SegmentIntersection#multiplyHigh(long, long)}).
+ *
+ * @author Johannes
+ *
+ */
+public class SegmentIntersection {
+
+	private SegmentIntersection() {
+	}
+
+	/**
+	 * @return
+	 * 		1 if (cx,cy) is left of the directed line through (ax,ay) and (bx,by) (counterclockwise turn),
+	 * 		-1 if it is right of it (clockwise turn) and 0 if the three points are collinear.
+	 * 		The absolute values of all coordinates must be less than 2^62.
+	 */
+	public static int orientation(long ax, long ay, long bx, long by, long cx, long cy) {
+		return compareProducts(bx - ax, cy - ay, by - ay, cx - ax);
+	}
+
+	/**
+	 * Tests whether the closed segments (ax,ay)--(bx,by) and (cx,cy)--(dx,dy) have a common point.
+	 * Touching in an endpoint and overlapping collinear segments count as intersecting,
+	 * parallel segments on different lines do not.
+	 * A segment may be degenerated to a single point.
+	 * The absolute values of all coordinates must be less than 2^62.
+	 */
+	public static boolean intersects(long ax, long ay, long bx, long by, long cx, long cy, long dx, long dy) {
+		//bounding boxes must overlap (this also decides the collinear case)
+		if (Math.max(ax, bx) < Math.min(cx, dx) || Math.max(cx, dx) < Math.min(ax, bx)
+				|| Math.max(ay, by) < Math.min(cy, dy) || Math.max(cy, dy) < Math.min(ay, by)) {
+			return false;
+		}
+		int o1 = orientation(ax, ay, bx, by, cx, cy);
+		int o2 = orientation(ax, ay, bx, by, dx, dy);
+		if (o1 != 0 && o1 == o2) {
+			//c and d strictly on the same side of line ab
+			return false;
+		}
+		int o3 = orientation(cx, cy, dx, dy, ax, ay);
+		int o4 = orientation(cx, cy, dx, dy, bx, by);
+		if (o3 != 0 && o3 == o4) {
+			//a and b strictly on the same side of line cd
+			return false;
+		}
+		/*
+		 * Either the segments cross or touch (the endpoints of each segment are not strictly on the same side
+		 * of the other one) or all four points are collinear and then the overlapping bounding boxes imply
+		 * overlapping segments.
+		 */
+		return true;
+	}
+
+	/**
+	 * @return
+	 * 		sign of a * b - c * d (exact, also if the products do not fit into a long)
+	 */
+	public static int compareProducts(long a, long b, long c, long d) {
+		if (((Math.abs(a) | Math.abs(b) | Math.abs(c) | Math.abs(d)) >>> 31) == 0) {
+			//each product has at most 62 bits
+			return Long.compare(a * b, c * d);
+		}
+		int compareHigh = Long.compare(multiplyHigh(a, b), multiplyHigh(c, d));
+		if (compareHigh != 0) {
+			return compareHigh;
+		}
+		//the low halves are compared unsigned
+		return Long.compare(a * b + Long.MIN_VALUE, c * d + Long.MIN_VALUE);
+	}
+
+	/**
+	 * Upper 64 bits of the 128-bit product of x and y (like Math.multiplyHigh, which is not available in Java 8).
+	 * The lower 64 bits are x * y.
+	 */
+	static long multiplyHigh(long x, long y) {
+		long x1 = x >> 32;
+		long x2 = x & 0xFFFFFFFFL;
+		long y1 = y >> 32;
+		long y2 = y & 0xFFFFFFFFL;
+		long z2 = x2 * y2;
+		long t = x1 * y2 + (z2 >>> 32);
+		long z1 = t & 0xFFFFFFFFL;
+		long z0 = t >> 32;
+		z1 += x2 * y1;
+		return x1 * y1 + z0 + (z1 >> 32);
+	}
+}
@@ -0,0 +1,257 @@
+package de.uniwue.informatik.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+
+/**
+ * Writes the results of a sweep over grid sizes n (one row "n;size of independent set;independent set" per n)
+ * to a csv file such that an interrupted sweep can be resumed.
+ * <p>
+ * The rows are collected in memory and written through one file channel, which is forced to the disk at each
+ * checkpoint (at the latest when a row is written after the checkpoint interval has passed, and when closing).
+ * After forcing, a small binary checkpoint file (csv file name + ".checkpoint") is replaced atomically.
+ * It stores the length of the csv file up to the last complete row, the last n and its independent set.
+ * <p>
+ * When a csv file with a valid checkpoint (and the same header) exists, it is cut to the checkpointed length and
+ * the sweep can skip the sizes that are done ({@link SweepResultWriter#isDone(int)}) or continue after the last
+ * one ({@link SweepResultWriter#getLastN()}, {@link SweepResultWriter#getLastIndependentSet()}).
+ * Otherwise the csv file is started anew; a non-empty csv file that exists is not overwritten, but moved aside
+ * before (to csv file name + ".bak", ".bak1", ...) and that is reported on {@link System#err}.
+ *
+ * @author Johannes
+ *
+ */
+public class SweepResultWriter implements Closeable {
+
+	public static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 60000;
+
+	private static final int CHECKPOINT_MAGIC = 0x53575052;
+	private static final int CHECKPOINT_VERSION = 1;
+
+	private final File csvFile;
+	private final File checkpointFile;
+	private final String header;
+	private final long checkpointIntervalMillis;
+	private final FileChannel channel;
+
+	private final StringBuilder pendingRows = new StringBuilder();
+	private final TreeSet<Integer> doneSizes = new TreeSet<>();
+	private int lastN = -1;
+	private List<GridPoint> lastIndependentSet = Collections.emptyList();
+	private long lastCheckpointMillis;
+
+	public SweepResultWriter(String csvFileName, String header) throws IOException {
+		this(csvFileName, header, DEFAULT_CHECKPOINT_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * @param header
+	 * 		first line of the csv file
+	 * @param checkpointIntervalMillis
+	 * 		minimum time between two checkpoints (0 for a checkpoint after each row)
+	 */
+	public SweepResultWriter(String csvFileName, String header, long checkpointIntervalMillis) throws IOException {
+		this.csvFile = new File(csvFileName);
+		this.checkpointFile = new File(csvFileName + ".checkpoint");
+		this.header = header;
+		this.checkpointIntervalMillis = checkpointIntervalMillis;
+
+		long csvLength = readCheckpoint();
+		boolean resume = csvLength >= 0 && csvFile.exists() && csvLength <= csvFile.length();
+		if (!resume && csvFile.length() > 0) {
+			moveCsvFileAside(csvLength >= 0 ? "it is shorter than in its checkpoint" : "it has no valid checkpoint");
+		}
+		this.channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		if (resume) {
+			//drop everything after the last checkpointed row
+			channel.truncate(csvLength);
+			readDoneSizes();
+			channel.position(csvLength);
+			lastCheckpointMillis = System.currentTimeMillis();
+		}
+		else {
+			channel.truncate(0);
+			doneSizes.clear();
+			lastN = -1;
+			lastIndependentSet = Collections.emptyList();
+			pendingRows.append(header);
+			checkpoint();
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the length of the csv file in the checkpoint or -1 if there is no valid checkpoint for this header
+	 */
+	private long readCheckpoint() {
+		if (!checkpointFile.exists()) {
+			return -1;
+		}
+		try (DataInputStream in = new DataInputStream(new FileInputStream(checkpointFile))) {
+			if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+				System.err.println("Checkpoint "+checkpointFile+" has an unknown format, starting anew.");
+				return -1;
+			}
+			if (!header.equals(in.readUTF())) {
+				System.err.println("Checkpoint "+checkpointFile+" belongs to a csv file with another header, "
+						+ "starting anew.");
+				return -1;
+			}
+			long csvLength = in.readLong();
+			lastN = in.readInt();
+			int size = in.readInt();
+			List<GridPoint> independentSet = new ArrayList<>(size);
+			for (int k = 0; k < size; ++k) {
+				independentSet.add(new GridPoint(in.readInt(), in.readInt()));
+			}
+			lastIndependentSet = independentSet;
+			return csvLength;
+		}
+		catch (IOException e) {
+			System.err.println("Checkpoint "+checkpointFile+" cannot be read, starting anew: "+e);
+			return -1;
+		}
+	}
+
+	/**
+	 * Renames the csv file to the first of csv file name + ".bak", ".bak1", ".bak2", ... that does not exist yet
+	 *
+	 * @param reason
+	 * 		why the csv file cannot be continued, for the message on {@link System#err}
+	 */
+	private void moveCsvFileAside(String reason) throws IOException {
+		File backupFile = new File(csvFile.getPath() + ".bak");
+		for (int k = 1; backupFile.exists(); ++k) {
+			backupFile = new File(csvFile.getPath() + ".bak" + k);
+		}
+		Files.move(csvFile.toPath(), backupFile.toPath());
+		System.err.println("Csv file "+csvFile+" cannot be continued as "+reason+"; it was moved to "+backupFile
+				+" and a new one is started.");
+	}
+
+	private void readDoneSizes() throws IOException {
+		channel.position(0);
+		Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1);
+		BufferedReader lines = new BufferedReader(reader);
+		//skip the header
+		lines.readLine();
+		for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+			int separator = line.indexOf(';');
+			if (separator > 0) {
+				doneSizes.add(Integer.parseInt(line.substring(0, separator)));
+			}
+		}
+	}
+
+	/**
+	 * @return
+	 * 		true if a row for n has been written (in this or in a previous run)
+	 */
+	public boolean isDone(int n) {
+		return doneSizes.contains(n);
+	}
+
+	/**
+	 * @return
+	 * 		n of the last row written (in this or in a previous run) or -1 if there is none
+	 */
+	public int getLastN() {
+		return lastN;
+	}
+
+	/**
+	 * @return
+	 * 		independent set of the last row written (in this or in a previous run), empty if there is none
+	 */
+	public List<GridPoint> getLastIndependentSet() {
+		return lastIndependentSet;
+	}
+
+	/**
+	 * Appends the row "n;size of independentSet;independentSet" and makes a checkpoint if the checkpoint interval
+	 * has passed
+	 */
+	public void write(int n, Collection<GridPoint> independentSet) throws IOException {
+		pendingRows.append(System.lineSeparator() + n + ";" + independentSet.size() + ";" + independentSet);
+		doneSizes.add(n);
+		lastN = n;
+		lastIndependentSet = new ArrayList<>(independentSet);
+		if (System.currentTimeMillis() - lastCheckpointMillis >= checkpointIntervalMillis) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Writes all rows to the csv file, forces it to the disk and then replaces the checkpoint
+	 */
+	public void checkpoint() throws IOException {
+		ByteBuffer bytes = ByteBuffer.wrap(pendingRows.toString().getBytes(StandardCharsets.UTF_8));
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		pendingRows.setLength(0);
+		channel.force(false);
+
+		ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(checkpoint);
+		out.writeInt(CHECKPOINT_MAGIC);
+		out.writeInt(CHECKPOINT_VERSION);
+		out.writeUTF(header);
+		out.writeLong(channel.position());
+		out.writeInt(lastN);
+		out.writeInt(lastIndependentSet.size());
+		for (GridPoint p : lastIndependentSet) {
+			out.writeInt(p.getX());
+			out.writeInt(p.getY());
+		}
+		out.close();
+		File temporaryFile = new File(checkpointFile.getPath() + ".tmp");
+		try (FileChannel checkpointChannel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer checkpointBytes = ByteBuffer.wrap(checkpoint.toByteArray());
+			while (checkpointBytes.hasRemaining()) {
+				checkpointChannel.write(checkpointBytes);
+			}
+			checkpointChannel.force(false);
+		}
+		Files.move(temporaryFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		lastCheckpointMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * Makes a last checkpoint and closes the csv file
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			checkpoint();
+		}
+		finally {
+			channel.close();
+		}
+	}
+}
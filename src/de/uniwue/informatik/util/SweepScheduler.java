@@ -0,0 +1,181 @@
+package de.uniwue.informatik.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import com.google.common.base.Function;
+
+import de.uniwue.informatik.algorithms.layout.GridPoint;
+
+/**
+ * Runs the sizes of a sweep (whose sizes do not depend on each other) concurrently on a bounded thread pool.
+ * <p>
+ * The sizes are started in increasing order, so that the results can be written (and checkpointed) while the
+ * larger sizes are still computed.
+ * Before a size is computed, its estimated memory is reserved from a memory budget (and released afterwards);
+ * sizes whose estimate exceeds the whole budget are skipped (reported on System.err).
+ * The results are passed to the {@link SweepResultWriter} in increasing order of the size: a result is kept
+ * until the results of all smaller sizes have been written.
+ * Sizes that the writer has already done (in a previous run) are skipped.
+ * <p>
+ * The progress output of each size is collected and printed by the thread calling
+ * {@link SweepScheduler#run(int, int, Function, SizeComputation, SweepResultWriter)} when the size is finished,
+ * so the outputs of sizes computed at the same time do not interleave.
+ *
+ * @author Johannes
+ *
+ */
+public class SweepScheduler {
+
+	private static final long BYTES_PER_PERMIT = 1 << 20;
+
+	/**
+	 * Computation of the independent set of one size
+	 */
+	public interface SizeComputation {
+		/**
+		 * Is called concurrently for different sizes
+		 *
+		 * @param log
+		 * 		receives the progress output of this size
+		 */
+		Collection<GridPoint> compute(int n, PrintStream log);
+	}
+
+	private final int numberOfThreads;
+	private final int memoryPermits;
+
+	/**
+	 * @param memoryBudgetBytes
+	 * 		bound on the sum of the memory estimates of the sizes computed at the same time
+	 */
+	public SweepScheduler(int numberOfThreads, long memoryBudgetBytes) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Number of threads must be positive, but is "+numberOfThreads+".");
+		}
+		if (memoryBudgetBytes < BYTES_PER_PERMIT) {
+			throw new IllegalArgumentException("Memory budget must be at least 1 MiB, but is "+memoryBudgetBytes
+					+" bytes.");
+		}
+		this.numberOfThreads = numberOfThreads;
+		this.memoryPermits = (int) Math.min(memoryBudgetBytes / BYTES_PER_PERMIT, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Computes the independent sets of the sizes firstSize to lastSize (except for those done by resultWriter)
+	 * and writes them in increasing order of the size
+	 *
+	 * @param memoryEstimate
+	 * 		estimated number of bytes needed for computing a size
+	 * @param computation
+	 * 		computes the independent set of a size (is called concurrently for different sizes)
+	 */
+	public void run(int firstSize, int lastSize, Function<Integer, Long> memoryEstimate,
+			final SizeComputation computation, SweepResultWriter resultWriter) throws IOException {
+		Deque<Integer> sizesToWrite = new ArrayDeque<>();
+		final Map<Integer, Integer> permitsOfSize = new TreeMap<>();
+		List<Integer> sizesExceedingBudget = new ArrayList<>();
+		for (int n = firstSize; n <= lastSize; ++n) {
+			if (resultWriter.isDone(n)) {
+				continue;
+			}
+			long permits = Math.max(1, (memoryEstimate.apply(n) + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT);
+			if (permits > memoryPermits) {
+				sizesExceedingBudget.add(n);
+				continue;
+			}
+			sizesToWrite.add(n);
+			permitsOfSize.put(n, (int) permits);
+		}
+		if (!sizesExceedingBudget.isEmpty()) {
+			System.err.println("Skipping "+sizesExceedingBudget.size()+" sizes (from "+sizesExceedingBudget.get(0)
+					+" to "+sizesExceedingBudget.get(sizesExceedingBudget.size() - 1)+") whose estimated memory "
+					+ "exceeds the budget of "+memoryPermits+" MiB.");
+		}
+		final Semaphore memory = new Semaphore(memoryPermits);
+		ExecutorService pool = Executors.newFixedThreadPool(numberOfThreads);
+		CompletionService<SizeResult> completionService = new ExecutorCompletionService<>(pool);
+		try {
+			//the pool starts the tasks in the order of submission
+			for (final int n : sizesToWrite) {
+				completionService.submit(new Callable<SizeResult>() {
+					@Override
+					public SizeResult call() throws Exception {
+						int permits = permitsOfSize.get(n);
+						memory.acquire(permits);
+						try {
+							ByteArrayOutputStream log = new ByteArrayOutputStream();
+							PrintStream logStream = new PrintStream(log, false, "UTF-8");
+							Collection<GridPoint> independentSet = computation.compute(n, logStream);
+							logStream.flush();
+							return new SizeResult(n, independentSet, log.toString("UTF-8"));
+						}
+						finally {
+							memory.release(permits);
+						}
+					}
+				});
+			}
+
+			//reorder buffer
+			Map<Integer, Collection<GridPoint>> finishedSizes = new TreeMap<>();
+			for (int k = sizesToWrite.size(); k > 0; --k) {
+				SizeResult result = completionService.take().get();
+				System.out.print(result.log);
+				finishedSizes.put(result.n, result.independentSet);
+				while (!sizesToWrite.isEmpty() && finishedSizes.containsKey(sizesToWrite.peekFirst())) {
+					int n = sizesToWrite.pollFirst();
+					resultWriter.write(n, finishedSizes.remove(n));
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Sweep was interrupted.");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static class SizeResult {
+		private final int n;
+		private final Collection<GridPoint> independentSet;
+		private final String log;
+
+		private SizeResult(int n, Collection<GridPoint> independentSet, String log) {
+			this.n = n;
+			this.independentSet = independentSet;
+			this.log = log;
+		}
+	}
+}